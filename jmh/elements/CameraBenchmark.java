@@ -0,0 +1,84 @@
+package elements;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vec3d;
+import primitives.Vector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the construction of the rays through the pixels of the view plane.
+ *
+ * @author Yosi and Eli
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CameraBenchmark {
+    private static final int N_X = 800;
+    private static final int N_Y = 800;
+
+    private final Camera camera = new Camera(new Point3D(0, 0, -1000), new Vector(0, 0, 1), new Vector(0, 1, 0)) //
+            .setDistance(1000).setViewPlaneSize(200, 200);
+
+    private final RayGenerator generator = camera.getRayGenerator(N_X, N_Y);
+    private final Vec3d dir = new Vec3d();
+    private final double[] row = new double[3 * N_X];
+
+    //The next pixel, the benchmark walks over the view plane row by row.
+    private int pixel = 0;
+
+    /**
+     * Benchmark of {@link Camera#constructRayThroughPixel(int, int, int, int)}.
+     *
+     * @return the ray through the next pixel.
+     */
+    @Benchmark
+    public Ray constructRayThroughPixel() {
+        int p = pixel;
+        pixel = (p + 1) % (N_X * N_Y);
+        return camera.constructRayThroughPixel(N_X, N_Y, p % N_X, p / N_X);
+    }
+
+    /**
+     * Benchmark of {@link RayGenerator#constructRay(int, int)}.
+     *
+     * @return the ray through the next pixel.
+     */
+    @Benchmark
+    public Ray generatorConstructRay() {
+        int p = pixel;
+        pixel = (p + 1) % (N_X * N_Y);
+        return generator.constructRay(p % N_X, p / N_X);
+    }
+
+    /**
+     * Benchmark of {@link RayGenerator#direction(int, int, Vec3d)}.
+     *
+     * @return the direction to the next pixel.
+     */
+    @Benchmark
+    public Vec3d generatorDirection() {
+        int p = pixel;
+        pixel = (p + 1) % (N_X * N_Y);
+        return generator.direction(p % N_X, p / N_X, dir);
+    }
+
+    /**
+     * Benchmark of {@link RayGenerator#directions(int, int, int, double[])} - the directions of a whole row.
+     *
+     * @return the directions of the next row.
+     */
+    @Benchmark
+    public double[] generatorRowDirections() {
+        int p = pixel;
+        pixel = (p + 1) % N_Y;
+        generator.directions(p, 0, N_X, row);
+        return row;
+    }
+}
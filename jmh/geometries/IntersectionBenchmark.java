@@ -0,0 +1,85 @@
+package geometries;
+
+import org.openjdk.jmh.annotations.*;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the intersection of a single ray with a single geometry or bounding box,
+ * for a ray that hits it and for a ray that misses it.
+ *
+ * @author Yosi and Eli
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IntersectionBenchmark {
+
+    //Whether the ray hits the geometries.
+    @Param({"true", "false"})
+    public boolean hit;
+
+    private final Sphere sphere = new Sphere(new Point3D(0, 0, -100), 50);
+    private final Polygon polygon = new Polygon(new Point3D(-50, -50, -100), new Point3D(50, -50, -100),
+            new Point3D(50, 50, -100), new Point3D(-50, 50, -100));
+    private final Triangle triangle = new Triangle(new Point3D(-50, -50, -100), new Point3D(50, -50, -100),
+            new Point3D(0, 50, -100));
+    private final AABB aabb = new AABB(new Point3D(50, 50, -50), new Point3D(-50, -50, -150));
+
+    private Ray ray;
+
+    /**
+     * Constructs the ray through the geometries, or beside them.
+     */
+    @Setup
+    public void setup() {
+        ray = new Ray(hit ? new Point3D(1, 2, 0) : new Point3D(100, 100, 0), new Vector(0.01, 0.02, -1));
+    }
+
+    /**
+     * Benchmark of {@link Sphere#findGeoIntersections(Ray)}.
+     *
+     * @return the intersections.
+     */
+    @Benchmark
+    public List<Intersectable.GeoPoint> sphere() {
+        return sphere.findGeoIntersections(ray);
+    }
+
+    /**
+     * Benchmark of {@link Polygon#findGeoIntersections(Ray)} with a quadrilateral.
+     *
+     * @return the intersections.
+     */
+    @Benchmark
+    public List<Intersectable.GeoPoint> polygon() {
+        return polygon.findGeoIntersections(ray);
+    }
+
+    /**
+     * Benchmark of {@link Triangle#findGeoIntersections(Ray)}.
+     *
+     * @return the intersections.
+     */
+    @Benchmark
+    public List<Intersectable.GeoPoint> triangle() {
+        return triangle.findGeoIntersections(ray);
+    }
+
+    /**
+     * Benchmark of {@link AABB#hasIntersection(Ray)}.
+     *
+     * @return whether the box is hit.
+     */
+    @Benchmark
+    public boolean aabb() {
+        return aabb.hasIntersection(ray);
+    }
+}
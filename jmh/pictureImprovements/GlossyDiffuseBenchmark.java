@@ -0,0 +1,66 @@
+package pictureImprovements;
+
+import elements.Camera;
+import org.openjdk.jmh.annotations.*;
+import primitives.Color;
+import primitives.Ray;
+import renderer.RayTracerBasic;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of tracing the primary rays of the glossy and diffuse scenes of {@link GlossyDiffuseTests}
+ * (built by {@link GlossyDiffuseScenes}), with the same tracer settings as the tests.
+ *
+ * @author Yosi and Eli
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GlossyDiffuseBenchmark {
+    //Resolution of the grid of primary rays the benchmark cycles through.
+    private static final int N = 60;
+
+    @Param({"targetPractice", "balls"})
+    public String scene;
+
+    private RayTracerBasic tracer;
+    private Ray[] rays;
+    private int next = 0;
+
+    /**
+     * Builds the scene and its primary rays.
+     */
+    @Setup
+    public void setup() {
+        GlossyDiffuseScenes built;
+        if (scene.equals("targetPractice")) {
+            built = GlossyDiffuseScenes.targetPractice();
+            tracer = new RayTracerBasic(built.scene).setDiffuseEnabled(true).setGlossyEnabled(true).setNumGlossyDiffuseRays(15);
+        } else {
+            built = GlossyDiffuseScenes.balls();
+            tracer = new RayTracerBasic(built.scene).setGlossyEnabled(true).setDiffuseEnabled(true).setNumGlossyDiffuseRays(5);
+        }
+        Camera camera = built.camera;
+
+        rays = new Ray[N * N];
+        for (int i = 0; i < N; ++i)
+            for (int j = 0; j < N; ++j)
+                rays[i * N + j] = camera.constructRayThroughPixel(N, N, j, i);
+    }
+
+    /**
+     * Benchmark of {@link RayTracerBasic#traceRay(Ray)}.
+     *
+     * @return the color of the next primary ray.
+     */
+    @Benchmark
+    public Color traceRay() {
+        Ray ray = rays[next];
+        next = (next + 1) % rays.length;
+        return tracer.traceRay(ray);
+    }
+}
@@ -0,0 +1,60 @@
+package renderTimeImprovements;
+
+import elements.Camera;
+import org.openjdk.jmh.annotations.*;
+import primitives.Color;
+import primitives.Ray;
+import renderer.RayTracerBasic;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of tracing the primary rays of the teapot scene of {@link TeapotTest} (see {@link TeapotScenes}),
+ * with the model as separate triangles or as a triangle mesh.
+ *
+ * @author Yosi and Eli
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TeapotBenchmark {
+    //Resolution of the grid of primary rays the benchmark cycles through.
+    private static final int N = 100;
+
+    //Whether the model is a single triangle mesh instead of separate triangles.
+    @Param({"false", "true"})
+    public boolean mesh;
+
+    private RayTracerBasic tracer;
+    private Ray[] rays;
+    private int next = 0;
+
+    /**
+     * Builds the teapot scene and its primary rays.
+     */
+    @Setup
+    public void setup() {
+        tracer = new RayTracerBasic(TeapotScenes.teapot(mesh));
+
+        Camera camera = TeapotScenes.camera();
+        rays = new Ray[N * N];
+        for (int i = 0; i < N; ++i)
+            for (int j = 0; j < N; ++j)
+                rays[i * N + j] = camera.constructRayThroughPixel(N, N, j, i);
+    }
+
+    /**
+     * Benchmark of {@link RayTracerBasic#traceRay(Ray)}.
+     *
+     * @return the color of the next primary ray.
+     */
+    @Benchmark
+    public Color traceRay() {
+        Ray ray = rays[next];
+        next = (next + 1) % rays.length;
+        return tracer.traceRay(ray);
+    }
+}
@@ -0,0 +1,76 @@
+package renderTimeImprovements;
+
+import elements.Camera;
+import elements.PointLight;
+import geometries.Triangle;
+import geometries.TriangleMesh;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point3D;
+import primitives.Vector;
+import scene.Scene;
+
+import java.lang.reflect.Field;
+
+/**
+ * The teapot scene of {@link TeapotTest} for the benchmarks.
+ * The model is read from the test's private fields, so the benchmarks share it without the test exposing it.
+ *
+ * @author Yosi and Eli
+ */
+public final class TeapotScenes {
+    private static final Point3D[] pnts = testField("pnts");
+    private static final int[] triangles = testField("triangles");
+    private static final Color color = testField("color");
+    private static final Material mat = testField("mat");
+
+    private TeapotScenes() {
+    }
+
+    /**
+     * Reads a static field of the teapot test.
+     *
+     * @param name the field's name.
+     * @param <T>  the field's type.
+     * @return the field's value.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T testField(String name) {
+        try {
+            Field field = TeapotTest.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return (T) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("the teapot test has no model field " + name, e);
+        }
+    }
+
+    /**
+     * Builds the teapot scene of {@link TeapotTest}.
+     *
+     * @param mesh whether the model is a single triangle mesh instead of separate triangles.
+     * @return the scene.
+     */
+    public static Scene teapot(boolean mesh) {
+        Scene scene = new Scene("Teapot scene");
+        if (mesh)
+            scene.geometries.add(new TriangleMesh(pnts, triangles).setEmission(color).setMaterial(mat));
+        else
+            for (int i = 0; i < triangles.length; i += 3)
+                scene.geometries.add(new Triangle(pnts[triangles[i]], pnts[triangles[i + 1]], pnts[triangles[i + 2]])
+                        .setEmission(color).setMaterial(mat));
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point3D(100, 0, -100)) //
+                .setkQ(0.000001));
+        return scene;
+    }
+
+    /**
+     * Builds the camera of {@link TeapotTest}.
+     *
+     * @return the camera looking at the teapot.
+     */
+    public static Camera camera() {
+        return new Camera(new Point3D(0, 0, -1000), new Vector(0, 0, 1), new Vector(0, 1, 0)) //
+                .setDistance(1000).setViewPlaneSize(200, 200);
+    }
+}
@@ -0,0 +1,47 @@
+package renderer;
+
+import org.openjdk.jmh.annotations.*;
+import renderTimeImprovements.TeapotScenes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of rendering the whole teapot scene, at several thread counts.
+ *
+ * @author Yosi and Eli
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+
+    //Amount of rendering threads, 0 renders on the calling thread.
+    @Param({"0", "1", "2", "4", "8", "16"})
+    public int threads;
+
+    private Render render;
+
+    /**
+     * Builds the renderer of the teapot scene.
+     */
+    @Setup
+    public void setup() {
+        render = new Render()
+                .setCamera(TeapotScenes.camera())
+                .setImageWriter(new ImageWriter("teapotBenchmark", 400, 400))
+                .setRayTracer(new RayTracerBasic(TeapotScenes.teapot(false)));
+        if (threads > 0)
+            render.setMultithreading(threads);
+    }
+
+    /**
+     * Benchmark of {@link Render#renderImage()}.
+     */
+    @Benchmark
+    public void renderImage() {
+        render.renderImage();
+    }
+}
@@ -2,6 +2,7 @@ package elements;
 
 import primitives.Point3D;
 import primitives.Ray;
+import primitives.Vec3d;
 import primitives.Vector;
 
 import static primitives.Util.isZero;
@@ -92,9 +93,6 @@ public class Camera {
         if ((j < 0) || (j >= nX) || (i < 0) || (i >= nY))
             throw new IllegalArgumentException("Error: Pixel's position (in screen - space) exceeds/proceeds screen definition.");
 
-        //The position of the centre of the view plane in 3D space.
-        Point3D imageCentre = _p0.add(_vTo.scale(_distance));
-
         //Ratio of screen-to-pixel along the height and width dimensions respectively.
         double heightRatio = _height / (double) nY;
         double widthRatio = _width / (double) nX;
@@ -104,15 +102,63 @@ public class Camera {
         double widthDistance = (j - (nX - 1) / (double) 2) * widthRatio;
         double heightDistance = -(i - (nY - 1) / (double) 2) * heightRatio;
 
+        return constructRay(widthDistance, heightDistance);
+    }
+
+    /**
+     * creates a generator of the rays through the pixels of a view plane with a given resolution - for tracing
+     * a whole image, the calculations which don't depend on the pixel are done once by the generator.
+     *
+     * @param nX width of row
+     * @param nY height of column
+     * @return the generator of the rays
+     */
+    public RayGenerator getRayGenerator(int nX, int nY) {
+        return new RayGenerator(_p0, _vTo, _vUp, _vRight, _width, _height, _distance, nX, nY);
+    }
+
+    /**
+     * constructs a ray through any point of the view plane, given in pixel units - for sampling within pixels.
+     * The pixel (j, i) covers the square from (j, i) to (j + 1, i + 1), so its centre is at (j + 0.5, i + 0.5)
+     * and its corners are at whole coordinates.
+     *
+     * @param nX width of row
+     * @param nY height of column
+     * @param x  horizontal position of the point, between 0 and nX
+     * @param y  vertical position of the point, between 0 and nY
+     * @return ray from camera to the point
+     */
+    public Ray constructRayThroughPoint(int nX, int nY, double x, double y) {
+        if ((nX <= 0) || (nY <= 0))
+            throw new IllegalArgumentException("Error: Screen is degenerate in one or more dimensions.");
+        if ((x < 0) || (x > nX) || (y < 0) || (y > nY))
+            throw new IllegalArgumentException("Error: Point's position (in screen - space) exceeds/proceeds screen definition.");
+
+        //The distance in units from the centre of the view plane to the point in 3D space
+        // along the width and height dimensions respectively.
+        double widthDistance = (x - nX / (double) 2) * (_width / (double) nX);
+        double heightDistance = -(y - nY / (double) 2) * (_height / (double) nY);
+
+        return constructRay(widthDistance, heightDistance);
+    }
 
-        //The centre of this specific pixel in 3D space.
-        Point3D pixelCentre = imageCentre;
+    /**
+     * constructs a ray from the camera through a point of the view plane.
+     *
+     * @param widthDistance  distance of the point from the centre of the view plane along its width
+     * @param heightDistance distance of the point from the centre of the view plane along its height
+     * @return ray from camera to the point
+     */
+    private Ray constructRay(double widthDistance, double heightDistance) {
+        //The vector from the eye of the camera to the point -
+        //to the centre of the view plane and from there along the view plane's width and height.
+        Vec3d toPixel = new Vec3d(_vTo).scale(_distance);
         if (widthDistance != 0)
-            pixelCentre = pixelCentre.add(_vRight.scale(widthDistance));
+            toPixel.addScaled(_vRight, widthDistance);
         if (heightDistance != 0)
-            pixelCentre = pixelCentre.add(_vUp.scale(heightDistance));
+            toPixel.addScaled(_vUp, heightDistance);
 
-        //Ray originates at the eye of the camera(p0) and points in the direction of the centre of the pixel.
-        return new Ray(_p0, pixelCentre.subtract(_p0));
+        //Ray originates at the eye of the camera(p0) and points in the direction of the point.
+        return new Ray(_p0, toPixel.toVector());
     }
 }
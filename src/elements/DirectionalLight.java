@@ -27,6 +27,14 @@ public class DirectionalLight extends Light implements LightSource{
         direction = direction_;
     }
 
+    /**
+     * Getter for the direction of the light source.
+     *
+     * @return The direction the light source points to.
+     */
+    public Vector getDirection() {
+        return direction;
+    }
 
     /**
      * Gets the intensity colour at a given point with respect to this light source.
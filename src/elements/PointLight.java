@@ -51,6 +51,42 @@ public class PointLight extends Light implements LightSource{
         return this;
     }
 
+    /**
+     * Getter for the position of the light source.
+     *
+     * @return The origin of the light source.
+     */
+    public Point3D getPosition() {
+        return position;
+    }
+
+    /**
+     * Getter for the 'kC' diffusion coefficient.
+     *
+     * @return The coefficient value.
+     */
+    public double getkC() {
+        return kC;
+    }
+
+    /**
+     * Getter for the 'kL' diffusion coefficient.
+     *
+     * @return The coefficient value.
+     */
+    public double getkL() {
+        return kL;
+    }
+
+    /**
+     * Getter for the 'kQ' diffusion coefficient.
+     *
+     * @return The coefficient value.
+     */
+    public double getkQ() {
+        return kQ;
+    }
+
     /**
      * Constructor for point-light light source.
      *
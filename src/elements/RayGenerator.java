@@ -0,0 +1,193 @@
+package elements;
+
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vec3d;
+import primitives.Vector;
+
+/**
+ * Generator of the rays from a camera through the pixels of a view plane with a fixed resolution.
+ * Everything that doesn't depend on the pixel - the resolution checks, the vector to the centre of the view plane
+ * and the distances of every pixel column and row from it - is calculated once, so the direction of a ray is
+ * a handful of multiplications and additions and can be written into a given {@link Vec3d} or array without
+ * allocating. The directions are exactly the ones of {@link Camera#constructRayThroughPixel(int, int, int, int)}.
+ * {@link #constructRay(int, int)} still allocates the ray and its direction vector - the scalar intersection API takes
+ * a {@link Ray} - so renders without packet tracing create one Ray per pixel; packets of rays are filled from
+ * {@link #directions(int, int, int, double[])} and create a Ray only for the rays that reach a geometry.
+ *
+ * @author Yosi and Eli.
+ */
+public final class RayGenerator {
+
+    private final Point3D _p0; // Camera location
+    private final int _nX; // Width of row
+    private final int _nY; // Height of column
+
+    //Camera's right and up vectors, and the vector from the camera to the centre of the view plane.
+    private final double _rightX, _rightY, _rightZ;
+    private final double _upX, _upY, _upZ;
+    private final double _centreX, _centreY, _centreZ;
+
+    //The distances from the centre of the view plane to every pixel column along its width, and to every pixel row
+    // along its height.
+    private final double[] _widthDistances;
+    private final double[] _heightDistances;
+
+    /**
+     * Constructor for the generator of a camera - see {@link Camera#getRayGenerator(int, int)}.
+     *
+     * @param p0       camera location.
+     * @param vTo      vector pointing 'forwards' relative to camera (normalized).
+     * @param vUp      vector pointing upwards relative to camera (normalized).
+     * @param vRight   vector pointing right relative to camera (normalized).
+     * @param width    width of view plane.
+     * @param height   height of view plane.
+     * @param distance distance between view plane and camera eye.
+     * @param nX       width of row.
+     * @param nY       height of column.
+     */
+    RayGenerator(Point3D p0, Vector vTo, Vector vUp, Vector vRight, double width, double height, double distance, int nX, int nY) {
+        if ((nX <= 0) || (nY <= 0))
+            throw new IllegalArgumentException("Error: Screen is degenerate in one or more dimensions.");
+
+        _p0 = p0;
+        _nX = nX;
+        _nY = nY;
+
+        Vec3d right = new Vec3d(vRight), up = new Vec3d(vUp), centre = new Vec3d(vTo).scale(distance);
+        _rightX = right.x;
+        _rightY = right.y;
+        _rightZ = right.z;
+        _upX = up.x;
+        _upY = up.y;
+        _upZ = up.z;
+        _centreX = centre.x;
+        _centreY = centre.y;
+        _centreZ = centre.z;
+
+        //Ratio of screen-to-pixel along the height and width dimensions respectively.
+        double heightRatio = height / (double) nY;
+        double widthRatio = width / (double) nX;
+
+        _widthDistances = new double[nX];
+        for (int j = 0; j < nX; ++j)
+            _widthDistances[j] = (j - (nX - 1) / (double) 2) * widthRatio;
+        _heightDistances = new double[nY];
+        for (int i = 0; i < nY; ++i)
+            _heightDistances[i] = -(i - (nY - 1) / (double) 2) * heightRatio;
+    }
+
+    /**
+     * getter for the camera location - the origin of all the rays.
+     *
+     * @return the camera location.
+     */
+    public Point3D get_p0() {
+        return _p0;
+    }
+
+    /**
+     * getter for the width of row.
+     *
+     * @return the amount of pixel columns.
+     */
+    public int getNx() {
+        return _nX;
+    }
+
+    /**
+     * getter for the height of column.
+     *
+     * @return the amount of pixel rows.
+     */
+    public int getNy() {
+        return _nY;
+    }
+
+    /**
+     * Calculates the direction from the camera to the centre of a pixel (not normalized), without allocating.
+     *
+     * @param j   column index of pixel
+     * @param i   row index of pixel
+     * @param dir the triple to write the direction into
+     * @return dir
+     */
+    public Vec3d direction(int j, int i, Vec3d dir) {
+        double widthDistance = _widthDistances[j], heightDistance = _heightDistances[i];
+        double x = _centreX, y = _centreY, z = _centreZ;
+        //Along the view plane's width and height - the same calculation as the camera's, zero distances included.
+        if (widthDistance != 0) {
+            x += _rightX * widthDistance;
+            y += _rightY * widthDistance;
+            z += _rightZ * widthDistance;
+        }
+        if (heightDistance != 0) {
+            x += _upX * heightDistance;
+            y += _upY * heightDistance;
+            z += _upZ * heightDistance;
+        }
+        return dir.set(x, y, z);
+    }
+
+    /**
+     * Calculates the directions from the camera to the centres of consecutive pixels of a row (not normalized),
+     * without allocating.
+     *
+     * @param i     row index of the pixels
+     * @param j0    column index of the first pixel
+     * @param count amount of pixels
+     * @param dirs  array to write the directions into - x, y and z of every pixel in turn, at least 3 * count long
+     */
+    public void directions(int i, int j0, int count, double[] dirs) {
+        if (j0 < 0 || count < 0 || j0 + count > _nX || i < 0 || i >= _nY)
+            throw new IllegalArgumentException("Error: Pixels' position (in screen - space) exceeds/proceeds screen definition.");
+
+        double heightDistance = _heightDistances[i];
+        for (int k = 0, j = j0; k < count; ++k, ++j) {
+            double widthDistance = _widthDistances[j];
+            double x = _centreX, y = _centreY, z = _centreZ;
+            //The row's distance is added last, the same as the camera's calculation - so the results are equal.
+            if (widthDistance != 0) {
+                x += _rightX * widthDistance;
+                y += _rightY * widthDistance;
+                z += _rightZ * widthDistance;
+            }
+            if (heightDistance != 0) {
+                x += _upX * heightDistance;
+                y += _upY * heightDistance;
+                z += _upZ * heightDistance;
+            }
+            dirs[3 * k] = x;
+            dirs[3 * k + 1] = y;
+            dirs[3 * k + 2] = z;
+        }
+    }
+
+    /**
+     * constructs a ray through a pixel - the same ray as {@link Camera#constructRayThroughPixel(int, int, int, int)}.
+     * Only the ray and its direction are created - the direction is calculated straight into the vector, and the
+     * ray's origin is the camera's location which is shared by all the rays.
+     *
+     * @param j column index of pixel
+     * @param i row index of pixel
+     * @return ray from camera to pixel
+     */
+    public Ray constructRay(int j, int i) {
+        if ((j < 0) || (j >= _nX) || (i < 0) || (i >= _nY))
+            throw new IllegalArgumentException("Error: Pixel's position (in screen - space) exceeds/proceeds screen definition.");
+
+        double widthDistance = _widthDistances[j], heightDistance = _heightDistances[i];
+        double x = _centreX, y = _centreY, z = _centreZ;
+        if (widthDistance != 0) {
+            x += _rightX * widthDistance;
+            y += _rightY * widthDistance;
+            z += _rightZ * widthDistance;
+        }
+        if (heightDistance != 0) {
+            x += _upX * heightDistance;
+            y += _upY * heightDistance;
+            z += _upZ * heightDistance;
+        }
+        return new Ray(_p0, new Vector(x, y, z));
+    }
+}
@@ -25,6 +25,15 @@ public class SpotLight extends PointLight{
         direction = direction_;
     }
 
+    /**
+     * Getter for the direction the spot light is pointing in.
+     *
+     * @return The direction of the spot light.
+     */
+    public Vector getDirection() {
+        return direction;
+    }
+
     /**
      * Gets the intensity colour at a given point with respect to this light source.
      *
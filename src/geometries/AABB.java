@@ -22,6 +22,12 @@ public class AABB {
      */
     private Point3D min;
 
+    /**
+     * bounds holds the coordinates of min (x, y, z) followed by those of max, so the near and far sides of the box
+     * can be picked by the signs of a ray's direction.
+     */
+    private final double[] bounds;
+
     /**
      * DELTA_VECTOR sets the space between the geometry and the aabb.cit is needed in order to make the box 3D even for 2D geometries.
      */
@@ -41,6 +47,8 @@ public class AABB {
         }
         this.max = max.add(new Vector(1, 1, 1).scale(DELTA));
         this.min = min.add(new Vector(-1,-1,-1).scale(DELTA));
+        bounds = new double[]{this.min.getX().getCoord(), this.min.getY().getCoord(), this.min.getZ().getCoord(),
+                this.max.getX().getCoord(), this.max.getY().getCoord(), this.max.getZ().getCoord()};
     }
 
     /**
@@ -66,46 +74,68 @@ public class AABB {
      * @return a boolean value representing if there is an intersection.
      */
     public boolean hasIntersection(Ray ray){
-        Point3D p0 = ray.get_p0();
-        Point3D dirHead = ray.get_dir().getHead();
-
-        //rays p0's, direction's head, max's and min's coordinates - saved as variables for DRY
-        double p0X = p0.getX().getCoord(), p0Y = p0.getY().getCoord(), p0Z = p0.getZ().getCoord();
-        double dirX = dirHead.getX().getCoord(), dirY = dirHead.getY().getCoord(), dirZ = dirHead.getZ().getCoord();
-        double minX = min.getX().getCoord(), minY = min.getY().getCoord(), minZ = min.getZ().getCoord();
-        double maxX = max.getX().getCoord(),  maxY = max.getY().getCoord(), maxZ = max.getZ().getCoord();
-
-        //tMin is the minimum t value to scale ray by for the ray to intersect the AABB
-        double tMin = Double.NEGATIVE_INFINITY;
-        //tMax is the maximum t value to scale ray by for the ray to intersect the AABB
-        double tMax = Double.POSITIVE_INFINITY;
-
-        //find minimum and maximum t value to scale the ray by to hit the box's x coordinate range.
-        if(!isZero(dirX)){
-            double tToMinX = (minX - p0X)/dirX;
-            double tToMaxX = (maxX - p0X)/dirX;
-            tMin = Math.max(tMin, Math.min(tToMinX, tToMaxX));
-            tMax = Math.min(tMax, Math.max(tToMinX, tToMaxX));
-        }
+        return hasIntersection(ray, Double.POSITIVE_INFINITY);
+    }
 
-        //check if minimum and maximum t value to scale the ray by to hit the box's y coordinate range is smaller or larger than the x range.
-        if(!isZero(dirY)){
-            double tToMinY = (minY - p0Y)/dirY;
-            double tToMaxY = (maxY - p0Y)/dirY;
-            tMin = Math.max(tMin, Math.min(tToMinY, tToMaxY));
-            tMax = Math.min(tMax, Math.max(tToMinY, tToMaxY));
-        }
+    /**
+     * check if a given ray intersects the AABB before a given distance along the ray.
+     *
+     * @param ray the ray to check intersection with.
+     * @param maxDistance the distance along the ray beyond which intersections are not of interest.
+     * @return a boolean value representing if there is an intersection in front of the ray's origin and not beyond maxDistance.
+     */
+    public boolean hasIntersection(Ray ray, double maxDistance){
+        return entryDistance(ray, maxDistance) != Double.POSITIVE_INFINITY;
+    }
 
-        //check if minimum and maximum t value to scale the ray by to hit the box's z coordinate range is smaller or larger than the x and y range.
-        if(!isZero(dirZ)){
-            double tToMinZ = (minZ - p0Z)/dirZ;
-            double tToMaxZ = (maxZ - p0Z)/dirZ;
-            tMin = Math.max(tMin, Math.min(tToMinZ, tToMaxZ));
-            tMax = Math.min(tMax, Math.max(tToMinZ, tToMaxZ));
-        }
+    /**
+     * finds the distance along a ray at which it enters the AABB, using the slab test with the ray's inverse direction.
+     * The near and far side of each slab are picked by the signs of the ray's direction, so there are no divisions,
+     * no swaps and no branches but the selections of the ranges' ends.
+     *
+     * @param ray the ray to check intersection with.
+     * @param maxDistance the distance along the ray beyond which intersections are not of interest.
+     * @return the distance at which the ray enters the box (zero if it starts inside it),
+     * or positive infinity if it misses the box or enters it beyond maxDistance.
+     */
+    public double entryDistance(Ray ray, double maxDistance){
+        Point3D p0 = ray.get_p0();
+        double p0X = p0.getX().getCoord(), p0Y = p0.getY().getCoord(), p0Z = p0.getZ().getCoord();
+        double invX = ray.getInvDirX(), invY = ray.getInvDirY(), invZ = ray.getInvDirZ();
+        int signX = 3 * ray.getSignX(), signY = 3 * ray.getSignY(), signZ = 3 * ray.getSignZ();
+
+        //the range of distances along the ray inside all the slabs, starting as the range of interest.
+        //a ray parallel to a slab and on its side has NaN distances to it - comparisons with NaN are false,
+        //so they leave the range as is.
+        double tMin = 0, tMax = maxDistance;
+
+        double tNear = (bounds[signX] - p0X) * invX, tFar = (bounds[3 - signX] - p0X) * invX;
+        tMin = tNear > tMin ? tNear : tMin;
+        tMax = tFar < tMax ? tFar : tMax;
+
+        tNear = (bounds[1 + signY] - p0Y) * invY;
+        tFar = (bounds[4 - signY] - p0Y) * invY;
+        tMin = tNear > tMin ? tNear : tMin;
+        tMax = tFar < tMax ? tFar : tMax;
+
+        tNear = (bounds[2 + signZ] - p0Z) * invZ;
+        tFar = (bounds[5 - signZ] - p0Z) * invZ;
+        tMin = tNear > tMin ? tNear : tMin;
+        tMax = tFar < tMax ? tFar : tMax;
+
+        //if the minimum is bigger than the maximum so there is no intersection in the range of interest.
+        return tMin <= tMax ? tMin : Double.POSITIVE_INFINITY;
+    }
 
-        //if the minimum is bigger than the maximum so there is no intersection.
-        return tMax >= tMin;
+    /**
+     * check which of the rays of a packet intersect the AABB before their closest intersections found so far,
+     * and mark them as the packet's active rays.
+     *
+     * @param packet the rays.
+     * @return true if any of the rays intersects the AABB.
+     */
+    boolean hasIntersections(RayPacket packet){
+        return packet.hitsBox(bounds, 0);
     }
 
     public Geometries.Axis getLongestAxis(){
@@ -0,0 +1,497 @@
+package geometries;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Builds a bounding volume hierarchy over a set of primitive bounding boxes using the surface area heuristic (SAH).
+ * The builder only works with primitive indices and raw bounds, so the same split logic can be used
+ * for any kind of primitive. the resulting tree is described by the permutation of the primitives (order)
+ * and the nodes returned by {@link #build()}, each holding a continuous range of it.
+ * The build is parallel - the passes over the primitives of a large range (gathering the bounds, finding the centres,
+ * and the bounds and binning of a range being split) run as parallel streams, reducing per thread boxes and bucket
+ * counts, and once a node is split its two subtrees are built as fork-join tasks (on the common pool), down to ranges
+ * too small to be worth a task. Only the partition of a range around its split runs serially.
+ * Since boxes are merged by min and max and buckets are counted in integers, the reductions are exact,
+ * and since the children of a node own disjoint ranges of the order, the tasks don't share any mutable state -
+ * so the resulting tree is the same as the one of a single threaded build.
+ *
+ * @author Yosi and Eli
+ */
+class BVHBuilder {
+    /**
+     * MAX_LEAF_SIZE - the maximal amount of primitives allowed in a leaf.
+     * BUCKETS - the number of buckets the centroids are binned into when looking for the best split.
+     * TRAVERSAL_COST - the cost of visiting a node, relative to INTERSECTION_COST - the cost of testing a primitive.
+     * PARALLEL_THRESHOLD - the amount of primitives from which passes over them run in parallel and subtrees
+     * are built in separate tasks.
+     */
+    static final int MAX_LEAF_SIZE = 4;
+    private static final int BUCKETS = 12;
+    private static final double TRAVERSAL_COST = 1.0;
+    private static final double INTERSECTION_COST = 1.0;
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    //Primitive bounds - minX, minY, minZ, maxX, maxY, maxZ for each position of the order.
+    private final double[] bounds;
+    //Primitive box centres - x, y, z for each position of the order.
+    private final double[] centroids;
+    //Permutation of the primitives, each node holds a continuous range of it.
+    //The bounds and centres are permuted along with it, so the passes over a range read them in order.
+    final int[] order;
+    //The bucket of the primitive at every position of the order, while its range is being split.
+    private final int[] bucketAt;
+    //Whether the passes over large ranges and the subtrees of large nodes run in parallel.
+    private final boolean parallel;
+
+    /**
+     * A node of the built tree - a range of the order, its bounds and its two children (null for a leaf).
+     */
+    static final class Node {
+        final int start;
+        final int end;
+        final double[] bounds = new double[6];
+        Node left;
+        Node right;
+
+        /**
+         * Constructor for a node over a range of the order.
+         *
+         * @param start first index of the range (inclusive).
+         * @param end   last index of the range (exclusive).
+         */
+        Node(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Checks whether the node is a leaf.
+         *
+         * @return true if the node has no children.
+         */
+        boolean isLeaf() {
+            return left == null;
+        }
+    }
+
+    /**
+     * Constructor for the builder given the bounds of the primitives.
+     *
+     * @param bounds the primitives' bounds - six values (min x, y, z and max x, y, z) per primitive.
+     *               The builder takes the array over, and reorders it while building.
+     */
+    BVHBuilder(double[] bounds) {
+        this(bounds, true);
+    }
+
+    /**
+     * Constructor for the builder given the bounds of the primitives, which may be restricted to a single thread.
+     *
+     * @param bounds   the primitives' bounds - six values (min x, y, z and max x, y, z) per primitive.
+     *                 The builder takes the array over, and reorders it while building.
+     * @param parallel false to build on the calling thread only.
+     */
+    BVHBuilder(double[] bounds, boolean parallel) {
+        this.bounds = bounds;
+        this.parallel = parallel;
+        int n = bounds.length / 6;
+        centroids = new double[3 * n];
+        order = new int[n];
+        bucketAt = new int[n];
+        range(0, n).forEach(i -> {
+            for (int a = 0; a < 3; ++a)
+                centroids[3 * i + a] = (bounds[6 * i + a] + bounds[6 * i + 3 + a]) / 2;
+            order[i] = i;
+        });
+    }
+
+    /**
+     * Gets a stream of the indices of primitives for a pass over them - parallel if there are enough of them.
+     *
+     * @param n the amount of primitives.
+     * @return the stream of the indices from 0 (inclusive) to n (exclusive).
+     */
+    static IntStream indices(int n) {
+        IntStream res = IntStream.range(0, n);
+        return n >= PARALLEL_THRESHOLD ? res.parallel() : res;
+    }
+
+    /**
+     * Gets a stream of a range of the order for a pass over it - parallel if the build is and the range is large enough.
+     *
+     * @param start first index of the range (inclusive).
+     * @param end   last index of the range (exclusive).
+     * @return the stream of the indices of the range.
+     */
+    private IntStream range(int start, int end) {
+        IntStream res = IntStream.range(start, end);
+        return isParallel(end - start) ? res.parallel() : res;
+    }
+
+    /**
+     * Checks whether a range of the order is handled in parallel.
+     *
+     * @param count the amount of primitives in the range.
+     * @return true if the build is parallel and the range is large enough.
+     */
+    private boolean isParallel(int count) {
+        return parallel && count >= PARALLEL_THRESHOLD;
+    }
+
+    /**
+     * Gathers the bounds of a list of bounded intersectables into the raw format used by the builder.
+     *
+     * @param intersectables the intersectables (all must have an AABB).
+     * @return the bounds, six values per intersectable.
+     */
+    static double[] boundsOf(List<Intersectable> intersectables) {
+        double[] res = new double[6 * intersectables.size()];
+        indices(intersectables.size()).forEach(i -> {
+            AABB box = intersectables.get(i).getAABB();
+            res[6 * i] = box.getMin().getX().getCoord();
+            res[6 * i + 1] = box.getMin().getY().getCoord();
+            res[6 * i + 2] = box.getMin().getZ().getCoord();
+            res[6 * i + 3] = box.getMax().getX().getCoord();
+            res[6 * i + 4] = box.getMax().getY().getCoord();
+            res[6 * i + 5] = box.getMax().getZ().getCoord();
+        });
+        return res;
+    }
+
+    /**
+     * Calculates the union of the bounds of the primitives in a range of the order, and the bounds of their centroids
+     * - in a single pass over the range (a parallel reduction for a large range).
+     *
+     * @param start          first index of the range (inclusive).
+     * @param end            last index of the range (exclusive).
+     * @param box            array to write the bounds of the primitives to.
+     * @param centroidBounds array to write the bounds of the centroids to.
+     */
+    private void rangeBounds(int start, int end, double[] box, double[] centroidBounds) {
+        double[] res;
+        if (isParallel(end - start))
+            res = range(start, end).collect(BVHBuilder::emptyRangeBounds, this::growRangeBounds, BVHBuilder::mergeRangeBounds);
+        else {
+            res = emptyRangeBounds();
+            for (int i = start; i < end; ++i)
+                growRangeBounds(res, i);
+        }
+        System.arraycopy(res, 0, box, 0, 6);
+        System.arraycopy(res, 6, centroidBounds, 0, 6);
+    }
+
+    /**
+     * Creates the empty bounds of a range - the bounds of the primitives followed by the bounds of their centroids.
+     *
+     * @return the empty bounds.
+     */
+    private static double[] emptyRangeBounds() {
+        double[] res = new double[12];
+        emptyBox(res, 0);
+        emptyBox(res, 6);
+        return res;
+    }
+
+    /**
+     * Grows the bounds of a range so they contain a primitive and its centroid.
+     *
+     * @param res       the bounds of the range.
+     * @param primitive the primitive's position in the order.
+     */
+    private void growRangeBounds(double[] res, int primitive) {
+        grow(res, 0, bounds, 6 * primitive);
+        for (int a = 0; a < 3; ++a) {
+            double c = centroids[3 * primitive + a];
+            res[6 + a] = Math.min(res[6 + a], c);
+            res[9 + a] = Math.max(res[9 + a], c);
+        }
+    }
+
+    /**
+     * Merges the bounds of two parts of a range.
+     *
+     * @param res   the bounds to grow.
+     * @param other the bounds to contain.
+     */
+    private static void mergeRangeBounds(double[] res, double[] other) {
+        grow(res, 0, other, 0);
+        grow(res, 6, other, 6);
+    }
+
+    /**
+     * Builds the tree over all the primitives, reordering {@link #order} so every node holds a continuous range of it.
+     *
+     * @return the root node, null if there are no primitives.
+     */
+    Node build() {
+        return order.length == 0 ? null : new BuildTask(0, order.length).invoke();
+    }
+
+    /**
+     * The task of building the subtree of a range of the order.
+     */
+    private final class BuildTask extends RecursiveTask<Node> {
+        private static final long serialVersionUID = 1L;
+        private final int start;
+        private final int end;
+
+        /**
+         * Constructor for the task of a range of the order.
+         *
+         * @param start first index of the range (inclusive).
+         * @param end   last index of the range (exclusive).
+         */
+        BuildTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Node compute() {
+            return buildNode(start, end);
+        }
+
+        /**
+         * Builds the subtree of a range - the larger subtrees as separate tasks.
+         *
+         * @param start first index of the range (inclusive).
+         * @param end   last index of the range (exclusive).
+         * @return the root of the subtree.
+         */
+        private Node buildNode(int start, int end) {
+            Node node = new Node(start, end);
+            double[] centroidBounds = new double[6];
+            rangeBounds(start, end, node.bounds, centroidBounds);
+            int mid = split(start, end, node.bounds, centroidBounds);
+            if (mid < 0)
+                return node;
+            if (isParallel(end - start)) {
+                BuildTask left = new BuildTask(start, mid);
+                left.fork();
+                node.right = buildNode(mid, end);
+                node.left = left.join();
+            } else {
+                node.left = buildNode(start, mid);
+                node.right = buildNode(mid, end);
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Chooses how to split a range of the order into two children using the surface area heuristic,
+     * and partitions the range accordingly. Ranges of the order that don't overlap may be split concurrently.
+     *
+     * @param start          first index of the range (inclusive).
+     * @param end            last index of the range (exclusive).
+     * @param nodeBounds     the bounds of the primitives in the range.
+     * @param centroidBounds the bounds of the centroids of the primitives in the range.
+     * @return the index splitting the range into [start, mid) and [mid, end), or -1 if the range should be a leaf.
+     */
+    private int split(int start, int end, double[] nodeBounds, double[] centroidBounds) {
+        int count = end - start;
+        if (count <= 1)
+            return -1;
+
+        int axis = widestAxis(centroidBounds);
+        double axisMin = centroidBounds[axis], extent = centroidBounds[3 + axis] - axisMin;
+
+        //All centroids are in the same place - there is nothing to gain from the heuristic.
+        if (extent <= 0)
+            return count <= MAX_LEAF_SIZE ? -1 : start + count / 2;
+
+        //Bin the primitives into buckets according to their centroid (a parallel reduction for a large range).
+        Bins bins;
+        if (isParallel(count))
+            bins = range(start, end).collect(Bins::new, (part, i) -> part.add(i, axis, axisMin, extent), Bins::merge);
+        else {
+            bins = new Bins();
+            for (int i = start; i < end; ++i)
+                bins.add(i, axis, axisMin, extent);
+        }
+        int[] bucketCount = bins.count;
+        double[] bucketBounds = bins.bounds;
+        double[] rightArea = new double[BUCKETS];
+
+        //Sweep from the right to get the area of every suffix of buckets.
+        double[] box = new double[6];
+        emptyBox(box, 0);
+        for (int b = BUCKETS - 1; b > 0; --b) {
+            grow(box, 0, bucketBounds, 6 * b);
+            rightArea[b] = surfaceArea(box);
+        }
+
+        //Sweep from the left and evaluate the cost of splitting after every bucket.
+        emptyBox(box, 0);
+        int leftCount = 0, bestSplit = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int b = 0; b < BUCKETS - 1; ++b) {
+            grow(box, 0, bucketBounds, 6 * b);
+            leftCount += bucketCount[b];
+            int rightCount = count - leftCount;
+            if (leftCount == 0 || rightCount == 0)
+                continue;
+            double cost = surfaceArea(box) * leftCount + rightArea[b + 1] * rightCount;
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestSplit = b;
+            }
+        }
+
+        double parentArea = surfaceArea(nodeBounds);
+        double splitCost = TRAVERSAL_COST + (parentArea > 0 ? bestCost / parentArea : count) * INTERSECTION_COST;
+        if (count <= MAX_LEAF_SIZE && (bestSplit < 0 || count * INTERSECTION_COST <= splitCost))
+            return -1;
+        if (bestSplit < 0)
+            return start + count / 2;
+
+        //Partition the range so the primitives of the left buckets come first - by the buckets kept while binning.
+        int mid = start;
+        for (int i = start; i < end; ++i)
+            if (bucketAt[i] <= bestSplit) {
+                if (i != mid)
+                    swap(i, mid);
+                ++mid;
+            }
+        return mid;
+    }
+
+    /**
+     * Finds the axis along which the centroids are spread the most.
+     *
+     * @param centroidBounds the bounds of the centroids.
+     * @return the axis (0 - x, 1 - y, 2 - z).
+     */
+    private static int widestAxis(double[] centroidBounds) {
+        int axis = 0;
+        for (int a = 1; a < 3; ++a)
+            if (centroidBounds[3 + a] - centroidBounds[a] > centroidBounds[3 + axis] - centroidBounds[axis])
+                axis = a;
+        return axis;
+    }
+
+    /**
+     * The buckets the centroids of (part of) a range are binned into - their counts and the bounds of their primitives.
+     */
+    private final class Bins {
+        final int[] count = new int[BUCKETS];
+        final double[] bounds = new double[6 * BUCKETS];
+
+        /**
+         * Constructor for empty buckets.
+         */
+        Bins() {
+            for (int b = 0; b < BUCKETS; ++b)
+                emptyBox(bounds, 6 * b);
+        }
+
+        /**
+         * Bins a primitive, and keeps its bucket for the partition.
+         *
+         * @param primitive the primitive's position in the order.
+         * @param axis      the axis (0 - x, 1 - y, 2 - z).
+         * @param axisMin   the minimal centroid value along the axis.
+         * @param extent    the extent of the centroids along the axis.
+         */
+        void add(int primitive, int axis, double axisMin, double extent) {
+            int b = bucket(primitive, axis, axisMin, extent);
+            bucketAt[primitive] = b;
+            ++count[b];
+            grow(bounds, 6 * b, BVHBuilder.this.bounds, 6 * primitive);
+        }
+
+        /**
+         * Merges the buckets of another part of the range into these.
+         *
+         * @param other the other buckets.
+         */
+        void merge(Bins other) {
+            for (int b = 0; b < BUCKETS; ++b) {
+                count[b] += other.count[b];
+                grow(bounds, 6 * b, other.bounds, 6 * b);
+            }
+        }
+    }
+
+    /**
+     * Swaps two positions of the order, along with their bounds, centres and buckets.
+     *
+     * @param i the first position.
+     * @param j the second position.
+     */
+    private void swap(int i, int j) {
+        int tmp = order[i];
+        order[i] = order[j];
+        order[j] = tmp;
+        tmp = bucketAt[i];
+        bucketAt[i] = bucketAt[j];
+        bucketAt[j] = tmp;
+        for (int k = 0; k < 6; ++k) {
+            double d = bounds[6 * i + k];
+            bounds[6 * i + k] = bounds[6 * j + k];
+            bounds[6 * j + k] = d;
+        }
+        for (int k = 0; k < 3; ++k) {
+            double d = centroids[3 * i + k];
+            centroids[3 * i + k] = centroids[3 * j + k];
+            centroids[3 * j + k] = d;
+        }
+    }
+
+    /**
+     * Calculates the bucket of a primitive along an axis.
+     *
+     * @param primitive the primitive's position in the order.
+     * @param axis      the axis (0 - x, 1 - y, 2 - z).
+     * @param axisMin   the minimal centroid value along the axis.
+     * @param extent    the extent of the centroids along the axis.
+     * @return the bucket index.
+     */
+    private int bucket(int primitive, int axis, double axisMin, double extent) {
+        int b = (int) (BUCKETS * (centroids[3 * primitive + axis] - axisMin) / extent);
+        return b >= BUCKETS ? BUCKETS - 1 : b;
+    }
+
+    /**
+     * Grows a box so it contains another box.
+     *
+     * @param box         the array holding the box to grow.
+     * @param offset      the offset of the box in its array.
+     * @param other       the array holding the box to contain.
+     * @param otherOffset the offset of the other box in its array.
+     */
+    static void grow(double[] box, int offset, double[] other, int otherOffset) {
+        for (int a = 0; a < 3; ++a) {
+            box[offset + a] = Math.min(box[offset + a], other[otherOffset + a]);
+            box[offset + 3 + a] = Math.max(box[offset + 3 + a], other[otherOffset + 3 + a]);
+        }
+    }
+
+    /**
+     * Sets a box to be empty (min at positive infinity and max at negative infinity).
+     *
+     * @param box    the array holding the box to empty.
+     * @param offset the offset of the box in its array.
+     */
+    static void emptyBox(double[] box, int offset) {
+        for (int a = 0; a < 3; ++a) {
+            box[offset + a] = Double.POSITIVE_INFINITY;
+            box[offset + 3 + a] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    /**
+     * Calculates the surface area of a box.
+     *
+     * @param box the box.
+     * @return the surface area, zero for an empty box.
+     */
+    private static double surfaceArea(double[] box) {
+        double dx = box[3] - box[0], dy = box[4] - box[1], dz = box[5] - box[2];
+        if (dx < 0 || dy < 0 || dz < 0)
+            return 0;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+}
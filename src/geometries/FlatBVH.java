@@ -0,0 +1,337 @@
+package geometries;
+
+import primitives.Point3D;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compiled, linearized bounding volume hierarchy over intersectables.
+ * The nodes are kept in flat arrays (see {@link LinearBVH}) and traversal walks them with an explicit stack,
+ * so it does not chase pointers through nested collections and does not allocate.
+ *
+ * @author Yosi and Eli
+ */
+public class FlatBVH implements Intersectable {
+
+    //The node layout of the hierarchy.
+    private final LinearBVH bvh;
+
+    //Bounded primitives, ordered so every leaf holds a continuous range.
+    private final Intersectable[] primitives;
+    //Primitives with no bounding box, these are tested against every ray.
+    private final Intersectable[] unbounded;
+
+    private final AABB aabb;
+
+    /**
+     * Constructor for the hierarchy, compiles all the geometries in a collection (including nested collections).
+     *
+     * @param geometries the collection of geometries to compile.
+     */
+    public FlatBVH(Geometries geometries) {
+        List<Intersectable> bounded = new ArrayList<>(), unboundedList = new ArrayList<>();
+        collect(geometries, bounded, unboundedList);
+        unbounded = unboundedList.toArray(new Intersectable[0]);
+
+        bvh = new LinearBVH(FlatBVH.class, BVHBuilder.boundsOf(bounded));
+        primitives = new Intersectable[bounded.size()];
+        for (int i = 0; i < primitives.length; ++i)
+            primitives[i] = bounded.get(bvh.order[i]);
+
+        double[] bounds = bvh.nodeBounds;
+        aabb = bvh.isEmpty() ? null
+                : new AABB(new Point3D(bounds[3], bounds[4], bounds[5]), new Point3D(bounds[0], bounds[1], bounds[2]));
+    }
+
+    /**
+     * Constructor for a hierarchy that was already compiled, given its arrays as returned by {@link #getPrimitives()},
+     * {@link #getUnbounded()}, {@link #getHierarchyBounds()} and {@link #getHierarchyNodes()} - the hierarchy
+     * is not built again, so a hierarchy loaded from a file (see {@link scene.SceneCache}) is ready at once.
+     * The arrays are taken over, not copied.
+     *
+     * @param primitives      the bounded geometries in the hierarchy's order.
+     * @param unbounded       the geometries with no bounding box.
+     * @param hierarchyBounds the bounds of the hierarchy's nodes - six values per node.
+     * @param hierarchyNodes  the data of the hierarchy's nodes - two values per node.
+     * @throws IllegalArgumentException if a bounded geometry has no bounding box, an unbounded one has one,
+     *                                  or the nodes are not a hierarchy over the bounded geometries.
+     */
+    public FlatBVH(Intersectable[] primitives, Intersectable[] unbounded, double[] hierarchyBounds, int[] hierarchyNodes) {
+        for (Intersectable primitive : primitives)
+            if (primitive.getAABB() == null)
+                throw new IllegalArgumentException("A bounded geometry of the hierarchy has no bounding box");
+        for (Intersectable intersectable : unbounded)
+            if (intersectable.getAABB() != null)
+                throw new IllegalArgumentException("An unbounded geometry of the hierarchy has a bounding box");
+        this.primitives = primitives;
+        this.unbounded = unbounded;
+        bvh = new LinearBVH(FlatBVH.class, hierarchyBounds, hierarchyNodes, primitives.length);
+
+        double[] bounds = bvh.nodeBounds;
+        aabb = bvh.isEmpty() ? null
+                : new AABB(new Point3D(bounds[3], bounds[4], bounds[5]), new Point3D(bounds[0], bounds[1], bounds[2]));
+    }
+
+    /**
+     * Gathers the geometries of a collection, flattening nested collections.
+     *
+     * @param intersectable the intersectable to gather.
+     * @param bounded       list to add the geometries that have a bounding box to.
+     * @param unbounded     list to add the geometries with no bounding box to.
+     */
+    private static void collect(Intersectable intersectable, List<Intersectable> bounded, List<Intersectable> unbounded) {
+        if (intersectable instanceof Geometries) {
+            for (Intersectable child : ((Geometries) intersectable).getIntersections())
+                collect(child, bounded, unbounded);
+        } else if (intersectable.getAABB() == null)
+            unbounded.add(intersectable);
+        else
+            bounded.add(intersectable);
+    }
+
+    /**
+     * Finds intersections of all the compiled geometries with given ray,
+     * with respect to the intersection's geometry.
+     *
+     * @param ray the ray intersecting the geometries.
+     * @return list of intersection points with respect to their corresponding geometry.
+     * (null if none exist).
+     */
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray) {
+        List<GeoPoint> res = null;
+        for (Intersectable intersectable : unbounded) {
+            if (IntersectionStats.ENABLED)
+                IntersectionStats.countPrimitiveTest(intersectable);
+            res = merge(res, intersectable.findGeoIntersections(ray));
+        }
+        if (bvh.isEmpty())
+            return res;
+
+        Point3D p0 = ray.get_p0();
+        double ox = p0.getX().getCoord(), oy = p0.getY().getCoord(), oz = p0.getZ().getCoord();
+        double invX = ray.getInvDirX(), invY = ray.getInvDirY(), invZ = ray.getInvDirZ();
+
+        int[] stack = bvh.stack();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!bvh.hitsNode(node, ox, oy, oz, invX, invY, invZ, Double.POSITIVE_INFINITY))
+                continue;
+            int count = bvh.nodeData[2 * node + 1];
+            if (count > 0) {
+                for (int i = bvh.nodeData[2 * node], end = i + count; i < end; ++i) {
+                    if (IntersectionStats.ENABLED)
+                        IntersectionStats.countPrimitiveTest(primitives[i]);
+                    res = merge(res, primitives[i].findGeoIntersections(ray));
+                }
+            } else {
+                stack[top++] = bvh.nodeData[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Finds the closest intersection of the compiled geometries with a given ray, closer than the one held by the hit record.
+     * Nodes whose box is entered beyond the closest intersection found so far are skipped.
+     *
+     * @param ray the ray intersecting the geometries (its direction must be normalized).
+     * @param hit the hit record holding the closest intersection found so far.
+     * @return true if a closer intersection was found and recorded.
+     */
+    @Override
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        boolean found = false;
+        for (Intersectable intersectable : unbounded) {
+            if (IntersectionStats.ENABLED)
+                IntersectionStats.countPrimitiveTest(intersectable);
+            if (intersectable.findClosestHit(ray, hit))
+                found = true;
+        }
+        if (bvh.isEmpty())
+            return found;
+
+        Point3D p0 = ray.get_p0();
+        double ox = p0.getX().getCoord(), oy = p0.getY().getCoord(), oz = p0.getZ().getCoord();
+        double invX = ray.getInvDirX(), invY = ray.getInvDirY(), invZ = ray.getInvDirZ();
+
+        int[] stack = bvh.stack();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!bvh.hitsNode(node, ox, oy, oz, invX, invY, invZ, hit.t))
+                continue;
+            int count = bvh.nodeData[2 * node + 1];
+            if (count > 0) {
+                for (int i = bvh.nodeData[2 * node], end = i + count; i < end; ++i) {
+                    if (IntersectionStats.ENABLED)
+                        IntersectionStats.countPrimitiveTest(primitives[i]);
+                    if (primitives[i].findClosestHit(ray, hit))
+                        found = true;
+                }
+            } else {
+                stack[top++] = bvh.nodeData[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the closest intersections of the compiled geometries with all the rays of a packet.
+     * The packet walks the hierarchy together - every node's box is tested against all the rays at once,
+     * a node none of them enters (before its closest intersection found so far) is skipped for the whole packet,
+     * and a leaf's primitives are tested only against the rays that entered its box.
+     *
+     * @param packet the rays and their hit records.
+     */
+    @Override
+    public void findClosestHits(RayPacket packet) {
+        int size = packet.size();
+        for (Intersectable intersectable : unbounded)
+            for (int i = 0; i < size; ++i) {
+                if (IntersectionStats.ENABLED)
+                    IntersectionStats.countPrimitiveTest(intersectable);
+                packet.findClosestHit(intersectable, i);
+            }
+        if (bvh.isEmpty())
+            return;
+
+        int[] stack = bvh.stack();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!bvh.hitsNode(node, packet))
+                continue;
+            int count = bvh.nodeData[2 * node + 1];
+            if (count > 0) {
+                for (int j = bvh.nodeData[2 * node], end = j + count; j < end; ++j)
+                    for (int i = 0; i < size; ++i)
+                        if (packet.isActive(i)) {
+                            if (IntersectionStats.ENABLED)
+                                IntersectionStats.countPrimitiveTest(primitives[j]);
+                            packet.findClosestHit(primitives[j], i);
+                        }
+            } else {
+                stack[top++] = bvh.nodeData[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+    }
+
+    /**
+     * Calculates how much light passes through the compiled geometries along a ray up to a given distance.
+     * Nodes whose box is not entered before that distance are skipped, and the traversal stops at the first
+     * geometry that blocks the light.
+     *
+     * @param ray         the ray towards the light source (its direction must be normalized).
+     * @param maxDistance the distance along the ray to the light source.
+     * @param minK        the transmittance below which the light is considered blocked.
+     * @return the transmittance - between 1 (nothing blocks the light) and 0 (the light is blocked).
+     */
+    @Override
+    public double transmittance(Ray ray, double maxDistance, double minK) {
+        double ktr = 1.0;
+        for (Intersectable intersectable : unbounded) {
+            if (IntersectionStats.ENABLED)
+                IntersectionStats.countPrimitiveTest(intersectable);
+            ktr *= intersectable.transmittance(ray, maxDistance, minK / ktr);
+            if (ktr < minK)
+                return 0.0;
+        }
+        if (bvh.isEmpty())
+            return ktr;
+
+        Point3D p0 = ray.get_p0();
+        double ox = p0.getX().getCoord(), oy = p0.getY().getCoord(), oz = p0.getZ().getCoord();
+        double invX = ray.getInvDirX(), invY = ray.getInvDirY(), invZ = ray.getInvDirZ();
+
+        int[] stack = bvh.stack();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!bvh.hitsNode(node, ox, oy, oz, invX, invY, invZ, maxDistance))
+                continue;
+            int count = bvh.nodeData[2 * node + 1];
+            if (count > 0) {
+                for (int i = bvh.nodeData[2 * node], end = i + count; i < end; ++i) {
+                    if (IntersectionStats.ENABLED)
+                        IntersectionStats.countPrimitiveTest(primitives[i]);
+                    ktr *= primitives[i].transmittance(ray, maxDistance, minK / ktr);
+                    if (ktr < minK)
+                        return 0.0;
+                }
+            } else {
+                stack[top++] = bvh.nodeData[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * Merges a batch of intersections into the resultant list.
+     *
+     * @param res the resultant list (may be null).
+     * @param tmp the batch of intersections (may be null).
+     * @return the resultant list including the batch.
+     */
+    private static List<GeoPoint> merge(List<GeoPoint> res, List<GeoPoint> tmp) {
+        if (tmp == null)
+            return res;
+        if (res == null)
+            res = new ArrayList<>();
+        res.addAll(tmp);
+        return res;
+    }
+
+    @Override
+    public AABB getAABB() {
+        return unbounded.length == 0 ? aabb : null;
+    }
+
+    /**
+     * Gets the bounded geometries, in the hierarchy's order - every leaf holds a continuous range of them.
+     *
+     * @return a copy of the bounded geometries.
+     */
+    public Intersectable[] getPrimitives() {
+        return primitives.clone();
+    }
+
+    /**
+     * Gets the geometries with no bounding box, which are tested against every ray.
+     *
+     * @return a copy of the unbounded geometries.
+     */
+    public Intersectable[] getUnbounded() {
+        return unbounded.clone();
+    }
+
+    /**
+     * Gets the bounds of the nodes of the hierarchy.
+     *
+     * @return a copy of the nodes' bounds - minX, minY, minZ, maxX, maxY, maxZ for each node, in depth first order.
+     */
+    public double[] getHierarchyBounds() {
+        return bvh.nodeBounds();
+    }
+
+    /**
+     * Gets the data of the nodes of the hierarchy.
+     *
+     * @return a copy of the nodes' data - for a leaf the index of its first bounded geometry and the amount of
+     * geometries, for an inner node the index of its second child and zero.
+     */
+    public int[] getHierarchyNodes() {
+        return bvh.nodeData();
+    }
+}
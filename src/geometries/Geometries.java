@@ -9,6 +9,8 @@ import static primitives.Util.alignZero;
 
 /**
  * Class representing a collection of geometric objects to be stored together.
+ * The geometries without a bounding box (planes, tubes) are also kept in a short side list which every ray is tested
+ * against, so the bounded ones are still culled by their boxes (and the collection's box).
  *
  * @author Yosi and Eli.
  */
@@ -17,9 +19,16 @@ public class Geometries implements Intersectable {
 
     private List<Intersectable> geometries; //List of geometries we store.
 
-    //geometries' bounding box
+    //The stored geometries that have no bounding box.
+    private List<Intersectable> unbounded = new ArrayList<>();
+
+    //bounding box of the geometries that have one (null if none have).
     protected AABB aabb;
 
+    //The bounds of the geometries that have a bounding box, grown as geometries are added.
+    private double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+    private double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+
     /**
      * Default constructor for this class, initiates the list as an empty one.
      */
@@ -34,19 +43,23 @@ public class Geometries implements Intersectable {
      */
     public Geometries(Intersectable... geometries) {
         //this.geometries = List.of(geometries);
-        this.geometries = new ArrayList<>();
-        Collections.addAll(this.geometries, geometries);
-        createAABB();
+        this.geometries = new ArrayList<>(geometries.length);
+        add(geometries);
     }
 
     /**
-     * Adds a geometry to the stored list.
+     * Adds geometries to the stored list.
+     * The bounding box is grown by the added geometries' boxes alone, so building a scene by adding its geometries
+     * (one by one or all at once) takes linear time.
      *
-     * @param geometries The geometry to add.
+     * @param geometries The geometries to add.
      */
     public void add(Intersectable... geometries) {
-        Collections.addAll(this.geometries, geometries);
-        createAABB();
+        for (Intersectable intersectable : geometries) {
+            this.geometries.add(intersectable);
+            include(intersectable);
+        }
+        updateAABB();
     }
 
     /**
@@ -59,77 +72,342 @@ public class Geometries implements Intersectable {
      */
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray) {
-        if (geometries == null || geometries.isEmpty())
-            return null;
-        //if aabb is null or doesn't intersect with the ray then return null - because there are no intersections.
-        if(aabb != null && !aabb.hasIntersection(ray))
-            return null;
-
-        List<GeoPoint> res = null, tmp = null; //res - resultant list,
-        //tmp - used to store each batch of points found for each geometry..
-        //Loop until a geometry has an intersection.
-        int i = 0;
-        do {
-            //if aabb has no intersections so the geometry doesn't either so continue to next geometry intersection check
-            if(!geometries.get(i).getAABB().hasIntersection(ray)){
-                i++;
-                continue;
+        List<GeoPoint> res = null;
+        //if aabb is null or doesn't intersect with the ray then none of the bounded geometries can have intersections.
+        if (aabb != null && hits(this, aabb, ray, Double.POSITIVE_INFINITY))
+            for (Intersectable intersectable : geometries) {
+                //if aabb has no intersections so the geometry doesn't either so continue to next geometry intersection check
+                //(the unbounded geometries are checked below)
+                AABB box = intersectable.getAABB();
+                if (box != null && hits(intersectable, box, ray, Double.POSITIVE_INFINITY))
+                    res = addIntersections(res, intersectable, ray);
             }
-            res = geometries.get(i).findGeoIntersections(ray);
-            i++;
-        } while (res == null && i < geometries.size());
+        for (Intersectable intersectable : unbounded)
+            res = addIntersections(res, intersectable, ray);
+        return res;
+    }
+
+    /**
+     * Adds the intersections of a geometry with a ray to the intersections found so far.
+     *
+     * @param res           the intersections found so far (null if none were).
+     * @param intersectable the geometry.
+     * @param ray           the ray intersecting the geometry.
+     * @return the intersections found so far, with the geometry's (null if none were).
+     */
+    private static List<GeoPoint> addIntersections(List<GeoPoint> res, Intersectable intersectable, Ray ray) {
+        if (IntersectionStats.ENABLED)
+            IntersectionStats.countPrimitiveTest(intersectable);
+        List<GeoPoint> tmp = intersectable.findGeoIntersections(ray);
+        if (tmp == null)
+            return res;
         if (res == null)
-            return null;
+            return tmp;
+        res.addAll(tmp);
+        return res;
+    }
+
+    /**
+     * Finds the closest intersection of the stored geometries with a given ray, closer than the one held by the hit record.
+     * Children whose box is not hit before the closest intersection found so far are skipped (the unbounded ones are
+     * always tested), and no intersection lists are created along the way.
+     * The two children of a node of a hierarchy are visited front to back - the one whose box the ray enters first,
+     * and the other only if the ray enters its box before the closest intersection found in the first.
+     *
+     * @param ray the ray intersecting the geometries (its direction must be normalized).
+     * @param hit the hit record holding the closest intersection found so far.
+     * @return true if a closer intersection was found and recorded.
+     */
+    @Override
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        boolean found = false;
+        //the unbounded geometries first - a close hit on a ground plane lets the boxes behind it be skipped.
+        for (int i = 0; i < unbounded.size(); ++i) {
+            Intersectable intersectable = unbounded.get(i);
+            if (IntersectionStats.ENABLED)
+                IntersectionStats.countPrimitiveTest(intersectable);
+            if (intersectable.findClosestHit(ray, hit))
+                found = true;
+        }
+        if (aabb == null || !hits(this, aabb, ray, hit.t))
+            return found;
+        if (geometries.size() - unbounded.size() == 2)
+            return findClosestHitOrdered(ray, hit) || found;
+        for (int i = 0; i < geometries.size(); ++i) {
+            Intersectable intersectable = geometries.get(i);
+            AABB box = intersectable.getAABB();
+            if (box == null || !hits(intersectable, box, ray, hit.t))
+                continue;
+            if (IntersectionStats.ENABLED)
+                IntersectionStats.countPrimitiveTest(intersectable);
+            if (intersectable.findClosestHit(ray, hit))
+                found = true;
+        }
+        return found;
+    }
+
+    /**
+     * Finds the closest intersection of the two bounded geometries (a node of a hierarchy), nearer box first.
+     *
+     * @param ray the ray intersecting the geometries (its direction must be normalized).
+     * @param hit the hit record holding the closest intersection found so far.
+     * @return true if a closer intersection was found and recorded.
+     */
+    private boolean findClosestHitOrdered(Ray ray, HitRecord hit) {
+        //the two children with bounding boxes - the unbounded ones were tested already.
+        int i = 0;
+        while (geometries.get(i).getAABB() == null)
+            ++i;
+        int j = i + 1;
+        while (geometries.get(j).getAABB() == null)
+            ++j;
+        Intersectable near = geometries.get(i), far = geometries.get(j);
+        double tNear = entryDistance(near, ray, hit.t), tFar = entryDistance(far, ray, hit.t);
+        if (tFar < tNear) {
+            Intersectable tmp = near;
+            near = far;
+            far = tmp;
+            double t = tNear;
+            tNear = tFar;
+            tFar = t;
+        }
+
+        boolean found = false;
+        if (tNear != Double.POSITIVE_INFINITY) {
+            if (IntersectionStats.ENABLED)
+                IntersectionStats.countPrimitiveTest(near);
+            found = near.findClosestHit(ray, hit);
+        }
+        //the far box is of interest only if it's entered before the closest intersection found in the near one.
+        if (tFar != Double.POSITIVE_INFINITY && tFar <= hit.t) {
+            if (IntersectionStats.ENABLED)
+                IntersectionStats.countPrimitiveTest(far);
+            if (far.findClosestHit(ray, hit))
+                found = true;
+        }
+        return found;
+    }
+
+    /**
+     * Finds the distance along a ray at which it enters the bounding box of a bounded geometry, counting the test
+     * under the geometry's type.
+     *
+     * @param bounded     the geometry.
+     * @param ray         the ray.
+     * @param maxDistance the distance along the ray beyond which intersections are not of interest.
+     * @return the distance at which the ray enters the box, or positive infinity if it misses the box before maxDistance.
+     */
+    private static double entryDistance(Intersectable bounded, Ray ray, double maxDistance) {
+        double t = bounded.getAABB().entryDistance(ray, maxDistance);
+        if (IntersectionStats.ENABLED)
+            IntersectionStats.countAABBTest(bounded.getClass(), t != Double.POSITIVE_INFINITY);
+        return t;
+    }
+
+    /**
+     * Checks whether a ray enters the bounding box of a geometry before a given distance, counting the test
+     * under the geometry's type.
+     *
+     * @param bounded     the geometry the box bounds.
+     * @param box         the box.
+     * @param ray         the ray.
+     * @param maxDistance the distance along the ray beyond which intersections are not of interest.
+     * @return true if the ray enters the box no farther than maxDistance.
+     */
+    private static boolean hits(Intersectable bounded, AABB box, Ray ray, double maxDistance) {
+        boolean hit = box.hasIntersection(ray, maxDistance);
+        if (IntersectionStats.ENABLED)
+            IntersectionStats.countAABBTest(bounded.getClass(), hit);
+        return hit;
+    }
+
+    /**
+     * Checks which of the rays of a packet enter the bounding box of a geometry, counting the tests under
+     * the geometry's type (see {@link AABB#hasIntersections(RayPacket)}).
+     *
+     * @param bounded the geometry the box bounds.
+     * @param box     the box.
+     * @param packet  the rays.
+     * @return true if any of the rays enters the box.
+     */
+    private static boolean hits(Intersectable bounded, AABB box, RayPacket packet) {
+        boolean hit = box.hasIntersections(packet);
+        if (IntersectionStats.ENABLED)
+            for (int i = 0; i < packet.size(); ++i)
+                IntersectionStats.countAABBTest(bounded.getClass(), packet.isActive(i));
+        return hit;
+    }
 
-        //Loop through any additional geometries and add their intersections should they exist.
-        while (i < geometries.size()) {
-            //if aabb has no intersections so the geometry doesn't either so continue to next geometry intersection check
-            if(!geometries.get(i).getAABB().hasIntersection(ray)){
-                i++;
+    /**
+     * Finds the closest intersections of the stored geometries with all the rays of a packet.
+     * The box of the collection and of every bounded child is tested against all the rays at once - the collection
+     * is skipped for the whole packet if none of them enters its box, nested collections (the nodes of a hierarchy)
+     * walk the packet on, and other children are tested only against the rays that entered their box.
+     *
+     * @param packet the rays and their hit records.
+     */
+    @Override
+    public void findClosestHits(RayPacket packet) {
+        int size = packet.size();
+        for (int j = 0; j < unbounded.size(); ++j) {
+            Intersectable intersectable = unbounded.get(j);
+            for (int i = 0; i < size; ++i) {
+                if (IntersectionStats.ENABLED)
+                    IntersectionStats.countPrimitiveTest(intersectable);
+                packet.findClosestHit(intersectable, i);
+            }
+        }
+        if (aabb == null || !hits(this, aabb, packet))
+            return;
+        for (int j = 0; j < geometries.size(); ++j) {
+            Intersectable intersectable = geometries.get(j);
+            AABB box = intersectable.getAABB();
+            if (box == null)
+                continue;
+            if (intersectable instanceof Geometries) {
+                //the nested collection tests its own box.
+                intersectable.findClosestHits(packet);
                 continue;
             }
-            tmp = geometries.get(i).findGeoIntersections(ray);
-            if (tmp != null)
-                res.addAll(tmp);
-            i++;
+            if (!hits(intersectable, box, packet))
+                continue;
+            for (int i = 0; i < size; ++i)
+                if (packet.isActive(i)) {
+                    if (IntersectionStats.ENABLED)
+                        IntersectionStats.countPrimitiveTest(intersectable);
+                    packet.findClosestHit(intersectable, i);
+                }
         }
-        return res;
     }
 
     /**
-     * creates the aabb for the geometries
+     * Calculates how much light passes through the stored geometries along a ray up to a given distance.
+     * Children whose box is not hit before that distance are skipped (the unbounded ones are always tested),
+     * and the query stops at the first geometry that blocks the light.
+     *
+     * @param ray         the ray towards the light source (its direction must be normalized).
+     * @param maxDistance the distance along the ray to the light source.
+     * @param minK        the transmittance below which the light is considered blocked.
+     * @return the transmittance - between 1 (nothing blocks the light) and 0 (the light is blocked).
+     */
+    @Override
+    public double transmittance(Ray ray, double maxDistance, double minK) {
+        double ktr = 1.0;
+        for (int i = 0; i < unbounded.size(); ++i) {
+            Intersectable intersectable = unbounded.get(i);
+            if (IntersectionStats.ENABLED)
+                IntersectionStats.countPrimitiveTest(intersectable);
+            ktr *= intersectable.transmittance(ray, maxDistance, minK / ktr);
+            if (ktr < minK)
+                return 0.0;
+        }
+        if (aabb == null || !hits(this, aabb, ray, maxDistance))
+            return ktr;
+        for (int i = 0; i < geometries.size(); ++i) {
+            Intersectable intersectable = geometries.get(i);
+            AABB box = intersectable.getAABB();
+            if (box == null || !hits(intersectable, box, ray, maxDistance))
+                continue;
+            if (IntersectionStats.ENABLED)
+                IntersectionStats.countPrimitiveTest(intersectable);
+            //the child only has to keep the light above the threshold once scaled by what was collected so far.
+            ktr *= intersectable.transmittance(ray, maxDistance, minK / ktr);
+            if (ktr < minK)
+                return 0.0;
+        }
+        return ktr;
+    }
+
+    /**
+     * Restructures the stored geometries into a bounding volume hierarchy, built using the surface area heuristic.
+     * After the call this object is the root of the hierarchy, so the amount of geometries tested
+     * by each ray drops from linear to logarithmic in the size of the scene.
+     * Geometries without a bounding box (planes, tubes) are kept as direct children of the root, in its side list.
+     *
+     * @return this instance of geometries, now the root of the hierarchy.
+     */
+    public Geometries buildBVH() {
+        List<Intersectable> bounded = new ArrayList<>();
+        for (Intersectable intersectable : geometries)
+            if (intersectable.getAABB() != null)
+                bounded.add(intersectable);
+        if (bounded.size() <= BVHBuilder.MAX_LEAF_SIZE)
+            return this;
+
+        BVHBuilder builder = new BVHBuilder(BVHBuilder.boundsOf(bounded));
+        Geometries root = buildNode(builder, builder.build(), bounded);
+        geometries = new ArrayList<>(root.geometries);
+        geometries.addAll(unbounded);
+        createAABB();
+        return this;
+    }
+
+    /**
+     * Recursively builds a node of the hierarchy from a node of the builder's tree.
+     *
+     * @param builder    the builder holding the primitives' order.
+     * @param built      the node of the builder's tree.
+     * @param primitives the primitives the builder's indices refer to.
+     * @return the node - a leaf holding the primitives themselves or a node holding two child nodes.
+     */
+    private static Geometries buildNode(BVHBuilder builder, BVHBuilder.Node built, List<Intersectable> primitives) {
+        if (built.isLeaf()) {
+            Geometries leaf = new Geometries();
+            for (int i = built.start; i < built.end; ++i)
+                leaf.geometries.add(primitives.get(builder.order[i]));
+            leaf.createAABB();
+            return leaf;
+        }
+        return new Geometries(buildNode(builder, built.left, primitives), buildNode(builder, built.right, primitives));
+    }
+
+    /**
+     * creates the aabb for the geometries that have one, and the side list of the ones that don't.
      */
     private void createAABB() {
-        Point3D max = new Point3D(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
-        Point3D min = new Point3D(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        unbounded = new ArrayList<>();
+        minX = minY = minZ = Double.POSITIVE_INFINITY;
+        maxX = maxY = maxZ = Double.NEGATIVE_INFINITY;
+        for (Intersectable intersectable : geometries)
+            include(intersectable);
+        updateAABB();
+    }
 
-        for (Intersectable intersectable : geometries) {
-            if(intersectable.getAABB() == null)
-                continue;
-            //find min and max x coordinate
-            if (intersectable.getAABB().getMax().getX().getCoord() > max.getX().getCoord())
-                max = new Point3D(intersectable.getAABB().getMax().getX().getCoord(), max.getY().getCoord(), max.getZ().getCoord());
-            if (intersectable.getAABB().getMin().getX().getCoord() < min.getX().getCoord())
-                min = new Point3D(intersectable.getAABB().getMin().getX().getCoord(), min.getY().getCoord(), min.getZ().getCoord());
-
-            //find min and max y coordinate
-            if (intersectable.getAABB().getMax().getY().getCoord() > max.getY().getCoord())
-                max = new Point3D(max.getX().getCoord(), intersectable.getAABB().getMax().getY().getCoord(), max.getZ().getCoord());
-            if (intersectable.getAABB().getMin().getY().getCoord() < min.getY().getCoord())
-                min = new Point3D(min.getX().getCoord(), intersectable.getAABB().getMin().getY().getCoord(), min.getZ().getCoord());
-
-            //find min and max z coordinate
-            if (intersectable.getAABB().getMax().getZ().getCoord() > max.getZ().getCoord())
-                max = new Point3D(max.getX().getCoord(), max.getY().getCoord(), intersectable.getAABB().getMax().getZ().getCoord());
-            if (intersectable.getAABB().getMin().getZ().getCoord() < min.getZ().getCoord())
-                min = new Point3D(min.getX().getCoord(), min.getY().getCoord(), intersectable.getAABB().getMin().getZ().getCoord());
+    /**
+     * Grows the bounds by the bounding box of a geometry, or adds it to the side list if it has none.
+     *
+     * @param intersectable the geometry.
+     */
+    private void include(Intersectable intersectable) {
+        AABB box = intersectable.getAABB();
+        if (box == null) {
+            unbounded.add(intersectable);
+            return;
         }
-        aabb = new AABB(max, min);
+        Point3D min = box.getMin(), max = box.getMax();
+        minX = Math.min(minX, min.getX().getCoord());
+        minY = Math.min(minY, min.getY().getCoord());
+        minZ = Math.min(minZ, min.getZ().getCoord());
+        maxX = Math.max(maxX, max.getX().getCoord());
+        maxY = Math.max(maxY, max.getY().getCoord());
+        maxZ = Math.max(maxZ, max.getZ().getCoord());
     }
 
+    /**
+     * Creates the aabb from the bounds (none if no geometry has a bounding box).
+     */
+    private void updateAABB() {
+        aabb = maxX < minX ? null : new AABB(new Point3D(maxX, maxY, maxZ), new Point3D(minX, minY, minZ));
+    }
+
+    /**
+     * gets the AABB of the geometries - there's none if any of them is unbounded.
+     *
+     * @return the geometries' AABB (null if they are unbounded).
+     */
     @Override
     public AABB getAABB() {
-        return aabb;
+        return unbounded.isEmpty() ? aabb : null;
     }
 
     //Enum to elegantly represent different axis.
@@ -62,6 +62,19 @@ public abstract class Geometry implements Intersectable {
      */
     public abstract Vector getNormal(Point3D point);
 
+    /**
+     * gets the normal vector of a geometry at a given point on one of its primitives.
+     * Geometries made of several primitives override it to look the normal up by the primitive's index
+     * instead of searching for the primitive the point is on.
+     *
+     * @param point a point on the geometry
+     * @param index the index of the primitive the point is on (-1 if unknown)
+     * @return normalized normal vector to the geometry at point.
+     */
+    public Vector getNormal(Point3D point, int index) {
+        return getNormal(point);
+    }
+
     @Override
     public AABB getAABB() {
         return aabb;
@@ -0,0 +1,196 @@
+package geometries;
+
+import primitives.*;
+import primitives.Vector;
+
+import java.util.List;
+
+/**
+ * Class representing a copy of a shared object placed in the scene by an affine transformation.
+ * The object - a geometry, a collection of geometries or a compiled hierarchy ({@link FlatBVH}) - is kept once,
+ * in its own coordinates, with its own bounding volume hierarchy, and any amount of instances refer to it.
+ * Rays are transformed into the object's coordinates instead of transforming the object, so the memory of the
+ * scene grows with the unique geometry rather than with the amount of copies.
+ * Instances have bounding boxes, so a collection of instances can be built into a top-level hierarchy
+ * ({@link Geometries#buildBVH()}, {@link FlatBVH}) over the bottom-level hierarchies of the shared objects.
+ * The shared object must not contain instances itself, and a shared collection of geometries is built into its own
+ * hierarchy (in place) when it is first instanced.
+ * Rays are transformed into a per thread scratch ray, so the only allocations of a query are the transformed origin
+ * and direction (points and vectors are immutable).
+ *
+ * @author Yosi and Eli
+ */
+public class Instance implements Intersectable {
+
+    //The shared object, in its own coordinates.
+    private final Intersectable object;
+    //The transformation from the object's coordinates to the scene's, and back.
+    private final Transform transform;
+    private final Transform inverse;
+
+    private final AABB aabb;
+
+    //Per thread scratch for transforming rays - no instance is ever queried from within another (instances don't nest),
+    //so every query of the thread may reuse it.
+    private static final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * The scratch of a thread - the triple the ray is transformed in and the transformed ray.
+     */
+    private static final class Scratch {
+        final Vec3d vec = new Vec3d();
+        final Ray ray = new Ray(Point3D.ZERO, new Vector(0, 0, 1));
+    }
+
+    /**
+     * Constructor for an instance of a shared object.
+     *
+     * @param object    the shared object - a collection of geometries is built into a hierarchy, once for all of its
+     *                  instances (building an already built one does nothing).
+     * @param transform the transformation placing the object in the scene.
+     * @throws IllegalArgumentException if the object contains instances.
+     */
+    public Instance(Intersectable object, Transform transform) {
+        if (containsInstance(object))
+            throw new IllegalArgumentException("instanced objects must not contain instances");
+        if (object instanceof Geometries)
+            ((Geometries) object).buildBVH();
+        this.object = object;
+        this.transform = transform;
+        this.inverse = transform.inverse();
+        this.aabb = transformAABB(object.getAABB());
+    }
+
+    /**
+     * Getter for the shared object.
+     *
+     * @return the shared object, in its own coordinates.
+     */
+    public Intersectable getObject() {
+        return object;
+    }
+
+    /**
+     * Getter for the transformation placing the shared object in the scene.
+     *
+     * @return the transformation from the object's coordinates to the scene's.
+     */
+    public Transform getTransform() {
+        return transform;
+    }
+
+    /**
+     * Checks whether an object is or contains an instance.
+     *
+     * @param intersectable the object.
+     * @return true if there's an instance within the object.
+     */
+    private static boolean containsInstance(Intersectable intersectable) {
+        if (intersectable instanceof Instance)
+            return true;
+        if (intersectable instanceof Geometries)
+            for (Intersectable child : ((Geometries) intersectable).getIntersections())
+                if (containsInstance(child))
+                    return true;
+        return false;
+    }
+
+    /**
+     * Calculates the bounding box of the transformed object - the box around the transformed corners of its box.
+     *
+     * @param box the object's bounding box (null if it's unbounded).
+     * @return the bounding box of the instance (null if it's unbounded).
+     */
+    private AABB transformAABB(AABB box) {
+        if (box == null)
+            return null;
+        Point3D max = box.getMax(), min = box.getMin();
+        Vec3d corner = new Vec3d();
+        double[] lo = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] hi = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < 8; ++i) {
+            corner.set(((i & 1) == 0 ? min : max).getX().getCoord(),
+                    ((i & 2) == 0 ? min : max).getY().getCoord(),
+                    ((i & 4) == 0 ? min : max).getZ().getCoord());
+            transform.transformPoint(corner);
+            lo[0] = Math.min(lo[0], corner.x);
+            lo[1] = Math.min(lo[1], corner.y);
+            lo[2] = Math.min(lo[2], corner.z);
+            hi[0] = Math.max(hi[0], corner.x);
+            hi[1] = Math.max(hi[1], corner.y);
+            hi[2] = Math.max(hi[2], corner.z);
+        }
+        return new AABB(new Point3D(hi[0], hi[1], hi[2]), new Point3D(lo[0], lo[1], lo[2]));
+    }
+
+    /**
+     * Transforms a ray of the scene into the object's coordinates, in the thread's scratch ray.
+     *
+     * @param ray       the ray in the scene's coordinates.
+     * @param objectRay the scratch ray to set to the ray in the object's coordinates (with a normalized direction).
+     * @param vec       a scratch triple.
+     * @return the length of the transformed direction - distances along the transformed ray are the distances along
+     * the ray multiplied by it.
+     */
+    private double toObject(Ray ray, Ray objectRay, Vec3d vec) {
+        Point3D p0 = inverse.transformPoint(vec.set(ray.get_p0())).toPoint3D();
+        inverse.transformVector(vec.set(ray.get_dir()));
+        double scale = vec.length(), c = 1 / scale;
+        objectRay.set(p0, new Vector(vec.x * c, vec.y * c, vec.z * c));
+        return scale;
+    }
+
+    /**
+     * Gets the normal of the shared object at a point found through this instance.
+     *
+     * @param geometry the intersected geometry of the shared object.
+     * @param point    the point in the scene's coordinates.
+     * @param index    the index of the intersected primitive within the geometry (-1 if it's not made of several).
+     * @return normalized normal vector to the instanced geometry at the point.
+     */
+    public Vector getNormal(Geometry geometry, Point3D point, int index) {
+        return transform.transformNormal(geometry.getNormal(inverse.transform(point), index)).normalize();
+    }
+
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray) {
+        Scratch s = scratch.get();
+        toObject(ray, s.ray, s.vec);
+        List<GeoPoint> intersections = object.findGeoIntersections(s.ray);
+        if (intersections == null)
+            return null;
+        for (GeoPoint gp : intersections) {
+            gp.point = transform.transform(gp.point);
+            gp.instance = this;
+        }
+        return intersections;
+    }
+
+    @Override
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        Scratch s = scratch.get();
+        double scale = toObject(ray, s.ray, s.vec);
+        //the shared object measures distances along the transformed ray.
+        double t = hit.t;
+        hit.t = t * scale;
+        if (!object.findClosestHit(s.ray, hit)) {
+            hit.t = t;
+            return false;
+        }
+        hit.t /= scale;
+        hit.instance = this;
+        return true;
+    }
+
+    @Override
+    public double transmittance(Ray ray, double maxDistance, double minK) {
+        Scratch s = scratch.get();
+        double scale = toObject(ray, s.ray, s.vec);
+        return object.transmittance(s.ray, maxDistance * scale, minK);
+    }
+
+    @Override
+    public AABB getAABB() {
+        return aabb;
+    }
+}
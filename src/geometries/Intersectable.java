@@ -1,6 +1,7 @@
 package geometries;
 
 import primitives.*;
+import primitives.Vector;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -21,6 +22,8 @@ public interface Intersectable {
     public static class GeoPoint {
         public Geometry geometry; //The points geometry.
         public Point3D point;   //The points location.
+        public int index = -1;  //The index of the primitive the point is on, for geometries made of several primitives.
+        public Instance instance; //The instance the point was found through, null if the geometry is not instanced.
 
         /**
          * Constructor for GeoPoint.
@@ -34,6 +37,28 @@ public interface Intersectable {
             point = point_;
         }
 
+        /**
+         * Constructor for GeoPoint on a primitive of a geometry made of several primitives.
+         *
+         * @param geometry_ The geometry the point belongs to.
+         * @param point_    The location of the point.
+         * @param index_    The index of the primitive within the geometry.
+         */
+        public GeoPoint(Geometry geometry_, Point3D point_, int index_)
+        {
+            this(geometry_, point_);
+            index = index_;
+        }
+
+        /**
+         * Gets the normal of the geometry at this point.
+         *
+         * @return normalized normal vector to the geometry at the point.
+         */
+        public Vector getNormal() {
+            return instance == null ? geometry.getNormal(point, index) : instance.getNormal(geometry, point, index);
+        }
+
 
         @Override
         public boolean equals(Object obj) {
@@ -46,6 +71,69 @@ public interface Intersectable {
         }
     }
 
+    /**
+     * Mutable record of the closest intersection found along a ray, meant to be reused between queries.
+     * t holds the distance of the recorded intersection from the ray's origin, and before any intersection is
+     * recorded it holds the maximal distance at which intersections are still of interest.
+     *
+     * @author Yosi and Eli.
+     */
+    public static class HitRecord {
+        public Geometry geometry; //The geometry of the closest intersection.
+        public double t; //The distance of the closest intersection along the ray.
+        public int index; //The index of the intersected primitive, for geometries made of several primitives.
+        public Instance instance; //The instance the intersection was found through, null if the geometry is not instanced.
+
+        /**
+         * Constructor for an empty hit record, interested in intersections at any distance.
+         */
+        public HitRecord() {
+            reset(Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Clears the record so it can be reused for a new query.
+         *
+         * @param maxDistance the maximal distance at which intersections are of interest.
+         * @return this hit record.
+         */
+        public HitRecord reset(double maxDistance) {
+            geometry = null;
+            t = maxDistance;
+            index = -1;
+            instance = null;
+            return this;
+        }
+
+        /**
+         * Records a closer intersection, directly on a geometry (an instance marks it as its own afterwards).
+         *
+         * @param t        the distance of the intersection along the ray.
+         * @param geometry the intersected geometry.
+         * @param index    the index of the intersected primitive within the geometry (-1 if it's not made of several).
+         */
+        public void record(double t, Geometry geometry, int index) {
+            this.t = t;
+            this.geometry = geometry;
+            this.index = index;
+            this.instance = null;
+        }
+
+        /**
+         * Converts the recorded intersection into a geo-point.
+         *
+         * @param ray the ray the record was found for.
+         * @return the intersection point with respect to its geometry, null if nothing was recorded.
+         */
+        public GeoPoint toGeoPoint(Ray ray) {
+            if (geometry == null)
+                return null;
+            GeoPoint gp = new GeoPoint(geometry, ray.getPoint(t), index);
+            gp.instance = instance;
+            return gp;
+        }
+    }
+
     /**
      * Finds all intersections of the implementing geometry with a given ray.
      *
@@ -67,6 +155,74 @@ public interface Intersectable {
      */
     List<GeoPoint> findGeoIntersections(Ray ray);
 
+    /**
+     * Finds the closest intersection of the implementing geometry with a given ray, which is closer than
+     * the intersection already held by the hit record (or the maximal distance it was reset to),
+     * and writes it into the record.
+     * The default implementation goes through {@link #findGeoIntersections(Ray)},
+     * geometries on the rendering path override it with an implementation that does not allocate.
+     *
+     * @param ray the ray intersecting the geometry (its direction must be normalized).
+     * @param hit the hit record holding the closest intersection found so far.
+     * @return true if a closer intersection was found and recorded.
+     */
+    default boolean findClosestHit(Ray ray, HitRecord hit) {
+        List<GeoPoint> intersections = findGeoIntersections(ray);
+        if (intersections == null)
+            return false;
+        boolean found = false;
+        for (GeoPoint gp : intersections) {
+            double t = gp.point.distance(ray.get_p0());
+            if (t < hit.t) {
+                hit.record(t, gp.geometry, gp.index);
+                hit.instance = gp.instance;
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the closest intersections of the implementing geometry with all the rays of a packet, closer than the ones
+     * already held by their hit records, and writes them into the records.
+     * The default implementation finds the intersection of every ray on its own, acceleration structures override it
+     * with a traversal of the whole packet together.
+     *
+     * @param packet the rays and their hit records.
+     */
+    default void findClosestHits(RayPacket packet) {
+        for (int i = 0; i < packet.size(); ++i)
+            packet.findClosestHit(this, i);
+    }
+
+    /**
+     * Calculates how much light passes along a ray up to a given distance, as the product of the transparency
+     * coefficients (kT) of all the intersections along the way.
+     * The query stops as soon as the light is blocked - at the first opaque intersection,
+     * or once the product drops below a given threshold.
+     * The default implementation goes through {@link #findGeoIntersections(Ray)},
+     * geometries on the rendering path override it with an implementation that does not allocate.
+     *
+     * @param ray         the ray towards the light source (its direction must be normalized).
+     * @param maxDistance the distance along the ray to the light source, intersections beyond it don't block the light.
+     * @param minK        the transmittance below which the light is considered blocked.
+     * @return the transmittance - between 1 (nothing blocks the light) and 0 (the light is blocked).
+     */
+    default double transmittance(Ray ray, double maxDistance, double minK) {
+        List<GeoPoint> intersections = findGeoIntersections(ray);
+        if (intersections == null)
+            return 1.0;
+        double ktr = 1.0;
+        for (GeoPoint gp : intersections) {
+            if (gp.point.distance(ray.get_p0()) > maxDistance)
+                continue;
+            ktr *= gp.geometry.getMaterial().kT;
+            if (ktr < minK)
+                return 0.0;
+        }
+        return ktr;
+    }
+
     /**
      * gets the AABB of the intersectable
      * @return the intersectable's AABB.
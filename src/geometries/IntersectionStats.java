@@ -0,0 +1,175 @@
+package geometries;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the intersection tests done by the geometries - bounding box tests and how many of them rejected the ray,
+ * by the type of the geometry the box bounds (or of the structure a hierarchy node belongs to), and primitive tests
+ * by the type of the primitive.
+ * The counters are striped ({@link LongAdder}), so all the rendering threads can count without contending.
+ * Counting is off unless the JVM is started with {@code -Drenderer.stats=true}, and since {@link #ENABLED}
+ * is a static final the JIT removes the counting code from the intersection tests altogether when it is off.
+ *
+ * @author Yosi and Eli
+ */
+public final class IntersectionStats {
+    /**
+     * Whether the counters are collected, read once from the "renderer.stats" system property.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("renderer.stats");
+
+    //Bounding box tests, and tests where the ray missed the box, by the type of the box's owner.
+    private static final Map<Class<?>, LongAdder> aabbTests = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, LongAdder> aabbRejections = new ConcurrentHashMap<>();
+    //Primitive tests by the primitive's type.
+    private static final Map<Class<?>, LongAdder> primitiveTests = new ConcurrentHashMap<>();
+    //Tests of single triangles within triangle meshes.
+    private static final LongAdder meshTriangleTests = new LongAdder();
+
+    /**
+     * Private constructor - the class only holds the counters.
+     */
+    private IntersectionStats() {
+    }
+
+    /**
+     * Counts a test of a ray against a bounding box.
+     *
+     * @param owner the type of the geometry the box bounds, or of the structure the box is a node of.
+     * @param hit   whether the ray hit the box.
+     */
+    static void countAABBTest(Class<?> owner, boolean hit) {
+        count(aabbTests, owner);
+        if (!hit)
+            count(aabbRejections, owner);
+    }
+
+    /**
+     * Counts a test of a ray against a primitive (collections of geometries are not counted).
+     *
+     * @param primitive the tested primitive.
+     */
+    static void countPrimitiveTest(Intersectable primitive) {
+        if (primitive instanceof Geometries)
+            return;
+        count(primitiveTests, primitive.getClass());
+    }
+
+    /**
+     * Increments the counter of a type.
+     *
+     * @param counters the counters by type.
+     * @param type     the type.
+     */
+    private static void count(Map<Class<?>, LongAdder> counters, Class<?> type) {
+        LongAdder counter = counters.get(type);
+        if (counter == null)
+            counter = counters.computeIfAbsent(type, t -> new LongAdder());
+        counter.increment();
+    }
+
+    /**
+     * Counts a test of a ray against a single triangle of a triangle mesh.
+     */
+    static void countMeshTriangleTest() {
+        meshTriangleTests.increment();
+    }
+
+    /**
+     * Zeroes all the counters.
+     */
+    public static void reset() {
+        meshTriangleTests.reset();
+        for (LongAdder counter : aabbTests.values())
+            counter.reset();
+        for (LongAdder counter : aabbRejections.values())
+            counter.reset();
+        for (LongAdder counter : primitiveTests.values())
+            counter.reset();
+    }
+
+    /**
+     * Gets the amount of ray - bounding box tests.
+     *
+     * @return the amount of tests.
+     */
+    public static long getAABBTests() {
+        return total(aabbTests);
+    }
+
+    /**
+     * Gets the amount of ray - bounding box tests where the ray missed the box.
+     *
+     * @return the amount of rejections.
+     */
+    public static long getAABBRejections() {
+        return total(aabbRejections);
+    }
+
+    /**
+     * Gets the amount of ray - bounding box tests by the type of the box's owner - the geometry the box bounds,
+     * or the structure (FlatBVH, TriangleMesh) the box is a node of.
+     *
+     * @return map from the simple name of the owner's class to the amount of tests, sorted by name.
+     */
+    public static Map<String, Long> getAABBTestsByType() {
+        return byName(aabbTests);
+    }
+
+    /**
+     * Gets the amount of ray - bounding box tests where the ray missed the box by the type of the box's owner
+     * (see {@link #getAABBTestsByType()}).
+     *
+     * @return map from the simple name of the owner's class to the amount of rejections, sorted by name.
+     */
+    public static Map<String, Long> getAABBRejectionsByType() {
+        return byName(aabbRejections);
+    }
+
+    /**
+     * Gets the amount of ray - primitive tests by the primitive's type.
+     * Triangle meshes are counted once per test of the whole mesh, and the tests of their single triangles
+     * are counted under "TriangleMesh.triangle".
+     *
+     * @return map from the simple name of the primitive's class to the amount of tests, sorted by name.
+     */
+    public static Map<String, Long> getPrimitiveTests() {
+        Map<String, Long> res = byName(primitiveTests);
+        long triangles = meshTriangleTests.sum();
+        if (triangles > 0)
+            res.put("TriangleMesh.triangle", triangles);
+        return res;
+    }
+
+    /**
+     * Sums the counters of all the types.
+     *
+     * @param counters the counters by type.
+     * @return the sum.
+     */
+    private static long total(Map<Class<?>, LongAdder> counters) {
+        long res = 0;
+        for (LongAdder counter : counters.values())
+            res += counter.sum();
+        return res;
+    }
+
+    /**
+     * Collects the non zero counters by the simple names of their types.
+     *
+     * @param counters the counters by type.
+     * @return map from the simple name of the type to its count, sorted by name.
+     */
+    private static Map<String, Long> byName(Map<Class<?>, LongAdder> counters) {
+        Map<String, Long> res = new TreeMap<>();
+        for (Map.Entry<Class<?>, LongAdder> entry : counters.entrySet()) {
+            long sum = entry.getValue().sum();
+            if (sum > 0)
+                res.put(entry.getKey().getSimpleName(), sum);
+        }
+        return res;
+    }
+}
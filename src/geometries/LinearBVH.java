@@ -0,0 +1,221 @@
+package geometries;
+
+import java.util.Arrays;
+
+/**
+ * The node layout of a compiled, linearized bounding volume hierarchy, shared by the acceleration structures
+ * that keep their primitives in flat arrays.
+ * The nodes are kept in depth first order in two flat arrays - one holding the bounds of every node, and one holding
+ * for every node either the index of its second child (the first child always follows its parent) or the range of
+ * primitives in its leaf. The primitives of a leaf are a continuous range of {@link #order}, so the owner reorders its
+ * primitives by it once after the build.
+ *
+ * @author Yosi and Eli
+ */
+final class LinearBVH {
+    //Node bounds - minX, minY, minZ, maxX, maxY, maxZ for each node.
+    final double[] nodeBounds;
+    //Node data - for a leaf the offset of its first primitive and the amount of primitives,
+    //for an inner node the index of its second child and zero.
+    final int[] nodeData;
+    //Permutation of the primitives, each leaf holds a continuous range of it (null for a hierarchy that was not built here).
+    final int[] order;
+    private int nodeCount = 0;
+    private int maxDepth = 0;
+    //The type of the structure the hierarchy belongs to, which its box tests are counted under.
+    private final Class<?> owner;
+
+    //Traversal stack of each thread, sized by the depth of the hierarchy.
+    private final ThreadLocal<int[]> stack;
+
+    /**
+     * Constructor for the hierarchy, builds the nodes using the surface area heuristic (in parallel, see {@link BVHBuilder}).
+     *
+     * @param owner           the type of the structure the hierarchy belongs to.
+     * @param primitiveBounds the primitives' bounds - six values (min x, y, z and max x, y, z) per primitive.
+     */
+    LinearBVH(Class<?> owner, double[] primitiveBounds) {
+        this.owner = owner;
+        int n = primitiveBounds.length / 6;
+        nodeBounds = new double[6 * Math.max(2 * n - 1, 0)];
+        nodeData = new int[2 * Math.max(2 * n - 1, 0)];
+        BVHBuilder builder = new BVHBuilder(primitiveBounds);
+        BVHBuilder.Node root = builder.build();
+        order = builder.order;
+        if (root != null)
+            emitNode(root, 0);
+
+        int stackSize = maxDepth + 2;
+        stack = ThreadLocal.withInitial(() -> new int[stackSize]);
+    }
+
+    /**
+     * Constructor for a hierarchy that was already built, given its nodes (as returned by {@link #nodeBounds()}
+     * and {@link #nodeData()}). The arrays are taken over, not copied.
+     *
+     * @param owner          the type of the structure the hierarchy belongs to.
+     * @param nodeBounds     the nodes' bounds - six values per node.
+     * @param nodeData       the nodes' data - two values per node.
+     * @param primitiveCount the amount of primitives the hierarchy is over.
+     * @throws IllegalArgumentException if the nodes are not a hierarchy over the primitives in depth first order.
+     */
+    LinearBVH(Class<?> owner, double[] nodeBounds, int[] nodeData, int primitiveCount) {
+        this.owner = owner;
+        nodeCount = nodeData.length / 2;
+        if (nodeData.length % 2 != 0 || nodeBounds.length != 6 * nodeCount || (nodeCount == 0) != (primitiveCount == 0))
+            throw new IllegalArgumentException("The hierarchy's arrays don't match");
+        this.nodeBounds = nodeBounds;
+        this.nodeData = nodeData;
+        order = null;
+
+        //Walk the hierarchy to check it and to find its depth - every second child comes after its first child's
+        //subtree, so the walk always moves forwards and ends.
+        int[] nodes = new int[64], depths = new int[64];
+        int top = 0, primitives = 0;
+        if (nodeCount > 0) {
+            nodes[top] = 0;
+            depths[top++] = 0;
+        }
+        while (top > 0) {
+            int node = nodes[--top], depth = depths[top];
+            maxDepth = Math.max(maxDepth, depth);
+            int first = nodeData[2 * node], count = nodeData[2 * node + 1];
+            if (count > 0) {
+                if (first != primitives || first + count > primitiveCount)
+                    throw new IllegalArgumentException("The hierarchy's leaves don't cover the primitives in order");
+                primitives += count;
+            } else {
+                if (count < 0 || first <= node + 1 || first >= nodeCount)
+                    throw new IllegalArgumentException("The hierarchy's inner node is invalid");
+                if (top + 2 > nodes.length) {
+                    nodes = Arrays.copyOf(nodes, 2 * nodes.length);
+                    depths = Arrays.copyOf(depths, 2 * depths.length);
+                }
+                nodes[top] = first;
+                depths[top++] = depth + 1;
+                nodes[top] = node + 1;
+                depths[top++] = depth + 1;
+            }
+        }
+        if (primitives != primitiveCount)
+            throw new IllegalArgumentException("The hierarchy's leaves don't cover the primitives in order");
+
+        int stackSize = maxDepth + 2;
+        stack = ThreadLocal.withInitial(() -> new int[stackSize]);
+    }
+
+    /**
+     * Recursively emits a node of the built tree and its subtree, in depth first order.
+     *
+     * @param built the node of the built tree.
+     * @param depth the depth of the node in the hierarchy.
+     * @return the index of the emitted node.
+     */
+    private int emitNode(BVHBuilder.Node built, int depth) {
+        int node = nodeCount++;
+        maxDepth = Math.max(maxDepth, depth);
+        System.arraycopy(built.bounds, 0, nodeBounds, 6 * node, 6);
+        if (built.isLeaf()) {
+            nodeData[2 * node] = built.start;
+            nodeData[2 * node + 1] = built.end - built.start;
+        } else {
+            emitNode(built.left, depth + 1);
+            nodeData[2 * node] = emitNode(built.right, depth + 1);
+            nodeData[2 * node + 1] = 0;
+        }
+        return node;
+    }
+
+    /**
+     * Gets the nodes' bounds.
+     *
+     * @return a copy of the bounds of the nodes in use - six values per node.
+     */
+    double[] nodeBounds() {
+        return Arrays.copyOf(nodeBounds, 6 * nodeCount);
+    }
+
+    /**
+     * Gets the nodes' data.
+     *
+     * @return a copy of the data of the nodes in use - two values per node.
+     */
+    int[] nodeData() {
+        return Arrays.copyOf(nodeData, 2 * nodeCount);
+    }
+
+    /**
+     * Checks whether the hierarchy has no nodes (it was built over no primitives).
+     *
+     * @return true if there are no nodes.
+     */
+    boolean isEmpty() {
+        return nodeCount == 0;
+    }
+
+    /**
+     * Gets the traversal stack of the calling thread, large enough for any traversal of this hierarchy.
+     *
+     * @return the stack.
+     */
+    int[] stack() {
+        return stack.get();
+    }
+
+    /**
+     * Checks which of the rays of a packet enter the box of a node before their closest intersections found so far,
+     * and marks them as the packet's active rays.
+     *
+     * @param node   the node's index.
+     * @param packet the rays.
+     * @return true if any of the rays enters the box.
+     */
+    boolean hitsNode(int node, RayPacket packet) {
+        boolean hit = packet.hitsBox(nodeBounds, 6 * node);
+        if (IntersectionStats.ENABLED)
+            for (int i = 0; i < packet.size(); ++i)
+                IntersectionStats.countAABBTest(owner, packet.isActive(i));
+        return hit;
+    }
+
+    /**
+     * Checks whether a ray enters the box of a node before a given distance, using the slab test.
+     *
+     * @param node        the node's index.
+     * @param ox          the x coordinate of the ray's origin.
+     * @param oy          the y coordinate of the ray's origin.
+     * @param oz          the z coordinate of the ray's origin.
+     * @param invX        the inverse of the x component of the ray's direction.
+     * @param invY        the inverse of the y component of the ray's direction.
+     * @param invZ        the inverse of the z component of the ray's direction.
+     * @param maxDistance the distance along the ray from which boxes are not of interest.
+     * @return true if the ray enters the box in front of its origin (or starts inside it) no farther than maxDistance.
+     */
+    boolean hitsNode(int node, double ox, double oy, double oz, double invX, double invY, double invZ, double maxDistance) {
+        int b = 6 * node;
+        double tNear = Double.NEGATIVE_INFINITY, tFar = Double.POSITIVE_INFINITY;
+
+        double t1 = (nodeBounds[b] - ox) * invX, t2 = (nodeBounds[b + 3] - ox) * invX;
+        if (t1 > t2) { double tmp = t1; t1 = t2; t2 = tmp; }
+        //comparisons with NaN (ray parallel to and on the slab's border) are false, so they leave the range as is.
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        t1 = (nodeBounds[b + 1] - oy) * invY;
+        t2 = (nodeBounds[b + 4] - oy) * invY;
+        if (t1 > t2) { double tmp = t1; t1 = t2; t2 = tmp; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        t1 = (nodeBounds[b + 2] - oz) * invZ;
+        t2 = (nodeBounds[b + 5] - oz) * invZ;
+        if (t1 > t2) { double tmp = t1; t1 = t2; t2 = tmp; }
+        if (t1 > tNear) tNear = t1;
+        if (t2 < tFar) tFar = t2;
+
+        boolean hit = tNear <= tFar && tFar >= 0 && tNear <= maxDistance;
+        if (IntersectionStats.ENABLED)
+            IntersectionStats.countAABBTest(owner, hit);
+        return hit;
+    }
+}
@@ -126,6 +126,62 @@ public class Plane extends Geometry {
         return lgp;
     }
 
+    /**
+     * Finds the intersection between the plane and a given ray, should it be closer than the one held by the hit record.
+     * The calculation is done on the raw coordinates so it doesn't allocate.
+     *
+     * @param ray the ray intersecting the geometry (its direction must be normalized).
+     * @param hit the hit record holding the closest intersection found so far.
+     * @return true if a closer intersection was found and recorded.
+     */
+    @Override
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        double t = intersectionDistance(ray);
+        if (t <= 0 || t >= hit.t)
+            return false;
+        hit.record(t, this, -1);
+        return true;
+    }
+
+    /**
+     * Calculates how much light passes through the plane along a ray up to a given distance.
+     * The calculation is done on the raw coordinates so it doesn't allocate.
+     *
+     * @param ray         the ray towards the light source (its direction must be normalized).
+     * @param maxDistance the distance along the ray to the light source.
+     * @param minK        the transmittance below which the light is considered blocked.
+     * @return the transmittance - between 1 (nothing blocks the light) and 0 (the light is blocked).
+     */
+    @Override
+    public double transmittance(Ray ray, double maxDistance, double minK) {
+        double t = intersectionDistance(ray);
+        if (t <= 0 || t > maxDistance)
+            return 1.0;
+        return material.kT < minK ? 0.0 : material.kT;
+    }
+
+    /**
+     * Calculates the distance along a ray to its intersection with the plane, without allocating.
+     *
+     * @param ray the ray intersecting the plane (its direction must be normalized).
+     * @return the distance to the intersection, or zero if there is no intersection in front of the ray's origin.
+     */
+    double intersectionDistance(Ray ray) {
+        Point3D p0 = ray.get_p0();
+        Point3D dir = ray.get_dir().getHead();
+        Point3D n = _normal.getHead();
+        double nx = n.getX().getCoord(), ny = n.getY().getCoord(), nz = n.getZ().getCoord();
+
+        double nv = alignZero(nx * dir.getX().getCoord() + ny * dir.getY().getCoord() + nz * dir.getZ().getCoord());
+        if (nv == 0) // ray is parallel to the plane.
+            return 0;
+
+        double t = alignZero((nx * (q0.getX().getCoord() - p0.getX().getCoord())
+                + ny * (q0.getY().getCoord() - p0.getY().getCoord())
+                + nz * (q0.getZ().getCoord() - p0.getZ().getCoord())) / nv);
+        return t > 0 ? t : 0;
+    }
+
     @Override
     public AABB getAABB() {
         return null;
@@ -86,6 +86,15 @@ public class Polygon extends Geometry {
         createAABB();
     }
 
+    /**
+     * Getter for the polygon's vertices.
+     *
+     * @return unmodifiable list of the vertices, ordered by edge path.
+     */
+    public List<Point3D> getVertices() {
+        return vertices;
+    }
+
     /**
      * Calculates normal vector to this polygon
      * at a given point (affectively gets normal to underlying plane).
@@ -150,6 +159,81 @@ public class Polygon extends Geometry {
         return res;
     }
 
+    /**
+     * Finds the intersection between this polygon and a given ray, should it be closer than the one held by the hit record.
+     * The calculation is done on the raw coordinates so it doesn't allocate.
+     *
+     * @param ray the ray intersecting the geometry (its direction must be normalized).
+     * @param hit the hit record holding the closest intersection found so far.
+     * @return true if a closer intersection was found and recorded.
+     */
+    @Override
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        double t = intersectionDistance(ray, hit.t);
+        if (t <= 0)
+            return false;
+        hit.record(t, this, -1);
+        return true;
+    }
+
+    /**
+     * Calculates how much light passes through this polygon along a ray up to a given distance.
+     * The calculation is done on the raw coordinates so it doesn't allocate.
+     *
+     * @param ray         the ray towards the light source (its direction must be normalized).
+     * @param maxDistance the distance along the ray to the light source.
+     * @param minK        the transmittance below which the light is considered blocked.
+     * @return the transmittance - between 1 (nothing blocks the light) and 0 (the light is blocked).
+     */
+    @Override
+    public double transmittance(Ray ray, double maxDistance, double minK) {
+        if (intersectionDistance(ray, Math.nextUp(maxDistance)) <= 0)
+            return 1.0;
+        return material.kT < minK ? 0.0 : material.kT;
+    }
+
+    /**
+     * Calculates the distance along a ray to its intersection with this polygon, without allocating.
+     * The intersection with the underlying plane is found first, so polygons beyond the given distance are rejected
+     * before the edges are tested.
+     *
+     * @param ray         the ray intersecting the polygon (its direction must be normalized).
+     * @param maxDistance the distance along the ray from which intersections are not of interest.
+     * @return the distance to the intersection, or zero if there is no intersection closer than maxDistance.
+     */
+    private double intersectionDistance(Ray ray, double maxDistance) {
+        double t = plane.intersectionDistance(ray);
+        if (t <= 0 || t >= maxDistance)
+            return 0;
+
+        Point3D p0 = ray.get_p0();
+        Point3D dir = ray.get_dir().getHead();
+        double ox = p0.getX().getCoord(), oy = p0.getY().getCoord(), oz = p0.getZ().getCoord();
+        double dx = dir.getX().getCoord(), dy = dir.getY().getCoord(), dz = dir.getZ().getCoord();
+
+        //Same test as findGeoIntersections - the ray must be on the same side of every face of the 'box-ey cone'
+        //spanned by the ray's origin and the polygon's edges.
+        int s = vertices.size();
+        Point3D last = vertices.get(s - 1);
+        double ax = last.getX().getCoord() - ox, ay = last.getY().getCoord() - oy, az = last.getZ().getCoord() - oz;
+        boolean positive = false;
+        for (int i = 0; i < s; ++i) {
+            Point3D vertex = vertices.get(i);
+            double bx = vertex.getX().getCoord() - ox, by = vertex.getY().getCoord() - oy, bz = vertex.getZ().getCoord() - oz;
+            double product = alignZero(dx * (ay * bz - az * by) + dy * (az * bx - ax * bz) + dz * (ax * by - ay * bx));
+            if (product == 0)
+                return 0;
+            if (i == 0)
+                positive = product > 0;
+            else if (positive != product > 0)
+                return 0;
+            ax = bx;
+            ay = by;
+            az = bz;
+        }
+        return t;
+    }
+
     /**
      * creates the aabb for the polygon
      */
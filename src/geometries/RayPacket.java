@@ -0,0 +1,249 @@
+package geometries;
+
+import geometries.Intersectable.HitRecord;
+import primitives.Point3D;
+import primitives.Ray;
+import primitives.Vector;
+
+import static primitives.Util.alignZero;
+
+/**
+ * A packet of coherent rays (such as the primary rays of a small square of pixels) which are traced through
+ * the acceleration structures together, each with its own hit record.
+ * The rays' origins, inverse directions and closest hit distances are kept in lanes - an array per value, indexed
+ * by the ray's lane - so a bounding box is tested against all the rays of the packet in a single straight loop
+ * over primitive arrays, which the JIT can unroll and vectorize, and a box that none of the rays hits is skipped
+ * for the whole packet at once.
+ * Rays may be added by their origin and direction alone, in which case the Ray object is created only once it's needed
+ * for testing a primitive - the rays that miss all the boxes are traced without allocating.
+ * A packet is reused for many queries, and is owned by a single thread.
+ *
+ * @author Yosi and Eli
+ */
+public final class RayPacket {
+    private final Ray[] rays;
+    private final HitRecord[] hits;
+    private int size = 0;
+
+    //The origins and directions (not normalized) of the rays added without a Ray object, which is created from them.
+    private final Point3D[] origins;
+    private final double[] dirX, dirY, dirZ;
+
+    //The lanes - origins, inverse directions and closest hit distances of the rays.
+    private final double[] ox, oy, oz;
+    private final double[] invX, invY, invZ;
+    private final double[] tMax;
+    //Whether each ray hit the box tested last.
+    private final boolean[] active;
+
+    /**
+     * Constructor for an empty packet.
+     *
+     * @param capacity the maximal amount of rays in the packet.
+     * @throws IllegalArgumentException if the capacity is not positive.
+     */
+    public RayPacket(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Packet capacity must be positive");
+        rays = new Ray[capacity];
+        hits = new HitRecord[capacity];
+        for (int i = 0; i < capacity; ++i)
+            hits[i] = new HitRecord();
+        ox = new double[capacity];
+        oy = new double[capacity];
+        oz = new double[capacity];
+        invX = new double[capacity];
+        invY = new double[capacity];
+        invZ = new double[capacity];
+        tMax = new double[capacity];
+        origins = new Point3D[capacity];
+        dirX = new double[capacity];
+        dirY = new double[capacity];
+        dirZ = new double[capacity];
+        active = new boolean[capacity];
+    }
+
+    /**
+     * Removes all the rays from the packet.
+     *
+     * @return this packet.
+     */
+    public RayPacket clear() {
+        for (int i = 0; i < size; ++i) {
+            rays[i] = null;
+            origins[i] = null;
+        }
+        size = 0;
+        return this;
+    }
+
+    /**
+     * Adds a ray to the packet, with an empty hit record interested in intersections at any distance.
+     *
+     * @param ray the ray (its direction must be normalized).
+     * @return the ray's lane.
+     * @throws IllegalArgumentException if the packet is full.
+     */
+    public int add(Ray ray) {
+        if (size == rays.length)
+            throw new IllegalArgumentException("The packet is full");
+        int lane = size++;
+        Point3D p0 = ray.get_p0();
+        rays[lane] = ray;
+        hits[lane].reset(Double.POSITIVE_INFINITY);
+        ox[lane] = p0.getX().getCoord();
+        oy[lane] = p0.getY().getCoord();
+        oz[lane] = p0.getZ().getCoord();
+        invX[lane] = ray.getInvDirX();
+        invY[lane] = ray.getInvDirY();
+        invZ[lane] = ray.getInvDirZ();
+        tMax[lane] = Double.POSITIVE_INFINITY;
+        return lane;
+    }
+
+    /**
+     * Adds a ray by its origin and direction, with an empty hit record interested in intersections at any distance.
+     * The Ray object is created only if the ray gets to a primitive, or by {@link #getRay(int)}.
+     *
+     * @param p0 the ray's origin.
+     * @param x  the x component of the ray's direction (not necessarily normalized).
+     * @param y  the y component of the ray's direction.
+     * @param z  the z component of the ray's direction.
+     * @return the ray's lane.
+     * @throws IllegalArgumentException if the packet is full.
+     */
+    public int add(Point3D p0, double x, double y, double z) {
+        if (size == rays.length)
+            throw new IllegalArgumentException("The packet is full");
+        int lane = size++;
+        rays[lane] = null;
+        origins[lane] = p0;
+        hits[lane].reset(Double.POSITIVE_INFINITY);
+        ox[lane] = p0.getX().getCoord();
+        oy[lane] = p0.getY().getCoord();
+        oz[lane] = p0.getZ().getCoord();
+        //the components aligned to zero and normalized the same way as the ray's direction (see Vector#normalize),
+        //so the lane holds exactly the inverse direction of the Ray created from them.
+        x = alignZero(x);
+        y = alignZero(y);
+        z = alignZero(z);
+        dirX[lane] = x;
+        dirY[lane] = y;
+        dirZ[lane] = z;
+        double c = 1 / Math.sqrt(x * x + y * y + z * z);
+        invX[lane] = 1 / alignZero(x * c);
+        invY[lane] = 1 / alignZero(y * c);
+        invZ[lane] = 1 / alignZero(z * c);
+        tMax[lane] = Double.POSITIVE_INFINITY;
+        return lane;
+    }
+
+    /**
+     * Gets the amount of rays in the packet.
+     *
+     * @return the amount of rays.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the maximal amount of rays in the packet.
+     *
+     * @return the capacity.
+     */
+    public int capacity() {
+        return rays.length;
+    }
+
+    /**
+     * Gets the ray of a lane, creating it if the ray was added by its origin and direction.
+     *
+     * @param lane the lane.
+     * @return the ray.
+     */
+    public Ray getRay(int lane) {
+        Ray ray = rays[lane];
+        if (ray == null) {
+            ray = new Ray(origins[lane], new Vector(dirX[lane], dirY[lane], dirZ[lane]));
+            rays[lane] = ray;
+        }
+        return ray;
+    }
+
+    /**
+     * Gets the hit record of a lane - the closest intersection found for its ray so far.
+     *
+     * @param lane the lane.
+     * @return the hit record.
+     */
+    public HitRecord getHit(int lane) {
+        return hits[lane];
+    }
+
+    /**
+     * Finds the closest intersection of a geometry with the ray of a lane, closer than the one held by its hit record.
+     *
+     * @param intersectable the geometry.
+     * @param lane          the lane.
+     * @return true if a closer intersection was found and recorded.
+     */
+    public boolean findClosestHit(Intersectable intersectable, int lane) {
+        if (!intersectable.findClosestHit(getRay(lane), hits[lane]))
+            return false;
+        tMax[lane] = hits[lane].t;
+        return true;
+    }
+
+    /**
+     * Checks whether the ray of a lane hit the box tested last by {@link #hitsBox(double[], int)}.
+     *
+     * @param lane the lane.
+     * @return true if the ray enters the box before its closest intersection found so far.
+     */
+    boolean isActive(int lane) {
+        return active[lane];
+    }
+
+    /**
+     * Tests a box against all the rays of the packet, using the slab test, and marks the rays that hit it as active.
+     *
+     * @param bounds the array holding the box - its minimal x, y and z followed by its maximal x, y and z.
+     * @param offset the index of the box's minimal x in the array.
+     * @return true if any of the rays enters the box before its closest intersection found so far.
+     */
+    boolean hitsBox(double[] bounds, int offset) {
+        double minX = bounds[offset], minY = bounds[offset + 1], minZ = bounds[offset + 2];
+        double maxX = bounds[offset + 3], maxY = bounds[offset + 4], maxZ = bounds[offset + 5];
+        boolean any = false;
+        for (int i = 0; i < size; ++i) {
+            //the range of distances along the ray inside all the slabs, starting as the range of interest.
+            //comparisons with NaN (ray parallel to and on the slab's border) are false, so they leave the range as is.
+            double tNear = 0, tFar = tMax[i];
+
+            double t1 = (minX - ox[i]) * invX[i], t2 = (maxX - ox[i]) * invX[i];
+            double near = t1 > t2 ? t2 : t1, far = t1 > t2 ? t1 : t2;
+            tNear = near > tNear ? near : tNear;
+            tFar = far < tFar ? far : tFar;
+
+            t1 = (minY - oy[i]) * invY[i];
+            t2 = (maxY - oy[i]) * invY[i];
+            near = t1 > t2 ? t2 : t1;
+            far = t1 > t2 ? t1 : t2;
+            tNear = near > tNear ? near : tNear;
+            tFar = far < tFar ? far : tFar;
+
+            t1 = (minZ - oz[i]) * invZ[i];
+            t2 = (maxZ - oz[i]) * invZ[i];
+            near = t1 > t2 ? t2 : t1;
+            far = t1 > t2 ? t1 : t2;
+            tNear = near > tNear ? near : tNear;
+            tFar = far < tFar ? far : tFar;
+
+            boolean hit = tNear <= tFar;
+            active[i] = hit;
+            any |= hit;
+        }
+        return any;
+    }
+}
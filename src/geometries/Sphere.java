@@ -95,6 +95,74 @@ public class Sphere extends Geometry{
         return res;
     }
 
+    /**
+     * Finds the closest intersection between this sphere and a given ray, closer than the one held by the hit record.
+     * The calculation is done on the raw coordinates so it doesn't allocate.
+     *
+     * @param ray the ray intersecting the geometry (its direction must be normalized).
+     * @param hit the hit record holding the closest intersection found so far.
+     * @return true if a closer intersection was found and recorded.
+     */
+    @Override
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        Point3D p0 = ray.get_p0();
+        Point3D dir = ray.get_dir().getHead();
+
+        //vector from ray origin to center of sphere.
+        double ux = _center.getX().getCoord() - p0.getX().getCoord();
+        double uy = _center.getY().getCoord() - p0.getY().getCoord();
+        double uz = _center.getZ().getCoord() - p0.getZ().getCoord();
+        double tm = dir.getX().getCoord() * ux + dir.getY().getCoord() * uy + dir.getZ().getCoord() * uz;
+        double distSquared = ux * ux + uy * uy + uz * uz - tm * tm;
+
+        if (distSquared >= _radius * _radius) //ray is further than a radius away from the center - no intersections.
+            return false;
+
+        double th = Math.sqrt(_radius * _radius - distSquared);
+        //prefer the nearer intersection, unless it is behind the ray's origin.
+        double t = alignZero(tm - th);
+        if (t <= 0)
+            t = alignZero(tm + th);
+        if (t <= 0 || t >= hit.t)
+            return false;
+
+        hit.record(t, this, -1);
+        return true;
+    }
+
+    /**
+     * Calculates how much light passes through this sphere along a ray up to a given distance.
+     * Each of the ray's intersections with the sphere in that range is multiplied in (so light crossing the whole
+     * sphere is scaled by its transparency twice). The calculation is done on the raw coordinates so it doesn't allocate.
+     *
+     * @param ray         the ray towards the light source (its direction must be normalized).
+     * @param maxDistance the distance along the ray to the light source.
+     * @param minK        the transmittance below which the light is considered blocked.
+     * @return the transmittance - between 1 (nothing blocks the light) and 0 (the light is blocked).
+     */
+    @Override
+    public double transmittance(Ray ray, double maxDistance, double minK) {
+        Point3D p0 = ray.get_p0();
+        Point3D dir = ray.get_dir().getHead();
+
+        double ux = _center.getX().getCoord() - p0.getX().getCoord();
+        double uy = _center.getY().getCoord() - p0.getY().getCoord();
+        double uz = _center.getZ().getCoord() - p0.getZ().getCoord();
+        double tm = dir.getX().getCoord() * ux + dir.getY().getCoord() * uy + dir.getZ().getCoord() * uz;
+        double distSquared = ux * ux + uy * uy + uz * uz - tm * tm;
+
+        if (distSquared >= _radius * _radius)
+            return 1.0;
+
+        double th = Math.sqrt(_radius * _radius - distSquared);
+        double t1 = alignZero(tm - th), t2 = alignZero(tm + th);
+        int crossings = (t1 > 0 && t1 <= maxDistance ? 1 : 0) + (t2 > 0 && t2 <= maxDistance ? 1 : 0);
+        if (crossings == 0)
+            return 1.0;
+        double ktr = crossings == 1 ? material.kT : material.kT * material.kT;
+        return ktr < minK ? 0.0 : ktr;
+    }
+
     /**
      * create spheres aabb.
      */
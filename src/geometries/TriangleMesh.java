@@ -0,0 +1,404 @@
+package geometries;
+
+import primitives.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static primitives.Util.*;
+
+/**
+ * class that represents a mesh of triangles sharing their vertices, as one geometry with a single material.
+ * The vertices' coordinates and the triangles' vertex indices are kept in flat arrays instead of a Triangle object
+ * (with its vertex list, plane and box) per triangle, and the triangles are held in an internal bounding volume
+ * hierarchy. Intersections are found with the Moller-Trumbore test directly on the arrays, so they don't allocate.
+ *
+ * @author Yosi and Eli
+ */
+public class TriangleMesh extends Geometry {
+
+    //The square of the sine of the angle between a ray and a triangle's plane below which the ray is considered
+    //parallel to the triangle.
+    private static final double PARALLEL_TOLERANCE = 1e-24;
+
+    //Vertices' coordinates - x, y, z for each vertex.
+    private final double[] vertices;
+    //Triangles' vertex indices - three for each triangle, ordered so every leaf of the hierarchy holds a continuous range.
+    private final int[] indices;
+
+    //The hierarchy over the triangles.
+    private final LinearBVH bvh;
+
+    /**
+     * Constructor for the mesh using the vertices' coordinates and the triangles' vertex indices.
+     * The vertices of every triangle are ordered like the vertices of a {@link Triangle}, which decides the normal's direction.
+     *
+     * @param vertices the vertices' coordinates - x, y, z for each vertex.
+     * @param indices  the triangles' vertex indices - three for each triangle.
+     * @throws IllegalArgumentException if there are no triangles, the arrays' lengths are not multiples of three
+     *                                  or an index is not of a vertex.
+     */
+    public TriangleMesh(double[] vertices, int[] indices) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("A mesh must have three coordinates for every vertex");
+        if (indices.length == 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("A mesh must have three vertex indices for every triangle, and at least one triangle");
+        for (int index : indices)
+            if (index < 0 || index >= vertices.length / 3)
+                throw new IllegalArgumentException("A triangle's vertex index is out of range");
+        this.vertices = vertices.clone();
+
+        int n = indices.length / 3;
+        double[] bounds = new double[6 * n], coordinates = this.vertices;
+        BVHBuilder.indices(n).forEach(i -> {
+            BVHBuilder.emptyBox(bounds, 6 * i);
+            for (int j = 0; j < 3; ++j) {
+                int v = 3 * indices[3 * i + j];
+                for (int axis = 0; axis < 3; ++axis) {
+                    bounds[6 * i + axis] = Math.min(bounds[6 * i + axis], coordinates[v + axis]);
+                    bounds[6 * i + 3 + axis] = Math.max(bounds[6 * i + 3 + axis], coordinates[v + axis]);
+                }
+            }
+        });
+        bvh = new LinearBVH(TriangleMesh.class, bounds);
+
+        this.indices = new int[indices.length];
+        for (int i = 0; i < n; ++i)
+            System.arraycopy(indices, 3 * bvh.order[i], this.indices, 3 * i, 3);
+
+        double[] root = bvh.nodeBounds;
+        aabb = new AABB(new Point3D(root[3], root[4], root[5]), new Point3D(root[0], root[1], root[2]));
+    }
+
+    /**
+     * Constructor for a mesh that was already compiled, given its arrays as returned by {@link #getVertices()},
+     * {@link #getIndices()}, {@link #getHierarchyBounds()} and {@link #getHierarchyNodes()} - the hierarchy
+     * is not built again, so a mesh loaded from a file (see {@link scene.SceneCache}) is ready at once.
+     * The arrays are taken over, not copied.
+     *
+     * @param vertices        the vertices' coordinates - x, y, z for each vertex.
+     * @param indices         the triangles' vertex indices in the hierarchy's order - three for each triangle.
+     * @param hierarchyBounds the bounds of the hierarchy's nodes - six values per node.
+     * @param hierarchyNodes  the data of the hierarchy's nodes - two values per node.
+     * @throws IllegalArgumentException if there are no triangles, the arrays' lengths don't match, an index is not
+     *                                  of a vertex or the nodes are not a hierarchy over the triangles.
+     */
+    public TriangleMesh(double[] vertices, int[] indices, double[] hierarchyBounds, int[] hierarchyNodes) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("A mesh must have three coordinates for every vertex");
+        if (indices.length == 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("A mesh must have three vertex indices for every triangle, and at least one triangle");
+        for (int index : indices)
+            if (index < 0 || index >= vertices.length / 3)
+                throw new IllegalArgumentException("A triangle's vertex index is out of range");
+        this.vertices = vertices;
+        this.indices = indices;
+        bvh = new LinearBVH(TriangleMesh.class, hierarchyBounds, hierarchyNodes, indices.length / 3);
+
+        double[] root = bvh.nodeBounds;
+        aabb = new AABB(new Point3D(root[3], root[4], root[5]), new Point3D(root[0], root[1], root[2]));
+    }
+
+    /**
+     * Constructor for the mesh using the vertices as points and the triangles' vertex indices.
+     * Points no triangle refers to may be null.
+     *
+     * @param points  the vertices.
+     * @param indices the triangles' vertex indices - three for each triangle.
+     * @throws IllegalArgumentException if there are no triangles, the amount of indices is not a multiple of three
+     *                                  or an index is not of a vertex.
+     */
+    public TriangleMesh(Point3D[] points, int... indices) {
+        this(coordinates(points, indices), indices);
+    }
+
+    /**
+     * Gathers the coordinates of the vertices into a flat array.
+     *
+     * @param points  the vertices (ones no triangle refers to may be null).
+     * @param indices the triangles' vertex indices.
+     * @return the vertices' coordinates - x, y, z for each vertex.
+     */
+    private static double[] coordinates(Point3D[] points, int[] indices) {
+        for (int index : indices)
+            if (index >= 0 && index < points.length && points[index] == null)
+                throw new IllegalArgumentException("A triangle's vertex is null");
+        double[] coordinates = new double[3 * points.length];
+        for (int i = 0; i < points.length; ++i)
+            if (points[i] != null) {
+                coordinates[3 * i] = points[i].getX().getCoord();
+                coordinates[3 * i + 1] = points[i].getY().getCoord();
+                coordinates[3 * i + 2] = points[i].getZ().getCoord();
+            }
+        return coordinates;
+    }
+
+    /**
+     * Gets the amount of triangles in the mesh.
+     *
+     * @return the amount of triangles.
+     */
+    public int size() {
+        return indices.length / 3;
+    }
+
+    /**
+     * Gets the vertices' coordinates.
+     *
+     * @return a copy of the vertices' coordinates - x, y, z for each vertex.
+     */
+    public double[] getVertices() {
+        return vertices.clone();
+    }
+
+    /**
+     * Gets the triangles' vertex indices, in the order of the mesh's hierarchy.
+     *
+     * @return a copy of the vertex indices - three for each triangle.
+     */
+    public int[] getIndices() {
+        return indices.clone();
+    }
+
+    /**
+     * Gets the bounds of the nodes of the mesh's hierarchy.
+     *
+     * @return a copy of the nodes' bounds - minX, minY, minZ, maxX, maxY, maxZ for each node, in depth first order.
+     */
+    public double[] getHierarchyBounds() {
+        return bvh.nodeBounds();
+    }
+
+    /**
+     * Gets the data of the nodes of the mesh's hierarchy.
+     *
+     * @return a copy of the nodes' data - for a leaf the index of its first triangle and the amount of triangles,
+     * for an inner node the index of its second child and zero.
+     */
+    public int[] getHierarchyNodes() {
+        return bvh.nodeData();
+    }
+
+    /**
+     * Calculates the normal to a triangle of the mesh
+     * (the same as the normal of a {@link Triangle} with the same vertices).
+     *
+     * @param index the triangle's index.
+     * @return the normal vector to the triangle.
+     */
+    private Vector triangleNormal(int index) {
+        int v0 = 3 * indices[3 * index], v1 = 3 * indices[3 * index + 1], v2 = 3 * indices[3 * index + 2];
+        double e1x = vertices[v1] - vertices[v0], e1y = vertices[v1 + 1] - vertices[v0 + 1], e1z = vertices[v1 + 2] - vertices[v0 + 2];
+        double e2x = vertices[v2] - vertices[v0], e2y = vertices[v2 + 1] - vertices[v0 + 1], e2z = vertices[v2 + 2] - vertices[v0 + 2];
+        return new Vector(e2y * e1z - e2z * e1y, e2z * e1x - e2x * e1z, e2x * e1y - e2y * e1x).normalize();
+    }
+
+    /**
+     * Calculates the normal to the mesh at a given point on one of its triangles.
+     *
+     * @param point a point on the mesh.
+     * @param index the index of the triangle the point is on (-1 if unknown).
+     * @return normal vector to the triangle.
+     */
+    @Override
+    public Vector getNormal(Point3D point, int index) {
+        return index < 0 ? getNormal(point) : triangleNormal(index);
+    }
+
+    /**
+     * Calculates the normal to the mesh at a given point, searching for the triangle the point is on.
+     * Prefer {@link GeoPoint#getNormal()} for intersection points, which already knows the triangle.
+     *
+     * @param point a point on the mesh.
+     * @return normal vector to the triangle the point is on.
+     * @throws IllegalArgumentException if the point is not on the mesh.
+     */
+    @Override
+    public Vector getNormal(Point3D point) {
+        for (int i = 0, n = size(); i < n; ++i) {
+            Vector normal = triangleNormal(i);
+            int v0 = 3 * indices[3 * i];
+            Vector toPoint;
+            try {
+                toPoint = point.subtract(new Point3D(vertices[v0], vertices[v0 + 1], vertices[v0 + 2]));
+            } catch (IllegalArgumentException e) { //the point is the triangle's vertex.
+                return normal;
+            }
+            //shoot a ray towards the triangle's plane from just above the point, it hits the triangle if the point is on it.
+            if (isZero(toPoint.dotProduct(normal))
+                    && intersectionDistance(i, new Ray(point.add(normal), normal.scale(-1)), Double.POSITIVE_INFINITY) > 0)
+                return normal;
+        }
+        throw new IllegalArgumentException("The point is not on the mesh");
+    }
+
+    /**
+     * Finds the intersection points of the mesh with a given ray, with respect to the mesh as their geometry
+     * and the triangles they are on.
+     *
+     * @param ray the ray intersecting the mesh.
+     * @return list of intersection points, null if there are none.
+     */
+    @Override
+    public List<GeoPoint> findGeoIntersections(Ray ray) {
+        List<GeoPoint> res = null;
+        int[] stack = bvh.stack();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!hitsNode(node, ray, Double.POSITIVE_INFINITY))
+                continue;
+            int count = bvh.nodeData[2 * node + 1];
+            if (count > 0) {
+                for (int i = bvh.nodeData[2 * node], end = i + count; i < end; ++i) {
+                    double t = intersectionDistance(i, ray, Double.POSITIVE_INFINITY);
+                    if (t > 0) {
+                        if (res == null)
+                            res = new ArrayList<>();
+                        res.add(new GeoPoint(this, ray.getPoint(t), i));
+                    }
+                }
+            } else {
+                stack[top++] = bvh.nodeData[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Finds the closest intersection of the mesh with a given ray, should it be closer than the one held by the hit record.
+     * Nodes of the hierarchy entered beyond the closest intersection found so far are skipped.
+     *
+     * @param ray the ray intersecting the mesh (its direction must be normalized).
+     * @param hit the hit record holding the closest intersection found so far.
+     * @return true if a closer intersection was found and recorded.
+     */
+    @Override
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        boolean found = false;
+        int[] stack = bvh.stack();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!hitsNode(node, ray, hit.t))
+                continue;
+            int count = bvh.nodeData[2 * node + 1];
+            if (count > 0) {
+                for (int i = bvh.nodeData[2 * node], end = i + count; i < end; ++i) {
+                    double t = intersectionDistance(i, ray, hit.t);
+                    if (t > 0) {
+                        hit.record(t, this, i);
+                        found = true;
+                    }
+                }
+            } else {
+                stack[top++] = bvh.nodeData[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Calculates how much light passes through the mesh along a ray up to a given distance.
+     * Every triangle crossed before that distance lets through the mesh's transparency coefficient (kT).
+     *
+     * @param ray         the ray towards the light source (its direction must be normalized).
+     * @param maxDistance the distance along the ray to the light source.
+     * @param minK        the transmittance below which the light is considered blocked.
+     * @return the transmittance - between 1 (nothing blocks the light) and 0 (the light is blocked).
+     */
+    @Override
+    public double transmittance(Ray ray, double maxDistance, double minK) {
+        double ktr = 1.0;
+        int[] stack = bvh.stack();
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!hitsNode(node, ray, maxDistance))
+                continue;
+            int count = bvh.nodeData[2 * node + 1];
+            if (count > 0) {
+                for (int i = bvh.nodeData[2 * node], end = i + count; i < end; ++i)
+                    if (intersectionDistance(i, ray, Math.nextUp(maxDistance)) > 0) {
+                        ktr *= material.kT;
+                        if (ktr < minK)
+                            return 0.0;
+                    }
+            } else {
+                stack[top++] = bvh.nodeData[2 * node];
+                stack[top++] = node + 1;
+            }
+        }
+        return ktr;
+    }
+
+    /**
+     * Checks whether a ray enters the box of a node of the hierarchy before a given distance.
+     *
+     * @param node        the node's index.
+     * @param ray         the ray.
+     * @param maxDistance the distance along the ray from which boxes are not of interest.
+     * @return true if the ray enters the box no farther than maxDistance.
+     */
+    private boolean hitsNode(int node, Ray ray, double maxDistance) {
+        Point3D p0 = ray.get_p0();
+        return bvh.hitsNode(node, p0.getX().getCoord(), p0.getY().getCoord(), p0.getZ().getCoord(),
+                ray.getInvDirX(), ray.getInvDirY(), ray.getInvDirZ(), maxDistance);
+    }
+
+    /**
+     * Calculates the distance along a ray to its intersection with a triangle of the mesh, using the Moller-Trumbore test.
+     * Points on the triangle's edges are considered inside it, so rays don't slip between adjacent triangles.
+     *
+     * @param index       the triangle's index.
+     * @param ray         the ray intersecting the triangle.
+     * @param maxDistance the distance along the ray from which intersections are not of interest.
+     * @return the distance to the intersection, or zero if there is no intersection closer than maxDistance.
+     */
+    private double intersectionDistance(int index, Ray ray, double maxDistance) {
+        if (IntersectionStats.ENABLED)
+            IntersectionStats.countMeshTriangleTest();
+        int v0 = 3 * indices[3 * index], v1 = 3 * indices[3 * index + 1], v2 = 3 * indices[3 * index + 2];
+        Point3D p0 = ray.get_p0();
+        Point3D dir = ray.get_dir().getHead();
+        double dx = dir.getX().getCoord(), dy = dir.getY().getCoord(), dz = dir.getZ().getCoord();
+
+        double e1x = vertices[v1] - vertices[v0], e1y = vertices[v1 + 1] - vertices[v0 + 1], e1z = vertices[v1 + 2] - vertices[v0 + 2];
+        double e2x = vertices[v2] - vertices[v0], e2y = vertices[v2 + 1] - vertices[v0 + 1], e2z = vertices[v2 + 2] - vertices[v0 + 2];
+
+        //p = dir x e2, the determinant is zero if the ray is parallel to the triangle (or the triangle is degenerate).
+        //det = -dir . (e1 x e2) grows with the edges' lengths, so it's compared relative to them - an absolute
+        //threshold would cull small triangles.
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (det * det <= PARALLEL_TOLERANCE * (e1x * e1x + e1y * e1y + e1z * e1z) * (e2x * e2x + e2y * e2y + e2z * e2z))
+            return 0;
+        double invDet = 1 / det;
+
+        //barycentric coordinates of the intersection with the triangle's plane.
+        double sx = p0.getX().getCoord() - vertices[v0], sy = p0.getY().getCoord() - vertices[v0 + 1], sz = p0.getZ().getCoord() - vertices[v0 + 2];
+        double u = (sx * px + sy * py + sz * pz) * invDet;
+        if (u < 0 || u > 1)
+            return 0;
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * invDet;
+        if (v < 0 || u + v > 1)
+            return 0;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * invDet);
+        return t > 0 && t < maxDistance ? t : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "TriangleMesh{" +
+                "vertices=" + vertices.length / 3 +
+                ", triangles=" + size() +
+                '}';
+    }
+}
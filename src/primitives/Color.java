@@ -80,6 +80,47 @@ public class Color {
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    /**
+     * Red component getter
+     *
+     * @return the red component of the color
+     */
+    public double getRed() {
+        return r;
+    }
+
+    /**
+     * Green component getter
+     *
+     * @return the green component of the color
+     */
+    public double getGreen() {
+        return g;
+    }
+
+    /**
+     * Blue component getter
+     *
+     * @return the blue component of the color
+     */
+    public double getBlue() {
+        return b;
+    }
+
+    /**
+     * Packs the color into an int in the default sRGB model, the same as
+     * {@code getColor().getRGB()} but without creating a java.awt.Color object.
+     * During the conversion any component bigger than 255 is set to 255
+     *
+     * @return the packed color - alpha (always opaque), red, green and blue from the high byte to the low one
+     */
+    public int getRGB() {
+        int ir = (int) r;
+        int ig = (int) g;
+        int ib = (int) b;
+        return 0xFF000000 | (ir > 255 ? 255 : ir) << 16 | (ig > 255 ? 255 : ig) << 8 | (ib > 255 ? 255 : ib);
+    }
+
     /**
      * Operation of adding this and one or more other colors (by component)
      *
@@ -121,4 +162,14 @@ public class Color {
             throw new IllegalArgumentException("Can't scale a color by a by a number lower than 1");
         return new Color(r / k, g / k, b / k);
     }
+
+    /**
+     * Calculates how much this color differs from another one - the largest difference between their components
+     *
+     * @param other the other color
+     * @return the largest absolute difference between the colors' components
+     */
+    public double difference(Color other) {
+        return Math.max(Math.abs(r - other.r), Math.max(Math.abs(g - other.g), Math.abs(b - other.b)));
+    }
 }
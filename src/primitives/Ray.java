@@ -18,12 +18,23 @@ public class Ray {
     /**
      * The point at which the ray begins
      */
-    final Point3D _p0;
+    Point3D _p0;
 
     /**
      * The direction in which the ray is pointing
      */
-    final Vector _dir;
+    Vector _dir;
+
+    /**
+     * The inverses of the direction's components (infinite for a component of zero), for the slab tests of bounding boxes
+     */
+    private double _invDirX, _invDirY, _invDirZ;
+
+    /**
+     * The signs of the direction's components - 1 for a negative component and 0 otherwise,
+     * so the near and far sides of a box can be picked by index instead of compared
+     */
+    private int _signX, _signY, _signZ;
 
     /**
      * delta value to move head of rays by, so that we don't cast
@@ -41,6 +52,7 @@ public class Ray {
         this._p0 = p0;
         this._dir = dir;
         this._dir.normalize();
+        setInverse();
     }
 
     /**
@@ -50,9 +62,41 @@ public class Ray {
      * @param n normal vector to surface
      */
     public Ray(Point3D p0, Vector dir, Vector n) {
-        Vector delta = n.normalized().scale(n.normalized().dotProduct(dir.normalized()) > 0 ? DELTA : - DELTA);
-        this._p0 = p0.add(delta);
+        //the side of the surface is the sign of n*dir, so there's no need to normalize either of them for it.
+        Vec3d delta = new Vec3d(n);
+        delta.scale((delta.dot(dir) > 0 ? DELTA : -DELTA) / delta.length());
+        this._p0 = delta.add(p0).toPoint3D();
         this._dir = dir.normalized();
+        setInverse();
+    }
+
+    /**
+     * Re-aims the ray - for a scratch ray kept by its owner (per thread) and reused for every query,
+     * instead of allocating a ray for each one. Rays handed out to others must be left as they are.
+     *
+     * @param p0  beginning point.
+     * @param dir direction, already normalized.
+     * @return this ray.
+     */
+    public Ray set(Point3D p0, Vector dir) {
+        _p0 = p0;
+        _dir = dir;
+        setInverse();
+        return this;
+    }
+
+    /**
+     * calculates the inverse of the direction and its signs.
+     */
+    private void setInverse() {
+        Point3D head = _dir.getHead();
+        _invDirX = 1 / head.getX().getCoord();
+        _invDirY = 1 / head.getY().getCoord();
+        _invDirZ = 1 / head.getZ().getCoord();
+        //the sign of the inverse - so a component of negative zero counts as negative, like its infinite inverse.
+        _signX = _invDirX < 0 ? 1 : 0;
+        _signY = _invDirY < 0 ? 1 : 0;
+        _signZ = _invDirZ < 0 ? 1 : 0;
     }
 
     /**
@@ -73,6 +117,60 @@ public class Ray {
         return _dir;
     }
 
+    /**
+     * getter for the inverse of the direction's x component
+     *
+     * @return 1 / dir.x (infinite if it's zero)
+     */
+    public double getInvDirX() {
+        return _invDirX;
+    }
+
+    /**
+     * getter for the inverse of the direction's y component
+     *
+     * @return 1 / dir.y (infinite if it's zero)
+     */
+    public double getInvDirY() {
+        return _invDirY;
+    }
+
+    /**
+     * getter for the inverse of the direction's z component
+     *
+     * @return 1 / dir.z (infinite if it's zero)
+     */
+    public double getInvDirZ() {
+        return _invDirZ;
+    }
+
+    /**
+     * getter for the sign of the direction's x component
+     *
+     * @return 1 if it's negative, and 0 otherwise
+     */
+    public int getSignX() {
+        return _signX;
+    }
+
+    /**
+     * getter for the sign of the direction's y component
+     *
+     * @return 1 if it's negative, and 0 otherwise
+     */
+    public int getSignY() {
+        return _signY;
+    }
+
+    /**
+     * getter for the sign of the direction's z component
+     *
+     * @return 1 if it's negative, and 0 otherwise
+     */
+    public int getSignZ() {
+        return _signZ;
+    }
+
     /**
      * get the point at head of ray when scaled by a given number
      * @param t the number to scale the ray by
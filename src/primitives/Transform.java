@@ -0,0 +1,270 @@
+package primitives;
+
+/**
+ * Class representing an affine transformation of the 3 dimensional cartesian space - a linear transformation
+ * (rotation, scaling) followed by a translation. The transformation is kept as a 3x4 matrix along with the matrix
+ * of its inverse, so both directions of the transformation cost the same.
+ * Transformations are immutable, and combined with {@link #then(Transform)}.
+ *
+ * @author Yosi and Eli.
+ */
+public final class Transform {
+    /**
+     * The identity transformation - leaves everything in place.
+     */
+    public static final Transform IDENTITY = new Transform(
+            new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0},
+            new double[]{1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0});
+
+    //The matrix of the transformation and of its inverse, row by row - each row is 3 linear coefficients and a translation.
+    private final double[] m;
+    private final double[] inv;
+
+    /**
+     * Constructor for a transformation given its matrix and the matrix of its inverse.
+     *
+     * @param m   the matrix of the transformation.
+     * @param inv the matrix of the inverse transformation.
+     */
+    private Transform(double[] m, double[] inv) {
+        this.m = m;
+        this.inv = inv;
+    }
+
+    /**
+     * Creates a translation.
+     *
+     * @param x the distance to move along the x axis.
+     * @param y the distance to move along the y axis.
+     * @param z the distance to move along the z axis.
+     * @return the translation.
+     */
+    public static Transform translation(double x, double y, double z) {
+        return new Transform(
+                new double[]{1, 0, 0, x, 0, 1, 0, y, 0, 0, 1, z},
+                new double[]{1, 0, 0, -x, 0, 1, 0, -y, 0, 0, 1, -z});
+    }
+
+    /**
+     * Creates a translation by a vector.
+     *
+     * @param v the vector to move by.
+     * @return the translation.
+     */
+    public static Transform translation(Vector v) {
+        return translation(v.head.x.coord, v.head.y.coord, v.head.z.coord);
+    }
+
+    /**
+     * Creates a scaling about the origin.
+     *
+     * @param x the scaling factor along the x axis.
+     * @param y the scaling factor along the y axis.
+     * @param z the scaling factor along the z axis.
+     * @return the scaling.
+     * @throws IllegalArgumentException if any of the factors is zero.
+     */
+    public static Transform scaling(double x, double y, double z) {
+        if (x == 0 || y == 0 || z == 0)
+            throw new IllegalArgumentException("scaling factors must not be zero");
+        return new Transform(
+                new double[]{x, 0, 0, 0, 0, y, 0, 0, 0, 0, z, 0},
+                new double[]{1 / x, 0, 0, 0, 0, 1 / y, 0, 0, 0, 0, 1 / z, 0});
+    }
+
+    /**
+     * Creates a uniform scaling about the origin.
+     *
+     * @param c the scaling factor.
+     * @return the scaling.
+     * @throws IllegalArgumentException if the factor is zero.
+     */
+    public static Transform scaling(double c) {
+        return scaling(c, c, c);
+    }
+
+    /**
+     * Creates a rotation about an axis through the origin, counterclockwise when looking against the axis
+     * (the same direction as {@link Vector#RotateX(double)} and its siblings).
+     *
+     * @param axis  the axis of rotation.
+     * @param angle the angle of rotation in radians.
+     * @return the rotation.
+     */
+    public static Transform rotation(Vector axis, double angle) {
+        Vector u = axis.normalized();
+        double x = u.head.x.coord, y = u.head.y.coord, z = u.head.z.coord;
+        double s = Math.sin(angle), c = Math.cos(angle), t = 1 - c;
+        double[] m = {
+                t * x * x + c, t * x * y - s * z, t * x * z + s * y, 0,
+                t * x * y + s * z, t * y * y + c, t * y * z - s * x, 0,
+                t * x * z - s * y, t * y * z + s * x, t * z * z + c, 0};
+        //the inverse of a rotation is its transpose.
+        double[] inv = {m[0], m[4], m[8], 0, m[1], m[5], m[9], 0, m[2], m[6], m[10], 0};
+        return new Transform(m, inv);
+    }
+
+    /**
+     * Creates a transformation given its matrix.
+     *
+     * @param matrix the matrix of the transformation, row by row - each row is 3 linear coefficients and a translation
+     *               (as returned by {@link #getMatrix()}).
+     * @return the transformation.
+     * @throws IllegalArgumentException if the matrix is not 12 values long or the transformation has no inverse.
+     */
+    public static Transform affine(double... matrix) {
+        if (matrix.length != 12)
+            throw new IllegalArgumentException("an affine matrix must have 3 rows of 4 values");
+        double[] a = matrix.clone();
+        //cofactors of the linear part - the inverse of the linear part is their transpose divided by the determinant.
+        double c00 = a[5] * a[10] - a[6] * a[9], c01 = a[6] * a[8] - a[4] * a[10], c02 = a[4] * a[9] - a[5] * a[8];
+        double det = a[0] * c00 + a[1] * c01 + a[2] * c02;
+        if (det == 0)
+            throw new IllegalArgumentException("the transformation has no inverse");
+        double[] inv = {
+                c00, a[2] * a[9] - a[1] * a[10], a[1] * a[6] - a[2] * a[5], 0,
+                c01, a[0] * a[10] - a[2] * a[8], a[2] * a[4] - a[0] * a[6], 0,
+                c02, a[1] * a[8] - a[0] * a[9], a[0] * a[5] - a[1] * a[4], 0};
+        for (int row = 0; row < 3; ++row) {
+            for (int col = 0; col < 3; ++col)
+                inv[4 * row + col] /= det;
+            //the inverse translation undoes the translation after the linear part.
+            inv[4 * row + 3] = -(inv[4 * row] * a[3] + inv[4 * row + 1] * a[7] + inv[4 * row + 2] * a[11]);
+        }
+        return new Transform(a, inv);
+    }
+
+    /**
+     * Gets the matrix of the transformation.
+     *
+     * @return a copy of the matrix, row by row - each row is 3 linear coefficients and a translation.
+     */
+    public double[] getMatrix() {
+        return m.clone();
+    }
+
+    /**
+     * Combines this transformation with another one, applied after it.
+     *
+     * @param next the transformation to apply after this one.
+     * @return the combined transformation.
+     */
+    public Transform then(Transform next) {
+        return new Transform(multiply(next.m, m), multiply(inv, next.inv));
+    }
+
+    /**
+     * Gets the inverse transformation.
+     *
+     * @return the inverse transformation.
+     */
+    public Transform inverse() {
+        return new Transform(inv, m);
+    }
+
+    /**
+     * Multiplies two affine matrices.
+     *
+     * @param a the left matrix (applied second).
+     * @param b the right matrix (applied first).
+     * @return the product matrix.
+     */
+    private static double[] multiply(double[] a, double[] b) {
+        double[] res = new double[12];
+        for (int row = 0; row < 3; ++row) {
+            for (int col = 0; col < 4; ++col)
+                res[4 * row + col] = a[4 * row] * b[col] + a[4 * row + 1] * b[4 + col] + a[4 * row + 2] * b[8 + col];
+            res[4 * row + 3] += a[4 * row + 3];
+        }
+        return res;
+    }
+
+    /**
+     * Transforms a point.
+     *
+     * @param p the point.
+     * @return the transformed point.
+     */
+    public Point3D transform(Point3D p) {
+        return applyPoint(m, p.x.coord, p.y.coord, p.z.coord, new Vec3d()).toPoint3D();
+    }
+
+    /**
+     * Transforms a vector - only the linear part of the transformation applies to it, it isn't translated.
+     *
+     * @param v the vector.
+     * @return the transformed vector (not normalized).
+     */
+    public Vector transform(Vector v) {
+        return applyVector(m, v.head.x.coord, v.head.y.coord, v.head.z.coord, new Vec3d()).toVector();
+    }
+
+    /**
+     * Transforms a normal to a surface - the transformed normal is normal to the transformed surface, which under
+     * non uniform scaling is not the transformed vector (it is transformed by the transpose of the inverse).
+     *
+     * @param n the normal.
+     * @return the transformed normal (not normalized).
+     */
+    public Vector transformNormal(Vector n) {
+        double x = n.head.x.coord, y = n.head.y.coord, z = n.head.z.coord;
+        return new Vector(
+                inv[0] * x + inv[4] * y + inv[8] * z,
+                inv[1] * x + inv[5] * y + inv[9] * z,
+                inv[2] * x + inv[6] * y + inv[10] * z);
+    }
+
+    /**
+     * Transforms a point held in a triple, without allocating.
+     *
+     * @param p the triple holding the point - set to the transformed point.
+     * @return p
+     */
+    public Vec3d transformPoint(Vec3d p) {
+        return applyPoint(m, p.x, p.y, p.z, p);
+    }
+
+    /**
+     * Transforms a vector held in a triple by the linear part of the transformation, without allocating.
+     *
+     * @param v the triple holding the vector - set to the transformed vector.
+     * @return v
+     */
+    public Vec3d transformVector(Vec3d v) {
+        return applyVector(m, v.x, v.y, v.z, v);
+    }
+
+    /**
+     * Applies a matrix to a point.
+     *
+     * @param a   the matrix.
+     * @param x   the point's value along the x axis.
+     * @param y   the point's value along the y axis.
+     * @param z   the point's value along the z axis.
+     * @param res the triple to set to the result.
+     * @return res
+     */
+    private static Vec3d applyPoint(double[] a, double x, double y, double z, Vec3d res) {
+        return res.set(
+                a[0] * x + a[1] * y + a[2] * z + a[3],
+                a[4] * x + a[5] * y + a[6] * z + a[7],
+                a[8] * x + a[9] * y + a[10] * z + a[11]);
+    }
+
+    /**
+     * Applies the linear part of a matrix to a vector.
+     *
+     * @param a   the matrix.
+     * @param x   the vector's value along the x axis.
+     * @param y   the vector's value along the y axis.
+     * @param z   the vector's value along the z axis.
+     * @param res the triple to set to the result.
+     * @return res
+     */
+    private static Vec3d applyVector(double[] a, double x, double y, double z, Vec3d res) {
+        return res.set(
+                a[0] * x + a[1] * y + a[2] * z,
+                a[4] * x + a[5] * y + a[6] * z,
+                a[8] * x + a[9] * y + a[10] * z);
+    }
+}
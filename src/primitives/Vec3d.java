@@ -0,0 +1,264 @@
+package primitives;
+
+/**
+ * Vec3d is a mutable triple of doubles used for vector math in the hot paths of rendering.
+ * Unlike {@link Point3D} and {@link Vector}, its operations change the object they are called on instead of
+ * creating new objects, they don't align values to zero and they allow the zero vector - so a calculation
+ * can be carried out on one or two scratch objects and only its result converted back into a Point3D or a Vector.
+ *
+ * @author Yosi and Eli.
+ */
+public final class Vec3d {
+    //Values along the x, y and z axis.
+    public double x;
+    public double y;
+    public double z;
+
+    /**
+     * Default constructor - creates the zero vector.
+     */
+    public Vec3d() {
+    }
+
+    /**
+     * Constructor using double values along each axis.
+     *
+     * @param x value along the x axis.
+     * @param y value along the y axis.
+     * @param z value along the z axis.
+     */
+    public Vec3d(double x, double y, double z) {
+        set(x, y, z);
+    }
+
+    /**
+     * Constructor copying the coordinates of a point.
+     *
+     * @param p the point.
+     */
+    public Vec3d(Point3D p) {
+        set(p);
+    }
+
+    /**
+     * Constructor copying the head of a vector.
+     *
+     * @param v the vector.
+     */
+    public Vec3d(Vector v) {
+        set(v);
+    }
+
+    /**
+     * Sets the values along each axis.
+     *
+     * @param x value along the x axis.
+     * @param y value along the y axis.
+     * @param z value along the z axis.
+     * @return this object.
+     */
+    public Vec3d set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Copies the values of another triple.
+     *
+     * @param v the other triple.
+     * @return this object.
+     */
+    public Vec3d set(Vec3d v) {
+        return set(v.x, v.y, v.z);
+    }
+
+    /**
+     * Copies the coordinates of a point.
+     *
+     * @param p the point.
+     * @return this object.
+     */
+    public Vec3d set(Point3D p) {
+        return set(p.x.coord, p.y.coord, p.z.coord);
+    }
+
+    /**
+     * Copies the head of a vector.
+     *
+     * @param v the vector.
+     * @return this object.
+     */
+    public Vec3d set(Vector v) {
+        return set(v.head);
+    }
+
+    /**
+     * Adds another triple to this one.
+     *
+     * @param v the other triple.
+     * @return this object.
+     */
+    public Vec3d add(Vec3d v) {
+        return set(x + v.x, y + v.y, z + v.z);
+    }
+
+    /**
+     * Adds the coordinates of a point to this triple.
+     *
+     * @param p the point.
+     * @return this object.
+     */
+    public Vec3d add(Point3D p) {
+        return set(x + p.x.coord, y + p.y.coord, z + p.z.coord);
+    }
+
+    /**
+     * Adds a vector to this triple.
+     *
+     * @param v the vector.
+     * @return this object.
+     */
+    public Vec3d add(Vector v) {
+        return add(v.head);
+    }
+
+    /**
+     * Adds another triple scaled by a constant to this one.
+     *
+     * @param v the other triple.
+     * @param c the scaling constant.
+     * @return this object.
+     */
+    public Vec3d addScaled(Vec3d v, double c) {
+        return set(x + v.x * c, y + v.y * c, z + v.z * c);
+    }
+
+    /**
+     * Adds a vector scaled by a constant to this triple.
+     *
+     * @param v the vector.
+     * @param c the scaling constant.
+     * @return this object.
+     */
+    public Vec3d addScaled(Vector v, double c) {
+        Point3D h = v.head;
+        return set(x + h.x.coord * c, y + h.y.coord * c, z + h.z.coord * c);
+    }
+
+    /**
+     * Subtracts another triple from this one.
+     *
+     * @param v the other triple.
+     * @return this object.
+     */
+    public Vec3d subtract(Vec3d v) {
+        return set(x - v.x, y - v.y, z - v.z);
+    }
+
+    /**
+     * Subtracts the coordinates of a point from this triple.
+     *
+     * @param p the point.
+     * @return this object.
+     */
+    public Vec3d subtract(Point3D p) {
+        return set(x - p.x.coord, y - p.y.coord, z - p.z.coord);
+    }
+
+    /**
+     * Scales this triple by a constant.
+     *
+     * @param c the scaling constant.
+     * @return this object.
+     */
+    public Vec3d scale(double c) {
+        return set(x * c, y * c, z * c);
+    }
+
+    /**
+     * Sets this triple to the cross product of two triples (either may be this object).
+     *
+     * @param a the left operand.
+     * @param b the right operand.
+     * @return this object.
+     */
+    public Vec3d cross(Vec3d a, Vec3d b) {
+        return set(a.y * b.z - a.z * b.y,
+                a.z * b.x - a.x * b.z,
+                a.x * b.y - a.y * b.x);
+    }
+
+    /**
+     * Calculates the dot product with another triple.
+     *
+     * @param v the other triple.
+     * @return resulting value.
+     */
+    public double dot(Vec3d v) {
+        return x * v.x + y * v.y + z * v.z;
+    }
+
+    /**
+     * Calculates the dot product with a vector.
+     *
+     * @param v the vector.
+     * @return resulting value.
+     */
+    public double dot(Vector v) {
+        Point3D h = v.head;
+        return x * h.x.coord + y * h.y.coord + z * h.z.coord;
+    }
+
+    /**
+     * Calculates the length of the triple squared.
+     *
+     * @return the length squared.
+     */
+    public double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Calculates the length of the triple.
+     *
+     * @return the length.
+     */
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    /**
+     * Normalizes this triple, IE setting its magnitude to be 1 whilst keeping its direction the same.
+     *
+     * @return this object.
+     */
+    public Vec3d normalize() {
+        return scale(1 / length());
+    }
+
+    /**
+     * Creates an immutable point with the values of this triple.
+     *
+     * @return the resulting point.
+     */
+    public Point3D toPoint3D() {
+        return new Point3D(x, y, z);
+    }
+
+    /**
+     * Creates a vector with the values of this triple as its head.
+     *
+     * @return the resulting vector.
+     * @throws IllegalArgumentException if this triple is the zero vector.
+     */
+    public Vector toVector() {
+        return new Vector(x, y, z);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + z + ")";
+    }
+}
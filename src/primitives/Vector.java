@@ -67,7 +67,9 @@ public class Vector {
      * @return the difference between this vector and the given vector.
      */
     public Vector subtract(Vector v) {
-        return this.add(v.scale(-1));
+        return new Vector(head.x.coord - v.head.x.coord,
+                head.y.coord - v.head.y.coord,
+                head.z.coord - v.head.z.coord);
     }
 
     /**
@@ -139,7 +141,9 @@ public class Vector {
      * @return the resulting vector.
      */
     public Vector normalize() {
-        head = scale(1 / length()).head;
+        //scaling the head directly saves creating (and checking) an intermediate vector.
+        double c = 1 / length();
+        head = new Point3D(head.x.coord * c, head.y.coord * c, head.z.coord * c);
         return this;
     }
 
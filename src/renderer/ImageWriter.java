@@ -2,6 +2,7 @@ package renderer;
 
 import primitives.Color;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 import java.util.logging.Level;
@@ -23,7 +24,8 @@ public class ImageWriter {
 
     private static final String FOLDER_PATH = System.getProperty("user.dir") + "/images";
 
-    private BufferedImage image;
+    //Pixel color matrix - the packed RGB of every pixel, row by row.
+    private final int[] pixels;
     private String imageName;
 
     private Logger logger = Logger.getLogger("ImageWriter");
@@ -40,7 +42,7 @@ public class ImageWriter {
         this.nX = nX;
         this.nY = nY;
 
-        image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        pixels = new int[nX * nY];
     }
 
     // ***************** Getters/Setters ********************** //
@@ -69,6 +71,9 @@ public class ImageWriter {
      * pixel color matrix in the directory of the project
      */
     public void writeToImage() {
+        BufferedImage image = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        // the image keeps its pixels row by row in the same format, so they are copied in bulk
+        System.arraycopy(pixels, 0, ((DataBufferInt) image.getRaster().getDataBuffer()).getData(), 0, pixels.length);
         try {
             File file = new File(FOLDER_PATH + '/' + imageName + ".png");
             ImageIO.write(image, "png", file);
@@ -79,14 +84,14 @@ public class ImageWriter {
 
     /**
      * The function writePixel writes a color of a specific pixel into pixel color
-     * matrix
+     * matrix. Different pixels may be written from different threads at the same time
      *
      * @param xIndex X axis index of the pixel
      * @param yIndex Y axis index of the pixel
      * @param color  final color of the pixel
      */
     public void writePixel(int xIndex, int yIndex, Color color) {
-        image.setRGB(xIndex, yIndex, color.getColor().getRGB());
+        pixels[yIndex * nX + xIndex] = color.getRGB();
     }
 
 }
\ No newline at end of file
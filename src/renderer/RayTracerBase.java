@@ -1,5 +1,6 @@
 package renderer;
 
+import geometries.RayPacket;
 import primitives.Color;
 import primitives.Ray;
 import scene.Scene;
@@ -27,4 +28,14 @@ abstract class RayTracerBase {
      * @return the color of closest ray intersection or background color if there are no intersections
      */
     public abstract Color traceRay(Ray ray);
+
+    /**
+     * gets the colors of pixels for a packet of rays - the default traces every ray on its own
+     * @param packet the rays to trace
+     * @param colors array to write the colors into, by the rays' lanes
+     */
+    public void traceRays(RayPacket packet, Color[] colors) {
+        for (int i = 0; i < packet.size(); ++i)
+            colors[i] = traceRay(packet.getRay(i));
+    }
 }
@@ -1,16 +1,17 @@
 package renderer;
 
 import elements.LightSource;
-import geometries.Geometries;
+import geometries.FlatBVH;
 import geometries.Intersectable;
+import geometries.RayPacket;
 import primitives.*;
 import scene.Scene;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.HitRecord;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
@@ -25,16 +26,26 @@ public class RayTracerBasic extends RayTracerBase {
      * MAX_CALC_COLOR_LEVEL is the amount of levels we allow the recursive calculation of light to run for.
      * MIN_CALC_COLOR_K the k below which we consider a coefficient insignificant and consider it as zero.
      * INITIAL_K is the constant that scales the coefficients in our calculations by zero to one (zero - use none its value, one - use all of its value).
-     * numGlossyDiffuseRays - number of gloss and diffuse rays to be cast
+     * numGlossyDiffuseRays - number of gloss and diffuse rays to be cast (at most) for a fully reflective/transparent first bounce.
+     * glossyDiffuseThreshold - the color difference between the pilot samples of a gloss or diffuse effect below which no more rays are cast.
      * glossyEnabled - boolean value indicating if gloss is enabled.
      * diffuseEnabled - boolean value indicating if diffuse is enabled.
+     * russianRouletteK - the k below which reflected and refracted rays are continued only at random (zero - never).
      */
-    private static final int MAX_CALC_COLOR_LEVEL = 10;
+    static final int MAX_CALC_COLOR_LEVEL = 10;
     private static final double MIN_CALC_COLOR_K = 0.001;
     private static final double INITIAL_K = 1.0;
     public int numGlossyDiffuseRays = 10;
+    public double glossyDiffuseThreshold = 1.0;
     public boolean glossyEnabled = true;
     public boolean diffuseEnabled = true;
+    public double russianRouletteK = 0;
+
+    //The scene's geometries, compiled into the scene's acceleration structure.
+    private final Intersectable geometries;
+
+    //Hit record of each rendering thread, reused by all of the thread's closest intersection queries.
+    private final ThreadLocal<HitRecord> hitRecord = ThreadLocal.withInitial(HitRecord::new);
 
     /**
      * constructor that gets a scene
@@ -43,7 +54,16 @@ public class RayTracerBasic extends RayTracerBase {
      */
     public RayTracerBasic(Scene scene) {
         super(scene);
-        transformToTree(scene.geometries);
+        switch (scene.acceleration) {
+            case BVH:
+                geometries = scene.geometries.buildBVH();
+                break;
+            case FLAT_BVH:
+                geometries = new FlatBVH(scene.geometries);
+                break;
+            default:
+                geometries = scene.geometries;
+        }
     }
 
     /**
@@ -60,6 +80,21 @@ public class RayTracerBasic extends RayTracerBase {
         return this;
     }
 
+    /**
+     * setter for the color difference threshold of the adaptive gloss and diffuse sampling.
+     * Only where the pilot samples differ by more than the threshold (in the scale of the final pixel's color)
+     * are the rest of the rays cast.
+     *
+     * @param threshold the desired threshold - zero always casts all the rays.
+     * @return this instance of rayTracerBasic.
+     */
+    public RayTracerBasic setGlossyDiffuseThreshold(double threshold) {
+        if (threshold < 0)
+            throw new IllegalArgumentException("threshold must be zero or larger");
+        glossyDiffuseThreshold = threshold;
+        return this;
+    }
+
     /**
      * setter for glossyEnabled value.
      *
@@ -82,6 +117,22 @@ public class RayTracerBasic extends RayTracerBase {
         return this;
     }
 
+    /**
+     * setter for the k of Russian roulette termination of reflected and refracted rays.
+     * A ray whose accumulated coefficient is below it is cast only at the chance of the coefficient to it,
+     * and if cast its color is scaled up by that chance - so the expected color stays the same while most of the
+     * rays which add almost nothing are not cast (at the price of some noise in the image).
+     *
+     * @param k the desired k, between zero and one - zero turns Russian roulette off.
+     * @return this instance of rayTracerBasic.
+     */
+    public RayTracerBasic setRussianRouletteK(double k) {
+        if (k < 0 || k > 1)
+            throw new IllegalArgumentException("Russian roulette k must be between zero and one");
+        russianRouletteK = k;
+        return this;
+    }
+
     /**
      * Finds the color of the ray traveling through this scene.
      *
@@ -90,12 +141,39 @@ public class RayTracerBasic extends RayTracerBase {
      */
     @Override
     public Color traceRay(Ray ray) {
+        if (RenderStats.ENABLED)
+            RenderStats.PRIMARY_RAYS.increment();
         GeoPoint closest = findClosestIntersection(ray);
         if (closest == null)
             return scene.background;
         return calcColor(closest, ray);
     }
 
+    /**
+     * Finds the colors of a packet of rays traveling through this scene.
+     * The closest intersections of all the rays are found together (see {@link Intersectable#findClosestHits(RayPacket)}),
+     * and the colors at them - with the reflected, refracted and shadow rays they cast - are calculated ray by ray.
+     *
+     * @param packet the rays to trace
+     * @param colors array to write the resulting colours into, by the rays' lanes
+     */
+    @Override
+    public void traceRays(RayPacket packet, Color[] colors) {
+        if (RenderStats.ENABLED)
+            RenderStats.PRIMARY_RAYS.add(packet.size());
+        geometries.findClosestHits(packet);
+        for (int i = 0; i < packet.size(); ++i) {
+            HitRecord hit = packet.getHit(i);
+            if (hit.geometry == null) {
+                //the ray is not needed for the background, so it's not created if it wasn't yet.
+                colors[i] = scene.background;
+                continue;
+            }
+            Ray ray = packet.getRay(i);
+            colors[i] = calcColor(hit.toGeoPoint(ray), ray);
+        }
+    }
+
     /**
      * calculates the color at a given point given the ray that intersects the point.
      *
@@ -118,6 +196,8 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the color of the intersection
      */
     private Color calcColor(GeoPoint intersection, Ray ray, int level, double k) {
+        if (RenderStats.ENABLED)
+            RenderStats.DEPTH[MAX_CALC_COLOR_LEVEL - level].increment();
         Color color = intersection.geometry.getEmission();
         color = color.add(calcLocalEffects(intersection, ray, k));
         return 1 == level ? color : color.add(calcGlobalEffects(intersection, ray.get_dir(), level, k));
@@ -134,30 +214,56 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private Color calcGlobalEffects(GeoPoint gp, Vector v, int level, double k) {
         Color color = Color.BLACK;
-        Vector n = gp.geometry.getNormal(gp.point);
+        Vector n = gp.getNormal();
         Material material = gp.geometry.getMaterial();
 
         //Reflective / glossy reflection.
         double kkr = k * material.kR;
-        if (kkr > MIN_CALC_COLOR_K) {
+        double survival = kkr > MIN_CALC_COLOR_K ? survival(kkr) : 0;
+        if (survival > 0) {
+            if (RenderStats.ENABLED)
+                RenderStats.REFLECTION_RAYS.increment();
+            //a ray that survived the roulette stands for the ones that didn't - so it's scaled up by its chance.
+            double kr = material.kR / survival;
+            kkr /= survival;
             if (!glossyEnabled || isZero(material.glossyRadius))//No glossy affect.
-                color = calcGlobalEffect(constructReflectedRay(gp.point, v, n), level, material.kR, kkr);
+                color = calcGlobalEffect(constructReflectedRay(gp.point, v, n), level, kr, kkr);
             else {
-                color = calcGlossyDiffuse(constructReflectedRay(gp.point, v, n), material.glossyRadius, level, material.kR, kkr);
+                color = calcGlossyDiffuse(constructReflectedRay(gp.point, v, n), material.glossyRadius, level, kr, kkr);
             }
         }
 
         //Refraction \\ transparency light.
         double kkt = k * material.kT;
-        if (kkt > MIN_CALC_COLOR_K)
+        survival = kkt > MIN_CALC_COLOR_K ? survival(kkt) : 0;
+        if (survival > 0) {
+            if (RenderStats.ENABLED)
+                RenderStats.REFRACTION_RAYS.increment();
+            double kt = material.kT / survival;
+            kkt /= survival;
             if (!diffuseEnabled || isZero(material.diffuseRadius))//No diffuse affect.
-                color = color.add(calcGlobalEffect(constructRefractedRay(gp.point, v, n), level, material.kT, kkt));
+                color = color.add(calcGlobalEffect(constructRefractedRay(gp.point, v, n), level, kt, kkt));
             else {
-                color = color.add(calcGlossyDiffuse(constructRefractedRay(gp.point, v, n), material.diffuseRadius, level, material.kT, kkt));
+                color = color.add(calcGlossyDiffuse(constructRefractedRay(gp.point, v, n), material.diffuseRadius, level, kt, kkt));
             }
+        }
         return color;
     }
 
+    /**
+     * plays the Russian roulette for a reflected or refracted ray - a ray whose coefficient is below russianRouletteK
+     * survives at the chance of its coefficient to russianRouletteK, and others always survive.
+     *
+     * @param kk the accumulated coefficient of the ray.
+     * @return the chance the ray had to survive, or zero if it didn't.
+     */
+    private double survival(double kk) {
+        if (kk >= russianRouletteK)
+            return 1;
+        double chance = kk / russianRouletteK;
+        return ThreadLocalRandom.current().nextDouble() < chance ? chance : 0;
+    }
+
     /**
      * gets a reflected or refracted ray, and calculates color added from that ray.
      *
@@ -183,7 +289,7 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private Color calcLocalEffects(GeoPoint intersection, Ray ray, double k) {
         Vector v = ray.get_dir();
-        Vector n = intersection.geometry.getNormal(intersection.point);
+        Vector n = intersection.getNormal();
         double nv = alignZero(n.dotProduct(v));
         if (nv == 0)
             return Color.BLACK;
@@ -234,8 +340,8 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the specular light color at the point
      */
     private Color calcSpecular(double ks, Vector l, Vector n, Vector v, int nShininess, Color lightIntensity) {
-        Vector reflectance = l.subtract(n.scale(l.dotProduct(n)).scale(2)).normalize();//according to the presentation: r = l - 2 * (l * n) * n
-        return lightIntensity.scale(ks * Math.pow(Math.max(0, v.scale(-1).dotProduct(reflectance)), nShininess));
+        Vec3d reflectance = new Vec3d(l).addScaled(n, -2 * l.dotProduct(n)).normalize();//according to the presentation: r = l - 2 * (l * n) * n
+        return lightIntensity.scale(ks * Math.pow(Math.max(0, -reflectance.dot(v)), nShininess));
     }
 
     /**
@@ -251,29 +357,12 @@ public class RayTracerBasic extends RayTracerBase {
         //cast ray from a little bit point + DELTA over the surface
         Vector lightDirection = l.scale(-1); // from point to light source
         Ray lightRay = new Ray(gp.point, lightDirection, n);
+        if (RenderStats.ENABLED)
+            RenderStats.SHADOW_RAYS.increment();
 
-        //get intersections between the point and the light source
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay);
-
-        //if there are no intersections between the object and the light return true
-        if (intersections == null) {
-            return true;
-        }
-
-        /*
-          check if intersection is actually between the light and the point
-          or if it's behind the light source and therefore not shading the object from the light
-         */
-        double lightDistance = light.getDistance(gp.point);
-        for (GeoPoint shadeIntersection : intersections) {
-            //if intersection is between point and light - return false
-            if (alignZero(shadeIntersection.point.distance(gp.point) - lightDistance) <= 0 && shadeIntersection.geometry.getMaterial().kT == 0) {
-                return false;
-            }
-        }
-
-        //the intersection is behind the light source - so return true
-        return true;
+        //only an opaque object between the point and the light source shades it - so any transmittance that is
+        //not zero (however small) means the point is unshaded.
+        return geometries.transmittance(lightRay, light.getDistance(gp.point), Double.MIN_VALUE) > 0;
     }
 
     /**
@@ -290,29 +379,12 @@ public class RayTracerBasic extends RayTracerBase {
         //cast shadow ray from a bit over the surface to the light source
         Vector lightDirection = l.scale(-1); // from point to light source
         Ray lightRay = new Ray(geoPoint.point, lightDirection, n);
+        if (RenderStats.ENABLED)
+            RenderStats.SHADOW_RAYS.increment();
 
-        //get distance from the point to the light and find intersections between them
-        double lightDistance = ls.getDistance(geoPoint.point);
-        var intersections = scene.geometries.findGeoIntersections(lightRay);
-
-        //if no intersections found - so light is unobstructed and return 1.0
-        if (intersections == null) {
-            return 1.0;
-        }
-
-        double ktr = 1.0;
-        for (GeoPoint gp : intersections) {
-            //check that the intersection is actually between the light and the point and not behind the light
-            if (alignZero(gp.point.distance(geoPoint.point) - lightDistance) <= 0) {
-                ktr *= gp.geometry.getMaterial().kT;
-
-                //if the ktr is becoming insignificant - so there is a shadow return 0.0
-                if (ktr < MIN_CALC_COLOR_K) {
-                    return 0.0;
-                }
-            }
-        }
-        return ktr;
+        //only the objects between the point and the light are of interest, and the query stops
+        //as soon as the light is blocked.
+        return geometries.transmittance(lightRay, ls.getDistance(geoPoint.point), MIN_CALC_COLOR_K);
     }
 
     /**
@@ -324,7 +396,7 @@ public class RayTracerBasic extends RayTracerBase {
      * @return a ray that is the original ray reflected off of the reflection point and elevated by a small delta.
      */
     private Ray constructReflectedRay(Point3D point, Vector v, Vector n) {
-        Vector direction = v.subtract(n.scale(v.dotProduct(n)).scale(2)).normalize();
+        Vector direction = new Vec3d(v).addScaled(n, -2 * v.dotProduct(n)).normalize().toVector();
         return new Ray(point, direction, n);
     }
 
@@ -381,6 +453,9 @@ public class RayTracerBasic extends RayTracerBase {
 
     /**
      * calculates the average color around a given ray's intersection - for the glossy or defuse effect of the material.
+     * The sampling is adaptive - the amount of rays shrinks with the coefficient accumulated so far and with the depth
+     * of the recursion, and a pilot set of rays on two orthogonal axes of the ring is cast first. Only if the pilot colors
+     * differ (from each other or from the original color) by more than the threshold are the rest of the ring's rays cast.
      *
      * @param ray the ray to calculate average color around its intersection.
      * @param radius the radius the cone of rays around the original ray
@@ -390,29 +465,80 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the average color around the given ray's intersection.
      */
     private Color calcGlossyDiffuse(Ray ray, double radius, int level, double k, double kk) {
-        //calculate the original color coming from the original ray.
-        Color color = calcGlobalEffect(ray, level, k, kk);
-
         //find the closest intersection of the original ray with another object in the scene
         GeoPoint intersection = findClosestIntersection(ray);
 
-        //if the ray has no intersections with other objects in the scene, return the color from the original ray.
+        //if the ray has no intersections with other objects in the scene, there is nothing to blur.
         if (intersection == null)
-            return color;
+            return scene.background.scale(k);
 
-        //number of rays to cast - if it is an uneven number correct to an even number
-        int numVerticesInPolygon = numGlossyDiffuseRays % 2 == 0? numGlossyDiffuseRays / 2 : (numGlossyDiffuseRays + 1) / 2;
+        //calculate the original color coming from the original ray.
+        Color color = calcColor(intersection, ray, level - 1, kk).scale(k);
+
+        //number of rays to cast - halved at every level of the recursion and scaled by the accumulated coefficient,
+        //and if it is an uneven number correct to an even number
+        int depth = MAX_CALC_COLOR_LEVEL - level;
+        int numRays = (int) Math.ceil(numGlossyDiffuseRays * kk / (1 << depth));
+        int numVerticesInPolygon = (numRays + 1) / 2;
+        if (numVerticesInPolygon < 2)
+            return color;
 
-        //the points through which the additional rays should pass through
+        //the points through which the additional rays should pass through - in pairs, outer and inner vertex at each angle.
         ArrayList<Point3D> vertexPoints = getRingRegularPolygonVertices(intersection.point, radius, numVerticesInPolygon, ray.get_dir().normalized());
 
-        //add supplemental rays color to the final color
-        for (Point3D vertexPoint:vertexPoints) {
-            color = color.add(calcGlobalEffect(new Ray(ray.get_p0(), vertexPoint.subtract(ray.get_p0())), level, k, kk));
+        //pilot rays - on two orthogonal axes of the ring, alternating between the outer and the inner vertex,
+        //so that an edge crossing the cone in any direction separates some of them (a ring too small for four
+        //distinct angles is cast whole).
+        boolean[] cast = new boolean[vertexPoints.size()];
+        int numPilots = 0;
+        if (numVerticesInPolygon >= 4 && glossyDiffuseThreshold > 0) {
+            Color[] pilot = new Color[4];
+            for (int i = 0; i < pilot.length; ++i) {
+                int vertex = 2 * ((i * numVerticesInPolygon + 2) / 4) + i % 2;
+                pilot[i] = calcGlossyDiffuseSample(ray, vertexPoints.get(vertex), level, k, kk);
+                cast[vertex] = true;
+            }
+            numPilots = pilot.length;
+            if (RenderStats.ENABLED)
+                RenderStats.GLOSSY_RAYS.add(numPilots);
+
+            //the largest difference between any two of the pilots and the original color.
+            double difference = 0;
+            for (int i = 0; i < pilot.length; ++i) {
+                difference = Math.max(difference, pilot[i].difference(color));
+                for (int j = i + 1; j < pilot.length; ++j)
+                    difference = Math.max(difference, pilot[i].difference(pilot[j]));
+            }
+            color = color.add(pilot);
+
+            //the samples are scaled by k, and the pixel sees them scaled by kk - so that's the scale of the threshold.
+            if (difference * kk / k <= glossyDiffuseThreshold)
+                return color.reduce(numPilots + 1);
         }
 
+        //add the rest of the supplemental rays color to the final color
+        for (int i = 0; i < vertexPoints.size(); ++i)
+            if (!cast[i])
+                color = color.add(calcGlossyDiffuseSample(ray, vertexPoints.get(i), level, k, kk));
+        if (RenderStats.ENABLED)
+            RenderStats.GLOSSY_RAYS.add(vertexPoints.size() - numPilots);
+
         //return the average of all the rays colors
-        return color.reduce(numGlossyDiffuseRays + 1);
+        return color.reduce(vertexPoints.size() + 1);
+    }
+
+    /**
+     * calculates the color of a single supplemental ray of the glossy or defuse effect.
+     *
+     * @param ray the original ray.
+     * @param vertexPoint the point on the ring through which the supplemental ray passes.
+     * @param level level parameter to send to calcGlobalEffect
+     * @param k k parameter to send to calcGlobalEffect
+     * @param kk kk parameter to send to calcGlobalEffect
+     * @return the color added by the supplemental ray.
+     */
+    private Color calcGlossyDiffuseSample(Ray ray, Point3D vertexPoint, int level, double k, double kk) {
+        return calcGlobalEffect(new Ray(ray.get_p0(), vertexPoint.subtract(ray.get_p0())), level, k, kk);
     }
 
     /**
@@ -427,13 +553,13 @@ public class RayTracerBasic extends RayTracerBase {
      */
     private ArrayList<Point3D> getRingRegularPolygonVertices(Point3D center, double radius, int numVertices, Vector axis) {
         //find the perpendicular vector to the axis
-        Vector toRotate = findPerpendicular(axis).normalize();
+        Vec3d toRotate = new Vec3d(findPerpendicular(axis)).normalize();
 
         //Cross product vector used each time to find next vertex in outer and inner polygons.
-        Vector crossProduct = axis.crossProduct(toRotate);
+        Vec3d crossProduct = new Vec3d().cross(new Vec3d(axis), toRotate);
 
-        Vector vertexVector;
-        ArrayList<Point3D> vertexPoints = new ArrayList<Point3D>();
+        Vec3d vertexVector = new Vec3d(), vertex = new Vec3d();
+        ArrayList<Point3D> vertexPoints = new ArrayList<Point3D>(2 * numVertices);
         double angle = 2 * Math.PI / numVertices;//calculate the angle between each new vertex.
         double cos, sin;
 
@@ -441,19 +567,13 @@ public class RayTracerBasic extends RayTracerBase {
             //spin the vector along the given axis
             cos = alignZero(Math.cos(angle * i));
             sin = alignZero(Math.sin(angle * i));
-
-            if (cos == 0)
-                vertexVector = crossProduct.scale(sin);
-            else if (sin == 0)
-                vertexVector = toRotate.scale(cos);
-            else
-                vertexVector = toRotate.scale(cos).add(crossProduct.scale(sin));
+            vertexVector.set(toRotate).scale(cos).addScaled(crossProduct, sin);
 
             //find outer polygon's vertex that is on the rotated vector
-            vertexPoints.add(center.add(vertexVector.scale(radius)));
+            vertexPoints.add(vertex.set(center).addScaled(vertexVector, radius).toPoint3D());
 
             //find inner polygon's vertex that is on the rotated vector
-            vertexPoints.add(center.add(vertexVector.scale(radius / 2.0)));
+            vertexPoints.add(vertex.set(center).addScaled(vertexVector, radius / 2.0).toPoint3D());
         }
         return vertexPoints;
     }
@@ -465,36 +585,8 @@ public class RayTracerBasic extends RayTracerBase {
      * @return the closest intersection to base of the given ray
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        return ray.findClosestGeoPoint(scene.geometries.findGeoIntersections(ray));
-    }
-
-    /**
-     * Given a geometry functioning as a plane list of intersectables, transforms said list into
-     *  the form of a binary tree.
-     *
-     * @param g said geometry
-     */
-    private void transformToTree(Geometries g){
-        if(g.getIntersections().size()<=2)
-            return;
-        Geometries left = new Geometries();
-        Geometries right = new Geometries();
-        g.sortGeometries(g.getAABB().getLongestAxis());
-        List<Intersectable> geos = g.getIntersections();
-
-        int mid = geos.size()/2;
-
-        for(int i=0;i<geos.size();++i){
-            if(i<mid)
-                left.add(geos.get(i));
-            else
-                right.add(geos.get(i));
-        }
-        transformToTree(left);
-        transformToTree(right);
-        g = new Geometries();
-        g.add(left);
-        g.add(right);
+        HitRecord hit = hitRecord.get().reset(Double.POSITIVE_INFINITY);
+        return geometries.findClosestHit(ray, hit) ? hit.toGeoPoint(ray) : null;
     }
 
 }
@@ -2,8 +2,11 @@ package renderer;
 
 import primitives.*;
 import elements.*;
+import geometries.RayPacket;
 
+import java.util.Arrays;
 import java.util.MissingResourceException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Renderer class is responsible for generating pixel color map from a graphic
@@ -24,7 +27,19 @@ public class Render {
 
     private int threadsCount = 0;
     private static final int SPARE_THREADS = 2; // Spare threads if trying to use all the cores
+    private static final int MAX_TILE_SAMPLES = 1 << 15; // the most anti-aliasing samples along a tile's side
     private boolean print = false; // printing progress percentage
+    private int tileSize = 16; // the size of the square tiles the image is rendered in
+    private int packetSize = 0; // the size of the square packets of primary rays traced together, 0 for single rays
+    private RenderStats stats = null; // statistics of the last rendered image
+    private RayGenerator rays = null; // generator of the primary rays of the image being rendered
+    private int antiAliasingDepth = 0; // how many times a pixel may be subdivided by the adaptive anti-aliasing
+    private double antiAliasingThreshold = 0; // the color difference between neighbouring samples that subdivides them
+    private int passes = 1; // amount of progressive passes, each at twice the resolution of the previous one
+    private long timeBudget = 0; // the wall-clock time (in milliseconds) a rendering may take, 0 for no limit
+    private long deadline; // the time (System.nanoTime) the current rendering must stop at
+    private volatile boolean cancelled = false; // the current rendering was cancelled
+    private boolean finished = false; // the last rendering went through all the passes
 
     /**
      * Set multi-threading <br>
@@ -45,6 +60,139 @@ public class Render {
         return this;
     }
 
+    /**
+     * Set the size of the square tiles the image is split into for rendering <br>
+     * - tiles at the right and bottom edges of the image may be smaller <br>
+     * - with anti-aliasing, a tile's side in samples (tile size * 2^depth) is limited to 32768
+     *
+     * @param tileSize size of the tiles' sides in pixels
+     * @return the Render object itself
+     */
+    public Render setTileSize(int tileSize) {
+        if (tileSize <= 0)
+            throw new IllegalArgumentException("Tile size must be positive");
+        checkTileSamples(tileSize, antiAliasingDepth);
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * Checks that the samples of a tile can be numbered by an int - the side of a tile in samples is limited
+     *
+     * @param tileSize size of the tiles' sides in pixels
+     * @param depth    the anti-aliasing depth
+     */
+    private static void checkTileSamples(int tileSize, int depth) {
+        if ((long) tileSize << depth > MAX_TILE_SAMPLES)
+            throw new IllegalArgumentException("Tile size * 2^(anti-aliasing depth) must be at most " + MAX_TILE_SAMPLES);
+    }
+
+    /**
+     * Set packet tracing of the primary rays <br>
+     * - the tiles are split into square packets (such as 4x4 or 8x8 pixels) whose primary rays are traced through
+     * the scene's acceleration structure together, so a box that none of them hits is tested once for the whole
+     * packet. The reflected, refracted and shadow rays are still traced one by one <br>
+     * - packets are used when every pixel is traced by a single ray - not with anti-aliasing, and not in the passes
+     * of progressive rendering which trace part of the pixels <br>
+     * - size 0 turns packet tracing off
+     *
+     * @param size size of the packets' sides in pixels, up to 16
+     * @return the Render object itself
+     */
+    public Render setPacketTracing(int size) {
+        if (size < 0 || size > 16)
+            throw new IllegalArgumentException("Packet size must be between 0 and 16");
+        this.packetSize = size;
+        return this;
+    }
+
+    /**
+     * Set adaptive anti-aliasing <br>
+     * - the corners of every pixel are traced, and the pixel is split into four quarters (recursively, up to
+     * the given depth) only where neighbouring corners differ by more than the threshold. The color of a square
+     * is the average of its corners, or of its quarters if it was split. Corners are shared by adjacent pixels
+     * of the same tile, so flat regions cost about one ray per pixel <br>
+     * - depth 0 turns anti-aliasing off - a single ray through the centre of every pixel <br>
+     * - only the samples which were traced are kept, so the memory and the work per tile grow with the samples
+     * rather than with the depth. The depth is limited to 8, and a tile's side in samples (tile size * 2^depth)
+     * to 32768
+     *
+     * @param maxDepth  the maximal amount of times a pixel is split, up to 8
+     * @param threshold the maximal difference (of a color component, 0 to 255) between neighbouring corners
+     *                  which are not split
+     * @return the Render object itself
+     */
+    public Render setAntiAliasing(int maxDepth, double threshold) {
+        if (maxDepth < 0 || maxDepth > 8)
+            throw new IllegalArgumentException("Anti-aliasing depth must be between 0 and 8");
+        if (threshold < 0)
+            throw new IllegalArgumentException("Anti-aliasing threshold must be 0 or higher");
+        checkTileSamples(tileSize, maxDepth);
+        this.antiAliasingDepth = maxDepth;
+        this.antiAliasingThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Set progressive rendering <br>
+     * - the first pass traces one pixel out of every square of 2^(passes-1) pixels on each side and fills the
+     * square with its color, and every following pass halves the squares and traces only the pixels not traced
+     * yet. The last pass is at full resolution (with anti-aliasing, if set) <br>
+     * - the image is written after every pass but the last, so it can be previewed while rendering
+     *
+     * @param passes the amount of passes - 1 renders the image in a single pass
+     * @return the Render object itself
+     */
+    public Render setProgressive(int passes) {
+        if (passes < 1 || passes > 16)
+            throw new IllegalArgumentException("Amount of passes must be between 1 and 16");
+        this.passes = passes;
+        return this;
+    }
+
+    /**
+     * Set a wall-clock time budget for rendering <br>
+     * - once the time is over, the rendering threads stop after the tile they're rendering and the image holds
+     * the best rendering so far (with progressive rendering - at least the passes that were done)
+     *
+     * @param millis the time budget in milliseconds - 0 for no limit
+     * @return the Render object itself
+     */
+    public Render setTimeBudget(long millis) {
+        if (millis < 0)
+            throw new IllegalArgumentException("Time budget must be 0 or higher");
+        this.timeBudget = millis;
+        return this;
+    }
+
+    /**
+     * Cancel the rendering in progress - may be called from any thread <br>
+     * - the rendering threads stop after the tile they're rendering, and the image holds the best rendering so far <br>
+     * - a cancellation before the rendering starts stops it at once, and is cleared once the rendering is over
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Whether the last rendering went through all the pixels of all the passes, or it was stopped
+     * by cancellation or by the time budget
+     *
+     * @return true if the last rendering is complete
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Whether the current rendering has to stop - it was cancelled or its time is over
+     *
+     * @return true if the rendering has to stop
+     */
+    private boolean stopped() {
+        return cancelled || (timeBudget > 0 && System.nanoTime() - deadline > 0);
+    }
+
     /**
      * Set debug printing on
      *
@@ -56,107 +204,242 @@ public class Render {
     }
 
     /**
-     * Pixel is an internal helper class whose objects are associated with a Render
-     * object that they are generated in scope of. It is used for multithreading in
-     * the Renderer and for follow up its progress.<br/>
-     * There is a main follow up object and several secondary objects - one in each
-     * thread.
+     * Tiles is an internal helper class whose object is associated with a Render
+     * object that it is generated in scope of. It splits the image into square tiles
+     * and hands them out to the rendering threads, and follows up the progress.<br/>
+     * Tiles are handed out through an atomic counter, so the threads don't contend on
+     * a lock, and every thread traces the pixels of a tile together - which are close
+     * to each other in the scene.<br/>
+     * A pass of progressive rendering traces only the pixels at multiples of its step (which
+     * were not traced by the previous pass), and fills the square of the step's size with
+     * the pixel's color.
      *
-     * @author Dan
+     * @author Yosi and Eli
      *
      */
-    private class Pixel {
-        private long maxRows = 0;
-        private long maxCols = 0;
-        private long pixels = 0;
-        public volatile int row = 0;
-        public volatile int col = -1;
-        private long counter = 0;
+    private class Tiles {
+        private final int nX;
+        private final int nY;
+        private final int step;
+        private final int skipStep;
+        private final int tilesInRow;
+        private final int tilesCount;
+        private final AtomicInteger nextTile = new AtomicInteger(0);
+        private final AtomicInteger doneTiles = new AtomicInteger(0);
         private int percents = 0;
-        private long nextCounter = 0;
+        private boolean halted = false;
 
         /**
-         * The constructor for initializing the main follow up Pixel object
+         * The constructor for splitting the image into tiles
          *
-         * @param maxRows the amount of pixel rows
-         * @param maxCols the amount of pixel columns
+         * @param nX       the amount of pixel columns
+         * @param nY       the amount of pixel rows
+         * @param step     the distance between the traced pixels - 1 traces every pixel
+         * @param skipStep pixels at multiples of this step were traced already and are skipped - 0 skips none
          */
-        public Pixel(int maxRows, int maxCols) {
-            this.maxRows = maxRows;
-            this.maxCols = maxCols;
-            this.pixels = (long) maxRows * maxCols;
-            this.nextCounter = this.pixels / 100;
-            if (Render.this.print)
-                System.out.printf("\r %02d%%", this.percents);
+        public Tiles(int nX, int nY, int step, int skipStep) {
+            this.nX = nX;
+            this.nY = nY;
+            this.step = step;
+            this.skipStep = skipStep;
+            this.tilesInRow = (nX + tileSize - 1) / tileSize;
+            this.tilesCount = tilesInRow * ((nY + tileSize - 1) / tileSize);
         }
 
         /**
-         * Default constructor for secondary Pixel objects
+         * Renders tiles until there are no more tiles to hand out - run by each thread.
          */
-        public Pixel() {
+        public void render() {
+            // the adaptive anti-aliasing samples of the current tile, on a grid of 2^depth samples per pixel side
+            Corners corners = antiAliasingDepth > 0 && step == 1 ? new Corners() : null;
+            // the packet of the primary rays traced together, and their colors
+            RayPacket packet = packetSize > 0 && corners == null && step == 1 && skipStep == 0
+                    ? new RayPacket(packetSize * packetSize) : null;
+            Color[] colors = packet == null ? null : new Color[packet.capacity()];
+            double[] dirs = packet == null ? null : new double[3 * packetSize];
+            for (int tile = nextTile.getAndIncrement(); tile < tilesCount; tile = nextTile.getAndIncrement()) {
+                if (stopped()) {
+                    halt();
+                    return;
+                }
+                int row0 = tile / tilesInRow * tileSize, col0 = tile % tilesInRow * tileSize;
+                int rowEnd = Math.min(row0 + tileSize, nY), colEnd = Math.min(col0 + tileSize, nX);
+                if (packet != null) {
+                    for (int row = row0; row < rowEnd; row += packetSize)
+                        for (int col = col0; col < colEnd; col += packetSize)
+                            castPacket(packet, colors, dirs, col, row,
+                                    Math.min(col + packetSize, colEnd), Math.min(row + packetSize, rowEnd));
+                } else if (corners == null) {
+                    // the first multiples of the step within the tile
+                    for (int row = (row0 + step - 1) / step * step; row < rowEnd; row += step)
+                        for (int col = (col0 + step - 1) / step * step; col < colEnd; col += step)
+                            if (skipStep == 0 || row % skipStep != 0 || col % skipStep != 0)
+                                castRay(nX, nY, col, row, step);
+                } else {
+                    corners.startTile(col0, row0);
+                    int size = corners.subPixels;
+                    for (int row = row0; row < rowEnd; ++row)
+                        for (int col = col0; col < colEnd; ++col)
+                            imageWriter.writePixel(col, row,
+                                    corners.sample((col - col0) * size, (row - row0) * size, size));
+                }
+                tileDone();
+            }
         }
 
         /**
-         * Internal function for thread-safe manipulating of main follow up Pixel object
-         * - this function is critical section for all the threads, and main Pixel
-         * object data is the shared data of this critical section.<br/>
-         * The function provides next pixel number each call.
-         *
-         * @param target target secondary Pixel object to copy the row/column of the
-         *               next pixel
-         * @return the progress percentage for follow up: if it is 0 - nothing to print,
-         *         if it is -1 - the task is finished, any other value - the progress
-         *         percentage (only when it changes)
+         * The samples of the adaptive anti-aliasing within a tile - traced lazily and kept, so every corner
+         * is traced once even though it is shared by up to four squares. Owned by a single thread.<br/>
+         * The samples are kept in a small open-addressing hash table keyed by their position in the tile's grid,
+         * which grows with the samples actually traced - flat regions cost about one entry per pixel, whatever
+         * the depth. Only the entries in use are cleared between tiles.
          */
-        private synchronized int nextP(Pixel target) {
-            ++col;
-            ++this.counter;
-            if (col < this.maxCols) {
-                target.row = this.row;
-                target.col = this.col;
-                if (Render.this.print && this.counter == this.nextCounter) {
-                    ++this.percents;
-                    this.nextCounter = this.pixels * (this.percents + 1) / 100;
-                    return this.percents;
+        private class Corners {
+            private final int subPixels = 1 << antiAliasingDepth; // samples along a pixel's side
+            private final int stride = tileSize * subPixels + 1; // samples along a tile's side
+            private int[] keys; // the samples' positions in the grid (y * stride + x), -1 for an empty slot
+            private Color[] samples; // the samples' colors, by slot
+            private int[] used; // the slots in use, in the order they were taken
+            private int count = 0; // amount of slots in use
+            private int shift; // the shift taking the hash of a key to a slot - 32 less the bits of the capacity
+            private int col0;
+            private int row0;
+
+            /**
+             * Constructor for the samples, with room for the corners of the tile's pixels (the table grows if
+             * more samples are traced)
+             */
+            Corners() {
+                long corners = (long) (tileSize + 1) * (tileSize + 1);
+                allocate(Integer.highestOneBit((int) Math.min(corners, 1 << 16)) << 2);
+            }
+
+            /**
+             * Allocates empty slots.
+             *
+             * @param capacity the amount of slots - a power of two
+             */
+            private void allocate(int capacity) {
+                keys = new int[capacity];
+                shift = Integer.numberOfLeadingZeros(capacity - 1);
+                Arrays.fill(keys, -1);
+                samples = new Color[capacity];
+                used = new int[capacity / 2];
+            }
+
+            /**
+             * Forgets the samples of the previous tile.
+             *
+             * @param col0 the first pixel column of the tile
+             * @param row0 the first pixel row of the tile
+             */
+            void startTile(int col0, int row0) {
+                this.col0 = col0;
+                this.row0 = row0;
+                for (int i = 0; i < count; ++i) {
+                    keys[used[i]] = -1;
+                    samples[used[i]] = null;
                 }
-                return 0;
+                count = 0;
+            }
+
+            /**
+             * Finds the slot of a sample - where it's kept, or the empty slot it would be kept in.
+             *
+             * @param key the sample's position in the grid
+             * @return the slot
+             */
+            private int slot(int key) {
+                int mask = keys.length - 1;
+                // Fibonacci hashing - the high bits of the product mix all the bits of the key
+                int slot = (key * 0x9E3779B9) >>> shift;
+                while (keys[slot] != -1 && keys[slot] != key)
+                    slot = (slot + 1) & mask;
+                return slot;
             }
-            ++row;
-            if (row < this.maxRows) {
-                col = 0;
-                target.row = this.row;
-                target.col = this.col;
-                if (Render.this.print && this.counter == this.nextCounter) {
-                    ++this.percents;
-                    this.nextCounter = this.pixels * (this.percents + 1) / 100;
-                    return this.percents;
+
+            /**
+             * Gets the color of a corner, tracing it if it wasn't yet.
+             *
+             * @param x the corner's column in the tile's grid of samples
+             * @param y the corner's row in the tile's grid of samples
+             * @return the color of the corner
+             */
+            private Color corner(int x, int y) {
+                int key = y * stride + x;
+                int slot = slot(key);
+                if (keys[slot] == key)
+                    return samples[slot];
+
+                Color color = tracer.traceRay(camera.constructRayThroughPoint(nX, nY,
+                        col0 + x / (double) subPixels, row0 + y / (double) subPixels));
+                if (count == used.length) {
+                    // at half full the table doubles, and the samples are placed in it again
+                    int[] oldKeys = keys, oldUsed = used;
+                    Color[] oldSamples = samples;
+                    allocate(2 * keys.length);
+                    for (int i = 0; i < count; ++i) {
+                        int s = slot(oldKeys[oldUsed[i]]);
+                        keys[s] = oldKeys[oldUsed[i]];
+                        samples[s] = oldSamples[oldUsed[i]];
+                        used[i] = s;
+                    }
+                    slot = slot(key);
                 }
-                return 0;
+                keys[slot] = key;
+                samples[slot] = color;
+                used[count++] = slot;
+                return color;
+            }
+
+            /**
+             * Calculates the color of a square in the tile's grid of samples - the average of its corners if they
+             * are alike, otherwise the average of its quarters.
+             *
+             * @param x    the column of the square's top left corner in the tile's grid of samples
+             * @param y    the row of the square's top left corner in the tile's grid of samples
+             * @param size the length of the square's side in samples
+             * @return the color of the square
+             */
+            Color sample(int x, int y, int size) {
+                Color c00 = corner(x, y), c10 = corner(x + size, y);
+                Color c01 = corner(x, y + size), c11 = corner(x + size, y + size);
+                if (size == 1 || (c00.difference(c10) <= antiAliasingThreshold
+                        && c00.difference(c01) <= antiAliasingThreshold
+                        && c11.difference(c10) <= antiAliasingThreshold
+                        && c11.difference(c01) <= antiAliasingThreshold))
+                    return c00.add(c10, c01, c11).reduce(4);
+
+                int half = size / 2;
+                return sample(x, y, half).add(sample(x + half, y, half),
+                        sample(x, y + half, half), sample(x + half, y + half, half)).reduce(4);
             }
-            return -1;
         }
 
         /**
-         * Public function for getting next pixel number into secondary Pixel object.
-         * The function prints also progress percentage in the console window.
-         *
-         * @param target target secondary Pixel object to copy the row/column of the
-         *               next pixel
-         * @return true if the work still in progress, -1 if it's done
+         * Counts a finished tile, and wakes up the progress printing when the progress
+         * percentage changes.
          */
-        public boolean nextPixel(Pixel target) {
-            int percent = nextP(target);
-            if (Render.this.print && percent > 0)
-                synchronized (this) {
-                    notifyAll();
-                }
-            if (percent >= 0)
-                return true;
-            if (Render.this.print)
+        private void tileDone() {
+            int done = doneTiles.incrementAndGet();
+            if (!Render.this.print)
+                return;
+            int percent = (int) (100L * done / tilesCount);
+            if (percent > this.percents)
                 synchronized (this) {
-                    notifyAll();
+                    if (percent > this.percents) {
+                        this.percents = percent;
+                        notifyAll();
+                    }
                 }
-            return false;
+        }
+
+        /**
+         * Marks the rendering as stopped before all the tiles were done, and wakes up the progress printing.
+         */
+        private synchronized void halt() {
+            halted = true;
+            notifyAll();
         }
 
         /**
@@ -164,15 +447,18 @@ public class Render {
          */
         public void print() {
             if (Render.this.print)
-                while (this.percents < 100)
-                    try {
-                        synchronized (this) {
+                synchronized (this) {
+                    System.out.printf("\r %02d%%", this.percents);
+                    while (this.percents < 100 && !halted)
+                        try {
                             wait();
+                            System.out.printf("\r %02d%%", this.percents);
+                            System.out.flush();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
                         }
-                        System.out.printf("\r %02d%%", this.percents);
-                        System.out.flush();
-                    } catch (Exception e) {
-                    }
+                }
         }
     }
 
@@ -220,41 +506,66 @@ public class Render {
     }
 
     /**
-     * Cast ray from camera in order to color a pixel
+     * Cast ray from camera in order to color a pixel, and the square of pixels it stands for
      * @param nX resolution on X axis (number of pixels in row)
      * @param nY resolution on Y axis (number of pixels in column)
      * @param col pixel's column number (pixel index in row)
      * @param row pixel's row number (pixel index in column)
+     * @param size side of the square of pixels (starting at the pixel) to color - 1 colors the pixel alone
      */
-    private void castRay(int nX, int nY, int col, int row) {
-        Ray ray = camera.constructRayThroughPixel(nX, nY, col, row);
+    private void castRay(int nX, int nY, int col, int row, int size) {
+        Ray ray = rays.constructRay(col, row);
         Color color = tracer.traceRay(ray);
-        imageWriter.writePixel(col, row, color);
+        for (int i = row, rowEnd = Math.min(row + size, nY); i < rowEnd; ++i)
+            for (int j = col, colEnd = Math.min(col + size, nX); j < colEnd; ++j)
+                imageWriter.writePixel(j, i, color);
     }
 
     /**
-     * This function renders image's pixel color map from the scene included with
+     * Cast the rays of a rectangle of pixels as a packet, and color the pixels by the results
+     *
+     * @param packet the packet to trace the rays in
+     * @param colors array to get the rays' colors into
+     * @param dirs   array to get the directions of a row of the rays into - three values per ray
+     * @param col0   the first pixel column
+     * @param row0   the first pixel row
+     * @param colEnd the pixel column after the last
+     * @param rowEnd the pixel row after the last
+     */
+    private void castPacket(RayPacket packet, Color[] colors, double[] dirs, int col0, int row0, int colEnd, int rowEnd) {
+        // the rays are added by their directions, so no Ray objects are created for the rays which hit nothing
+        packet.clear();
+        Point3D p0 = rays.get_p0();
+        int count = colEnd - col0;
+        for (int row = row0; row < rowEnd; ++row) {
+            rays.directions(row, col0, count, dirs);
+            for (int k = 0; k < count; ++k)
+                packet.add(p0, dirs[3 * k], dirs[3 * k + 1], dirs[3 * k + 2]);
+        }
+        tracer.traceRays(packet, colors);
+        int lane = 0;
+        for (int row = row0; row < rowEnd; ++row)
+            for (int col = col0; col < colEnd; ++col)
+                imageWriter.writePixel(col, row, colors[lane++]);
+    }
+
+    /**
+     * This function renders a pass of the image's pixel color map from the scene included with
      * the Renderer object - with multi-threading
+     *
+     * @param tiles the tiles of the pass
      */
-    private void renderImageThreaded() {
-        final int nX = imageWriter.getNx();
-        final int nY = imageWriter.getNy();
-        final Pixel thePixel = new Pixel(nY, nX);
+    private void renderImageThreaded(Tiles tiles) {
         // Generate threads
         Thread[] threads = new Thread[threadsCount];
-        for (int i = threadsCount - 1; i >= 0; --i) {
-            threads[i] = new Thread(() -> {
-                Pixel pixel = new Pixel();
-                while (thePixel.nextPixel(pixel))
-                    castRay(nX, nY, pixel.col, pixel.row);
-            });
-        }
+        for (int i = threadsCount - 1; i >= 0; --i)
+            threads[i] = new Thread(tiles::render);
         // Start threads
         for (Thread thread : threads)
             thread.start();
 
         // Print percents on the console
-        thePixel.print();
+        tiles.print();
 
         // Ensure all threads have finished
         for (Thread thread : threads)
@@ -263,13 +574,14 @@ public class Render {
             } catch (Exception e) {
             }
 
-        if (print)
+        if (print && !tiles.halted)
             System.out.print("\r100%");
     }
 
     /**
      * This function renders image's pixel color map from the scene included with
-     * the Renderer object
+     * the Renderer object - in passes if progressive rendering is set, and up to
+     * the time budget or cancellation if there is any
      */
     public void renderImage() {
         long begin = System.currentTimeMillis();
@@ -280,19 +592,46 @@ public class Render {
         if (tracer == null)
             throw new MissingResourceException(RESOURCE_ERROR, RENDER_CLASS, RAY_TRACER_COMPONENT);
 
-        final int nX = imageWriter.getNx();
-        final int nY = imageWriter.getNy();
-        if (threadsCount == 0)
-            for (int i = 0; i < nY; ++i)
-                for (int j = 0; j < nX; ++j)
-                    castRay(nX, nY, j, i);
-        else
-            renderImageThreaded();
+        if (RenderStats.ENABLED)
+            RenderStats.reset();
+        deadline = System.nanoTime() + timeBudget * 1_000_000;
+        int nX = imageWriter.getNx(), nY = imageWriter.getNy();
+        rays = camera.getRayGenerator(nX, nY);
+        // every pass traces the pixels at multiples of its step, skipping those the previous pass traced -
+        // except for the anti-aliased last pass, which samples the pixels' corners instead of their centres
+        finished = false;
+        for (int step = 1 << (passes - 1); ; step /= 2) {
+            int skipStep = step == 1 << (passes - 1) || (step == 1 && antiAliasingDepth > 0) ? 0 : step * 2;
+            Tiles tiles = new Tiles(nX, nY, step, skipStep);
+            if (threadsCount == 0)
+                tiles.render();
+            else
+                renderImageThreaded(tiles);
+            if (tiles.halted)
+                break;
+            if (step == 1) {
+                finished = true;
+                break;
+            }
+            imageWriter.writeToImage();
+        }
+        // cleared only now, so a cancellation issued before or while the rendering started is not lost
+        cancelled = false;
+        stats = RenderStats.snapshot();
         long end = System.currentTimeMillis();
         System.out.print("rendered in: " + ((int)(end - begin)/1000)/60 + " minutes ");
         System.out.print("and " + ((int)(end - begin)/1000)%60 + " seconds.");
     }
 
+    /**
+     * Gets the statistics of the last rendered image - collected only when enabled (see {@link RenderStats}).
+     *
+     * @return the statistics, null if no image was rendered yet.
+     */
+    public RenderStats getStats() {
+        return stats;
+    }
+
     /**
      * Create a grid [over the picture] in the pixel color map. given the grid's
      * step and color.
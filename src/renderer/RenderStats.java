@@ -0,0 +1,223 @@
+package renderer;
+
+import geometries.IntersectionStats;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a rendered image - the rays traced by kind, the bounding box and primitive tests of the geometries,
+ * and how deep the recursion of the color calculation went.
+ * The counters are striped ({@link LongAdder}) and shared by all the rendering threads; a RenderStats object is
+ * a snapshot of them taken by {@link Render#renderImage()} once the image is done.
+ * Counting is on only when the JVM is started with {@code -Drenderer.stats=true} (see {@link IntersectionStats#ENABLED}).
+ * When the property is unset nothing is counted - the JIT removes the counting code from the hot path - and all
+ * the statistics are zero.
+ * The counters are global, so the statistics of images rendered at the same time are mixed.
+ *
+ * @author Yosi and Eli
+ */
+public final class RenderStats {
+    /**
+     * Whether the statistics are collected.
+     */
+    public static final boolean ENABLED = IntersectionStats.ENABLED;
+
+    //Ray counters, incremented by the ray tracer.
+    static final LongAdder PRIMARY_RAYS = new LongAdder();
+    static final LongAdder REFLECTION_RAYS = new LongAdder();
+    static final LongAdder REFRACTION_RAYS = new LongAdder();
+    static final LongAdder GLOSSY_RAYS = new LongAdder();
+    static final LongAdder SHADOW_RAYS = new LongAdder();
+    //Calls of the color calculation at every depth of the recursion (zero is the primary intersection).
+    static final LongAdder[] DEPTH = new LongAdder[RayTracerBasic.MAX_CALC_COLOR_LEVEL];
+
+    static {
+        for (int i = 0; i < DEPTH.length; ++i)
+            DEPTH[i] = new LongAdder();
+    }
+
+    private final long primaryRays;
+    private final long reflectionRays;
+    private final long refractionRays;
+    private final long glossyRays;
+    private final long shadowRays;
+    private final long aabbTests;
+    private final long aabbRejections;
+    private final Map<String, Long> aabbTestsByType;
+    private final Map<String, Long> aabbRejectionsByType;
+    private final Map<String, Long> primitiveTests;
+    private final long[] depthCounts;
+
+    /**
+     * Constructor taking a snapshot of the counters.
+     */
+    private RenderStats() {
+        primaryRays = PRIMARY_RAYS.sum();
+        reflectionRays = REFLECTION_RAYS.sum();
+        refractionRays = REFRACTION_RAYS.sum();
+        glossyRays = GLOSSY_RAYS.sum();
+        shadowRays = SHADOW_RAYS.sum();
+        aabbTests = IntersectionStats.getAABBTests();
+        aabbRejections = IntersectionStats.getAABBRejections();
+        aabbTestsByType = IntersectionStats.getAABBTestsByType();
+        aabbRejectionsByType = IntersectionStats.getAABBRejectionsByType();
+        primitiveTests = IntersectionStats.getPrimitiveTests();
+        depthCounts = new long[DEPTH.length];
+        for (int i = 0; i < DEPTH.length; ++i)
+            depthCounts[i] = DEPTH[i].sum();
+    }
+
+    /**
+     * Zeroes all the counters, before rendering an image.
+     */
+    static void reset() {
+        PRIMARY_RAYS.reset();
+        REFLECTION_RAYS.reset();
+        REFRACTION_RAYS.reset();
+        GLOSSY_RAYS.reset();
+        SHADOW_RAYS.reset();
+        for (LongAdder counter : DEPTH)
+            counter.reset();
+        IntersectionStats.reset();
+    }
+
+    /**
+     * Takes a snapshot of the counters, after rendering an image.
+     *
+     * @return the snapshot.
+     */
+    static RenderStats snapshot() {
+        return new RenderStats();
+    }
+
+    /**
+     * Gets the amount of rays cast from the camera.
+     *
+     * @return the amount of primary rays.
+     */
+    public long getPrimaryRays() {
+        return primaryRays;
+    }
+
+    /**
+     * Gets the amount of reflected rays traced.
+     *
+     * @return the amount of reflection rays.
+     */
+    public long getReflectionRays() {
+        return reflectionRays;
+    }
+
+    /**
+     * Gets the amount of refracted rays traced.
+     *
+     * @return the amount of refraction rays.
+     */
+    public long getRefractionRays() {
+        return refractionRays;
+    }
+
+    /**
+     * Gets the amount of additional rays traced for the glossy and diffuse effects.
+     *
+     * @return the amount of glossy rays.
+     */
+    public long getGlossyRays() {
+        return glossyRays;
+    }
+
+    /**
+     * Gets the amount of rays cast towards light sources.
+     *
+     * @return the amount of shadow rays.
+     */
+    public long getShadowRays() {
+        return shadowRays;
+    }
+
+    /**
+     * Gets the amount of ray - bounding box tests.
+     *
+     * @return the amount of tests.
+     */
+    public long getAABBTests() {
+        return aabbTests;
+    }
+
+    /**
+     * Gets the amount of ray - bounding box tests where the ray missed the box.
+     *
+     * @return the amount of rejections.
+     */
+    public long getAABBRejections() {
+        return aabbRejections;
+    }
+
+    /**
+     * Gets the amount of ray - bounding box tests by the type of the box's owner (see {@link IntersectionStats#getAABBTestsByType()}).
+     *
+     * @return map from the simple name of the owner's class to the amount of tests.
+     */
+    public Map<String, Long> getAABBTestsByType() {
+        return aabbTestsByType;
+    }
+
+    /**
+     * Gets the amount of ray - bounding box tests where the ray missed the box by the type of the box's owner
+     * (see {@link IntersectionStats#getAABBTestsByType()}).
+     *
+     * @return map from the simple name of the owner's class to the amount of rejections.
+     */
+    public Map<String, Long> getAABBRejectionsByType() {
+        return aabbRejectionsByType;
+    }
+
+    /**
+     * Gets the amount of ray - primitive tests by the primitive's type (see {@link IntersectionStats#getPrimitiveTests()}).
+     *
+     * @return map from the simple name of the primitive's class to the amount of tests.
+     */
+    public Map<String, Long> getPrimitiveTests() {
+        return primitiveTests;
+    }
+
+    /**
+     * Gets the amount of color calculations at a depth of the recursion.
+     *
+     * @param depth the depth - zero for the intersections of the primary rays.
+     * @return the amount of color calculations at that depth.
+     */
+    public long getDepthCount(int depth) {
+        return depthCounts[depth];
+    }
+
+    /**
+     * Gets the deepest level the recursion of the color calculation reached.
+     *
+     * @return the maximal depth - zero if only the intersections of the primary rays were colored, -1 if nothing was.
+     */
+    public int getMaxDepth() {
+        for (int i = depthCounts.length - 1; i >= 0; --i)
+            if (depthCounts[i] > 0)
+                return i;
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderStats{" +
+                "primaryRays=" + primaryRays +
+                ", reflectionRays=" + reflectionRays +
+                ", refractionRays=" + refractionRays +
+                ", glossyRays=" + glossyRays +
+                ", shadowRays=" + shadowRays +
+                ", aabbTests=" + aabbTests +
+                ", aabbRejections=" + aabbRejections +
+                ", aabbTestsByType=" + aabbTestsByType +
+                ", aabbRejectionsByType=" + aabbRejectionsByType +
+                ", primitiveTests=" + primitiveTests +
+                ", maxDepth=" + getMaxDepth() +
+                '}';
+    }
+}
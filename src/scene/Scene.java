@@ -20,12 +20,22 @@ public class Scene {
      * ambientLight - color of scene's ambient light
      * geometries - list of geometries in the scene
      * lights - list of lights in the scene
+     * acceleration - the acceleration structure the geometries are compiled into for rendering
      */
     public String name;
     public Color background;
     public AmbientLight ambientLight;
     public Geometries geometries;
     public List<LightSource> lights =  new LinkedList<LightSource>();
+    public Acceleration acceleration = Acceleration.BVH;
+
+    /**
+     * Enum of the acceleration structures the scene's geometries can be compiled into:
+     * NONE - the geometries are tested as they were added,
+     * BVH - the geometries are restructured into a hierarchy of nested collections,
+     * FLAT_BVH - the geometries are compiled into a linearized, array backed hierarchy.
+     */
+    public enum Acceleration {NONE, BVH, FLAT_BVH}
 
     /**
      * constructor for Scene that gets the scene name and sets all fields to default
@@ -68,6 +78,16 @@ public class Scene {
         return this;
     }
 
+    /**
+     * setter for the scene's acceleration structure that returns the scene object
+     * @param acceleration the acceleration structure to compile the geometries into
+     * @return the scene object
+     */
+    public Scene setAcceleration(Acceleration acceleration) {
+        this.acceleration = acceleration;
+        return this;
+    }
+
     /**
      * Setter for lights in scene.
      * @param lights new list of lights.
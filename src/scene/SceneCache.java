@@ -0,0 +1,679 @@
+package scene;
+
+import elements.*;
+import geometries.*;
+import primitives.*;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Binary cache of compiled scenes. A scene is written once - its background, lights, materials and geometries,
+ * with the vertex and index arrays of every triangle mesh along with its flattened bounding volume hierarchy, and
+ * the flattened nodes of every compiled hierarchy ({@link FlatBVH}) -
+ * and loaded later by mapping the file into memory ({@link FileChannel#map}), so repeated renders of the same scene
+ * don't build it from code again nor build the hierarchies from scratch.
+ * The arrays of the meshes are copied out of the mapping in bulk, and the meshes use them as they are.
+ * Materials and objects shared by several geometries (such as the objects of {@link Instance}s) stay shared.
+ * The file is little endian, and starts with a signature and the format's version - a file of another version is
+ * not read.
+ *
+ * @author Yosi and Eli
+ */
+public final class SceneCache {
+    //The file's signature ("SCNC") and the format's version.
+    private static final int MAGIC = 0x434E4353;
+    private static final int VERSION = 1;
+
+    //Tags of the kinds of lights.
+    private static final int DIRECTIONAL_LIGHT = 0;
+    private static final int POINT_LIGHT = 1;
+    private static final int SPOT_LIGHT = 2;
+
+    //Tags of the kinds of intersectables - REFERENCE is an intersectable written before.
+    private static final int REFERENCE = 0;
+    private static final int GEOMETRIES = 1;
+    private static final int INSTANCE = 2;
+    private static final int SPHERE = 3;
+    private static final int PLANE = 4;
+    private static final int TRIANGLE = 5;
+    private static final int POLYGON = 6;
+    private static final int TUBE = 7;
+    private static final int CYLINDER = 8;
+    private static final int MESH = 9;
+    private static final int FLAT_BVH = 10;
+
+    /**
+     * The class has static methods only.
+     */
+    private SceneCache() {
+    }
+
+    /**
+     * Loads a scene from a cache file, or builds it and writes it to the file if there is no usable one.
+     * The cache isn't checked against the code building the scene - the file is deleted to rebuild it.
+     *
+     * @param path    the cache file.
+     * @param builder builds the scene when the file is missing (or of another version, or damaged).
+     * @return the scene.
+     * @throws IOException if the scene was built and the file could not be written.
+     */
+    public static Scene load(Path path, Supplier<Scene> builder) throws IOException {
+        if (Files.exists(path)) {
+            try {
+                return read(path);
+            } catch (IOException e) {
+                //the file is of another version or damaged, it's written again below.
+            }
+        }
+        Scene scene = builder.get();
+        write(scene, path);
+        return scene;
+    }
+
+    /**
+     * Writes a scene to a cache file, replacing the file if it exists.
+     *
+     * @param scene the scene.
+     * @param path  the cache file.
+     * @throws IOException              if the file could not be written.
+     * @throws IllegalArgumentException if the scene has lights or geometries of kinds that can't be cached.
+     */
+    public static void write(Scene scene, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putString(scene.name);
+            out.putColor(scene.background);
+            out.putColor(scene.ambientLight.getIntensity());
+            out.putInt(scene.acceleration.ordinal());
+            out.putInt(scene.lights.size());
+            for (LightSource light : scene.lights)
+                writeLight(out, light);
+            writeIntersectable(out, scene.geometries, new IdentityHashMap<>(), new IdentityHashMap<>());
+            out.flush();
+        }
+    }
+
+    /**
+     * Reads a scene from a cache file.
+     *
+     * @param path the cache file.
+     * @return the scene.
+     * @throws IOException if the file could not be read, is of another version or is damaged.
+     */
+    public static Scene read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("The scene cache is too large to map: " + path);
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (in.remaining() < 8 || in.getInt() != MAGIC || in.getInt() != VERSION)
+                throw new IOException("Not a scene cache of this version: " + path);
+
+            Scene scene = new Scene(getString(in))
+                    .setBackground(getColor(in))
+                    .setAmbientLight(new AmbientLight(getColor(in), 1));
+            scene.setAcceleration(Scene.Acceleration.values()[in.getInt()]);
+            for (int i = getCount(in, 1); i > 0; --i)
+                scene.lights.add(readLight(in));
+            Intersectable geometries = readIntersectable(in, new ArrayList<>(), new ArrayList<>());
+            if (!(geometries instanceof Geometries))
+                throw new IOException("The scene cache's geometries are not a collection: " + path);
+            return scene.setGeometries((Geometries) geometries);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("The scene cache is damaged: " + path, e);
+        }
+    }
+
+    /**
+     * Writes a light source.
+     *
+     * @param out   the output.
+     * @param light the light source.
+     * @throws IOException if the file could not be written.
+     */
+    private static void writeLight(Output out, LightSource light) throws IOException {
+        if (light instanceof DirectionalLight) {
+            DirectionalLight directional = (DirectionalLight) light;
+            out.putInt(DIRECTIONAL_LIGHT);
+            out.putColor(directional.getIntensity());
+            out.putVector(directional.getDirection());
+        } else if (light instanceof PointLight) {
+            PointLight point = (PointLight) light;
+            out.putInt(light instanceof SpotLight ? SPOT_LIGHT : POINT_LIGHT);
+            out.putColor(point.getIntensity());
+            out.putPoint(point.getPosition());
+            out.putDouble(point.getkC());
+            out.putDouble(point.getkL());
+            out.putDouble(point.getkQ());
+            if (light instanceof SpotLight)
+                out.putVector(((SpotLight) light).getDirection());
+        } else
+            throw new IllegalArgumentException("Lights of type " + light.getClass().getSimpleName() + " can't be cached");
+    }
+
+    /**
+     * Reads a light source.
+     *
+     * @param in the mapped file.
+     * @return the light source.
+     */
+    private static LightSource readLight(ByteBuffer in) {
+        int tag = in.getInt();
+        Color intensity = getColor(in);
+        if (tag == DIRECTIONAL_LIGHT)
+            return new DirectionalLight(intensity, getVector(in));
+        if (tag != POINT_LIGHT && tag != SPOT_LIGHT)
+            throw new IllegalArgumentException("Unknown light type " + tag);
+        Point3D position = getPoint(in);
+        double kC = in.getDouble(), kL = in.getDouble(), kQ = in.getDouble();
+        PointLight light = tag == SPOT_LIGHT ? new SpotLight(intensity, position, getVector(in))
+                : new PointLight(intensity, position);
+        return light.setkC(kC).setkL(kL).setkQ(kQ);
+    }
+
+    /**
+     * Writes an intersectable, or a reference to it if it was written before.
+     * Every intersectable is numbered once it's written, in the order they are written.
+     *
+     * @param out           the output.
+     * @param intersectable the intersectable.
+     * @param written       the numbers of the intersectables written so far.
+     * @param materials     the numbers of the materials written so far.
+     * @throws IOException if the file could not be written.
+     */
+    private static void writeIntersectable(Output out, Intersectable intersectable, Map<Intersectable, Integer> written,
+                                           Map<Material, Integer> materials) throws IOException {
+        Integer id = written.get(intersectable);
+        if (id != null) {
+            out.putInt(REFERENCE);
+            out.putInt(id);
+            return;
+        }
+
+        if (intersectable instanceof Geometries) {
+            List<Intersectable> children = ((Geometries) intersectable).getIntersections();
+            out.putInt(GEOMETRIES);
+            writeIntersectables(out, children.toArray(new Intersectable[0]), written, materials);
+        } else if (intersectable instanceof Instance) {
+            Instance instance = (Instance) intersectable;
+            out.putInt(INSTANCE);
+            out.putDoubles(instance.getTransform().getMatrix());
+            writeIntersectable(out, instance.getObject(), written, materials);
+        } else if (intersectable instanceof FlatBVH) {
+            FlatBVH bvh = (FlatBVH) intersectable;
+            out.putInt(FLAT_BVH);
+            writeIntersectables(out, bvh.getPrimitives(), written, materials);
+            writeIntersectables(out, bvh.getUnbounded(), written, materials);
+            out.putDoubles(bvh.getHierarchyBounds());
+            out.putInts(bvh.getHierarchyNodes());
+        } else if (intersectable instanceof Geometry)
+            writeGeometry(out, (Geometry) intersectable, materials);
+        else
+            throw new IllegalArgumentException("Objects of type " + intersectable.getClass().getSimpleName() + " can't be cached");
+
+        written.put(intersectable, written.size());
+    }
+
+    /**
+     * Reads an intersectable, or finds the one read before that it refers to.
+     *
+     * @param in        the mapped file.
+     * @param read      the intersectables read so far, by their numbers.
+     * @param materials the materials read so far, by their numbers.
+     * @return the intersectable.
+     */
+    private static Intersectable readIntersectable(ByteBuffer in, List<Intersectable> read, List<Material> materials) {
+        int tag = in.getInt();
+        if (tag == REFERENCE)
+            return read.get(in.getInt());
+
+        Intersectable intersectable;
+        if (tag == GEOMETRIES)
+            intersectable = new Geometries(readIntersectables(in, read, materials));
+        else if (tag == INSTANCE) {
+            Transform transform = Transform.affine(getDoubles(in));
+            intersectable = new Instance(readIntersectable(in, read, materials), transform);
+        } else if (tag == FLAT_BVH) {
+            Intersectable[] primitives = readIntersectables(in, read, materials);
+            Intersectable[] unbounded = readIntersectables(in, read, materials);
+            intersectable = new FlatBVH(primitives, unbounded, getDoubles(in), getInts(in));
+        } else
+            intersectable = readGeometry(in, tag, materials);
+
+        read.add(intersectable);
+        return intersectable;
+    }
+
+    /**
+     * Writes an array of intersectables, preceded by their amount.
+     *
+     * @param out            the output.
+     * @param intersectables the intersectables.
+     * @param written        the numbers of the intersectables written so far.
+     * @param materials      the numbers of the materials written so far.
+     * @throws IOException if the file could not be written.
+     */
+    private static void writeIntersectables(Output out, Intersectable[] intersectables, Map<Intersectable, Integer> written,
+                                            Map<Material, Integer> materials) throws IOException {
+        out.putInt(intersectables.length);
+        for (Intersectable intersectable : intersectables)
+            writeIntersectable(out, intersectable, written, materials);
+    }
+
+    /**
+     * Reads an array of intersectables, preceded by their amount.
+     *
+     * @param in        the mapped file.
+     * @param read      the intersectables read so far, by their numbers.
+     * @param materials the materials read so far, by their numbers.
+     * @return the intersectables.
+     */
+    private static Intersectable[] readIntersectables(ByteBuffer in, List<Intersectable> read, List<Material> materials) {
+        Intersectable[] intersectables = new Intersectable[getCount(in, 4)];
+        for (int i = 0; i < intersectables.length; ++i)
+            intersectables[i] = readIntersectable(in, read, materials);
+        return intersectables;
+    }
+
+    /**
+     * Writes a geometry - its kind, material, emission and shape.
+     *
+     * @param out       the output.
+     * @param geometry  the geometry.
+     * @param materials the numbers of the materials written so far.
+     * @throws IOException if the file could not be written.
+     */
+    private static void writeGeometry(Output out, Geometry geometry, Map<Material, Integer> materials) throws IOException {
+        int tag;
+        if (geometry instanceof TriangleMesh)
+            tag = MESH;
+        else if (geometry instanceof Sphere)
+            tag = SPHERE;
+        else if (geometry instanceof Plane)
+            tag = PLANE;
+        else if (geometry instanceof Triangle)
+            tag = TRIANGLE;
+        else if (geometry instanceof Polygon)
+            tag = POLYGON;
+        else if (geometry instanceof Cylinder)
+            tag = CYLINDER;
+        else if (geometry instanceof Tube)
+            tag = TUBE;
+        else
+            throw new IllegalArgumentException("Geometries of type " + geometry.getClass().getSimpleName() + " can't be cached");
+        out.putInt(tag);
+        writeMaterial(out, geometry.getMaterial(), materials);
+        out.putColor(geometry.getEmission());
+
+        switch (tag) {
+            case MESH:
+                TriangleMesh mesh = (TriangleMesh) geometry;
+                out.putDoubles(mesh.getVertices());
+                out.putInts(mesh.getIndices());
+                out.putDoubles(mesh.getHierarchyBounds());
+                out.putInts(mesh.getHierarchyNodes());
+                break;
+            case SPHERE:
+                out.putPoint(((Sphere) geometry).get_center());
+                out.putDouble(((Sphere) geometry).get_radius());
+                break;
+            case PLANE:
+                out.putPoint(((Plane) geometry).get_point());
+                out.putVector(((Plane) geometry).get_normal());
+                break;
+            case TRIANGLE:
+            case POLYGON:
+                List<Point3D> vertices = ((Polygon) geometry).getVertices();
+                out.putInt(vertices.size());
+                for (Point3D vertex : vertices)
+                    out.putPoint(vertex);
+                break;
+            default: //TUBE and CYLINDER
+                Tube tube = (Tube) geometry;
+                out.putPoint(tube.get_axisRay().get_p0());
+                out.putVector(tube.get_axisRay().get_dir());
+                out.putDouble(tube.get_radius());
+                if (tag == CYLINDER)
+                    out.putDouble(((Cylinder) tube).get_height());
+        }
+    }
+
+    /**
+     * Reads a geometry - its material, emission and shape.
+     *
+     * @param in        the mapped file.
+     * @param tag       the geometry's kind.
+     * @param materials the materials read so far, by their numbers.
+     * @return the geometry.
+     */
+    private static Geometry readGeometry(ByteBuffer in, int tag, List<Material> materials) {
+        Material material = readMaterial(in, materials);
+        Color emission = getColor(in);
+
+        Geometry geometry;
+        switch (tag) {
+            case MESH:
+                geometry = new TriangleMesh(getDoubles(in), getInts(in), getDoubles(in), getInts(in));
+                break;
+            case SPHERE:
+                geometry = new Sphere(getPoint(in), in.getDouble());
+                break;
+            case PLANE:
+                geometry = new Plane(getPoint(in), getVector(in));
+                break;
+            case TRIANGLE:
+            case POLYGON:
+                Point3D[] vertices = new Point3D[getCount(in, 24)];
+                for (int i = 0; i < vertices.length; ++i)
+                    vertices[i] = getPoint(in);
+                geometry = tag == TRIANGLE ? new Triangle(vertices[0], vertices[1], vertices[2]) : new Polygon(vertices);
+                break;
+            case TUBE:
+            case CYLINDER:
+                Ray axis = new Ray(getPoint(in), getVector(in));
+                double radius = in.getDouble();
+                geometry = tag == CYLINDER ? new Cylinder(axis, radius, in.getDouble()) : new Tube(axis, radius);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown geometry type " + tag);
+        }
+        return geometry.setMaterial(material).setEmission(emission);
+    }
+
+    /**
+     * Writes a material, or its number if it was written before.
+     *
+     * @param out       the output.
+     * @param material  the material.
+     * @param materials the numbers of the materials written so far.
+     * @throws IOException if the file could not be written.
+     */
+    private static void writeMaterial(Output out, Material material, Map<Material, Integer> materials) throws IOException {
+        Integer id = materials.get(material);
+        if (id != null) {
+            out.putInt(id);
+            return;
+        }
+        //a new material gets the next number, and is written right after it.
+        out.putInt(materials.size());
+        materials.put(material, materials.size());
+        out.putDouble(material.kD);
+        out.putDouble(material.kS);
+        out.putDouble(material.kT);
+        out.putDouble(material.kR);
+        out.putInt(material.nShininess);
+        out.putDouble(material.glossyRadius);
+        out.putDouble(material.diffuseRadius);
+    }
+
+    /**
+     * Reads a material, or finds the one read before with its number.
+     *
+     * @param in        the mapped file.
+     * @param materials the materials read so far, by their numbers.
+     * @return the material.
+     */
+    private static Material readMaterial(ByteBuffer in, List<Material> materials) {
+        int id = in.getInt();
+        if (id != materials.size())
+            return materials.get(id);
+        Material material = new Material().setkD(in.getDouble()).setkS(in.getDouble()).setkT(in.getDouble())
+                .setkR(in.getDouble()).setnShininess(in.getInt())
+                .setGlossyRadius(in.getDouble()).setDiffuseRadius(in.getDouble());
+        materials.add(material);
+        return material;
+    }
+
+    /**
+     * Reads the amount of items that follows, checking the file is long enough to hold them.
+     *
+     * @param in   the mapped file.
+     * @param size the least amount of bytes each item takes.
+     * @return the amount of items.
+     */
+    private static int getCount(ByteBuffer in, int size) {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / size)
+            throw new BufferUnderflowException();
+        return count;
+    }
+
+    /**
+     * Reads an array of doubles, copying it out of the mapping in bulk.
+     *
+     * @param in the mapped file.
+     * @return the array.
+     */
+    private static double[] getDoubles(ByteBuffer in) {
+        double[] values = new double[getCount(in, Double.BYTES)];
+        in.asDoubleBuffer().get(values);
+        in.position(in.position() + values.length * Double.BYTES);
+        return values;
+    }
+
+    /**
+     * Reads an array of ints, copying it out of the mapping in bulk.
+     *
+     * @param in the mapped file.
+     * @return the array.
+     */
+    private static int[] getInts(ByteBuffer in) {
+        int[] values = new int[getCount(in, Integer.BYTES)];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + values.length * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * Reads a string (null if it was written as one).
+     *
+     * @param in the mapped file.
+     * @return the string.
+     */
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0)
+            return null;
+        if (length > in.remaining())
+            throw new BufferUnderflowException();
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a color.
+     *
+     * @param in the mapped file.
+     * @return the color.
+     */
+    private static Color getColor(ByteBuffer in) {
+        return new Color(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * Reads a point.
+     *
+     * @param in the mapped file.
+     * @return the point.
+     */
+    private static Point3D getPoint(ByteBuffer in) {
+        return new Point3D(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * Reads a vector.
+     *
+     * @param in the mapped file.
+     * @return the vector.
+     */
+    private static Vector getVector(ByteBuffer in) {
+        return new Vector(in.getDouble(), in.getDouble(), in.getDouble());
+    }
+
+    /**
+     * Buffered output to a cache file, in the file's byte order.
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+        /**
+         * Constructor for the output to a file.
+         *
+         * @param channel the file.
+         */
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Writes the buffered bytes to the file.
+         *
+         * @throws IOException if the file could not be written.
+         */
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            buffer.clear();
+        }
+
+        /**
+         * Makes room in the buffer.
+         *
+         * @param bytes the amount of bytes to make room for.
+         * @throws IOException if the file could not be written.
+         */
+        private void reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes)
+                flush();
+        }
+
+        /**
+         * Writes an int.
+         *
+         * @param value the int.
+         * @throws IOException if the file could not be written.
+         */
+        void putInt(int value) throws IOException {
+            reserve(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        /**
+         * Writes a double.
+         *
+         * @param value the double.
+         * @throws IOException if the file could not be written.
+         */
+        void putDouble(double value) throws IOException {
+            reserve(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        /**
+         * Writes the length of an array of doubles and its values, a buffer at a time.
+         *
+         * @param values the array.
+         * @throws IOException if the file could not be written.
+         */
+        void putDoubles(double[] values) throws IOException {
+            putInt(values.length);
+            for (int i = 0; i < values.length; ) {
+                reserve(Double.BYTES);
+                int n = Math.min(buffer.remaining() / Double.BYTES, values.length - i);
+                buffer.asDoubleBuffer().put(values, i, n);
+                buffer.position(buffer.position() + n * Double.BYTES);
+                i += n;
+            }
+        }
+
+        /**
+         * Writes the length of an array of ints and its values, a buffer at a time.
+         *
+         * @param values the array.
+         * @throws IOException if the file could not be written.
+         */
+        void putInts(int[] values) throws IOException {
+            putInt(values.length);
+            for (int i = 0; i < values.length; ) {
+                reserve(Integer.BYTES);
+                int n = Math.min(buffer.remaining() / Integer.BYTES, values.length - i);
+                buffer.asIntBuffer().put(values, i, n);
+                buffer.position(buffer.position() + n * Integer.BYTES);
+                i += n;
+            }
+        }
+
+        /**
+         * Writes a string (the length -1 for null).
+         *
+         * @param value the string.
+         * @throws IOException if the file could not be written.
+         */
+        void putString(String value) throws IOException {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            for (int i = 0; i < bytes.length; ) {
+                reserve(1);
+                int n = Math.min(buffer.remaining(), bytes.length - i);
+                buffer.put(bytes, i, n);
+                i += n;
+            }
+        }
+
+        /**
+         * Writes a color's components.
+         *
+         * @param color the color.
+         * @throws IOException if the file could not be written.
+         */
+        void putColor(Color color) throws IOException {
+            putDouble(color.getRed());
+            putDouble(color.getGreen());
+            putDouble(color.getBlue());
+        }
+
+        /**
+         * Writes a point's coordinates.
+         *
+         * @param point the point.
+         * @throws IOException if the file could not be written.
+         */
+        void putPoint(Point3D point) throws IOException {
+            putDouble(point.getX().getCoord());
+            putDouble(point.getY().getCoord());
+            putDouble(point.getZ().getCoord());
+        }
+
+        /**
+         * Writes a vector's components.
+         *
+         * @param vector the vector.
+         * @throws IOException if the file could not be written.
+         */
+        void putVector(Vector vector) throws IOException {
+            putPoint(vector.getHead());
+        }
+    }
+}
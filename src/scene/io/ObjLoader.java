@@ -0,0 +1,330 @@
+package scene.io;
+
+import geometries.TriangleMesh;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Loader of triangle meshes from Wavefront OBJ files.
+ * The file is streamed through a byte buffer and scanned in place - there are no strings, no split lines and no
+ * objects per vertex or face - and the vertices and faces are written straight into primitive arrays that grow
+ * as needed, so files of millions of triangles load in about the memory of the resulting {@link TriangleMesh}.
+ * The vertices ("v") and faces ("f") are read; faces of more than three vertices are split into a fan of triangles,
+ * and texture coordinates, normals, groups, materials and the other statements are skipped.
+ * Face vertices may refer to vertices by their number (from 1) or relative to the last vertex (from -1),
+ * and may carry texture and normal numbers ("1/2/3", "1//3"), which are ignored.
+ *
+ * @author Yosi and Eli
+ */
+public final class ObjLoader {
+    //The powers of ten which are exact doubles.
+    private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final InputStream in;
+
+    //The scanned bytes - the current line starts at pos and ends at lineEnd (its '\n' or the end of the file).
+    private byte[] buffer = new byte[1 << 20];
+    private int pos = 0;
+    private int limit = 0;
+    private int lineEnd = 0;
+    private int line = 0;
+    private boolean eof = false;
+
+    //Vertices' coordinates and triangles' vertex indices read so far.
+    private double[] vertices = new double[3 * 1024];
+    private int vertexCount = 0;
+    private int[] indices = new int[3 * 1024];
+    private int indexCount = 0;
+    //Vertex indices of the face being read.
+    private int[] face = new int[16];
+
+    /**
+     * Constructor for the loader of a stream.
+     *
+     * @param in the stream of the OBJ file.
+     */
+    private ObjLoader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Loads a mesh from an OBJ file.
+     *
+     * @param path the file.
+     * @return the mesh of all the file's faces.
+     * @throws IOException if the file could not be read, is malformed or has no faces.
+     */
+    public static TriangleMesh load(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return load(in);
+        }
+    }
+
+    /**
+     * Loads a mesh from a stream of an OBJ file. The stream is read to its end, and is not closed.
+     *
+     * @param in the stream.
+     * @return the mesh of all the stream's faces.
+     * @throws IOException if the stream could not be read, is malformed or has no faces.
+     */
+    public static TriangleMesh load(InputStream in) throws IOException {
+        return new ObjLoader(in).read();
+    }
+
+    /**
+     * Reads the whole stream and creates the mesh.
+     *
+     * @return the mesh.
+     * @throws IOException if the stream could not be read, is malformed or has no faces.
+     */
+    private TriangleMesh read() throws IOException {
+        while (nextLine()) {
+            readLine();
+            pos = Math.min(lineEnd + 1, limit);
+        }
+        if (indexCount == 0)
+            throw new IOException("The OBJ file has no faces");
+        return new TriangleMesh(Arrays.copyOf(vertices, vertexCount), Arrays.copyOf(indices, indexCount));
+    }
+
+    /**
+     * Finds the end of the line starting at pos, reading more of the stream until the whole line is buffered.
+     *
+     * @return false if there are no more lines.
+     * @throws IOException if the stream could not be read.
+     */
+    private boolean nextLine() throws IOException {
+        int scan = pos;
+        while (true) {
+            for (; scan < limit; ++scan)
+                if (buffer[scan] == '\n') {
+                    lineEnd = scan;
+                    ++line;
+                    return true;
+                }
+            if (eof) {
+                if (pos == limit)
+                    return false;
+                lineEnd = limit;
+                ++line;
+                return true;
+            }
+            scan -= pos;
+            fill();
+        }
+    }
+
+    /**
+     * Moves the unscanned bytes to the start of the buffer (growing it if they fill it) and reads more after them.
+     *
+     * @throws IOException if the stream could not be read.
+     */
+    private void fill() throws IOException {
+        int remaining = limit - pos;
+        if (pos > 0)
+            System.arraycopy(buffer, pos, buffer, 0, remaining);
+        else if (remaining == buffer.length)
+            buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+        pos = 0;
+        limit = remaining;
+        int n = in.read(buffer, limit, buffer.length - limit);
+        if (n < 0)
+            eof = true;
+        else
+            limit += n;
+    }
+
+    /**
+     * Reads the statement of the current line, if it's a vertex or a face.
+     *
+     * @throws IOException if the statement is malformed.
+     */
+    private void readLine() throws IOException {
+        skipSpaces();
+        if (pos + 1 >= lineEnd || !isSpace(buffer[pos + 1]))
+            return;
+        if (buffer[pos] == 'v') {
+            ++pos;
+            readVertex();
+        } else if (buffer[pos] == 'f') {
+            ++pos;
+            readFace();
+        }
+    }
+
+    /**
+     * Reads the coordinates of a vertex (an optional fourth coordinate is ignored).
+     *
+     * @throws IOException if a coordinate is missing or malformed.
+     */
+    private void readVertex() throws IOException {
+        if (vertexCount + 3 > vertices.length)
+            vertices = Arrays.copyOf(vertices, 2 * vertices.length);
+        vertices[vertexCount] = readDouble();
+        vertices[vertexCount + 1] = readDouble();
+        vertices[vertexCount + 2] = readDouble();
+        vertexCount += 3;
+    }
+
+    /**
+     * Reads the vertices of a face, and adds its triangles - a fan around its first vertex.
+     *
+     * @throws IOException if a vertex is malformed or missing, or there are less than three.
+     */
+    private void readFace() throws IOException {
+        int count = 0;
+        while (true) {
+            skipSpaces();
+            if (pos >= lineEnd)
+                break;
+            if (count == face.length)
+                face = Arrays.copyOf(face, 2 * face.length);
+            face[count++] = readIndex();
+        }
+        if (count < 3)
+            throw error("a face must have at least three vertices");
+
+        int triangles = count - 2;
+        if (indexCount + 3 * triangles > indices.length)
+            indices = Arrays.copyOf(indices, Math.max(2 * indices.length, indexCount + 3 * triangles));
+        for (int i = 1; i <= triangles; ++i) {
+            indices[indexCount++] = face[0];
+            indices[indexCount++] = face[i];
+            indices[indexCount++] = face[i + 1];
+        }
+    }
+
+    /**
+     * Reads a face's vertex - its number, skipping the texture and normal numbers after it.
+     *
+     * @return the index of the vertex (from zero).
+     * @throws IOException if the number is malformed or is not of a vertex read before.
+     */
+    private int readIndex() throws IOException {
+        boolean negative = buffer[pos] == '-';
+        if (negative || buffer[pos] == '+')
+            ++pos;
+        int start = pos;
+        long value = 0;
+        for (; pos < lineEnd && isDigit(buffer[pos]); ++pos)
+            if (value <= Integer.MAX_VALUE)
+                value = value * 10 + (buffer[pos] - '0');
+        if (pos == start || pos < lineEnd && !isSpace(buffer[pos]) && buffer[pos] != '/')
+            throw error("malformed vertex number");
+        while (pos < lineEnd && !isSpace(buffer[pos]))
+            ++pos;
+
+        int count = vertexCount / 3;
+        long index = negative ? count - value : value - 1;
+        if (value == 0 || index < 0 || index >= count)
+            throw error("the face refers to a missing vertex");
+        return (int) index;
+    }
+
+    /**
+     * Reads a decimal number. Numbers of up to 15 significant digits with small exponents (the numbers OBJ files
+     * are written with) are calculated directly - a single correctly rounded multiplication or division of exact
+     * values - and others are handed to {@link Double#parseDouble(String)}, so the results are always the same as its.
+     *
+     * @return the number.
+     * @throws IOException if the number is missing or malformed.
+     */
+    private double readDouble() throws IOException {
+        skipSpaces();
+        int start = pos;
+        boolean negative = pos < lineEnd && buffer[pos] == '-';
+        if (pos < lineEnd && (negative || buffer[pos] == '+'))
+            ++pos;
+
+        long mantissa = 0;
+        int digits = 0, exponent = 0;
+        boolean any = false;
+        for (; pos < lineEnd && isDigit(buffer[pos]); ++pos) {
+            any = true;
+            int d = buffer[pos] - '0';
+            if (mantissa == 0 && d == 0)
+                continue;
+            if (++digits <= 18)
+                mantissa = mantissa * 10 + d;
+            else
+                ++exponent;
+        }
+        if (pos < lineEnd && buffer[pos] == '.')
+            for (++pos; pos < lineEnd && isDigit(buffer[pos]); ++pos) {
+                any = true;
+                int d = buffer[pos] - '0';
+                if (mantissa == 0 && d == 0)
+                    --exponent;
+                else if (++digits <= 18) {
+                    mantissa = mantissa * 10 + d;
+                    --exponent;
+                }
+            }
+        if (!any)
+            throw error("malformed number");
+        if (pos < lineEnd && (buffer[pos] == 'e' || buffer[pos] == 'E')) {
+            ++pos;
+            boolean negativeExponent = pos < lineEnd && buffer[pos] == '-';
+            if (pos < lineEnd && (negativeExponent || buffer[pos] == '+'))
+                ++pos;
+            int e = 0, expStart = pos;
+            for (; pos < lineEnd && isDigit(buffer[pos]); ++pos)
+                if (e < 100000)
+                    e = e * 10 + (buffer[pos] - '0');
+            if (pos == expStart)
+                throw error("malformed number");
+            exponent += negativeExponent ? -e : e;
+        }
+        if (pos < lineEnd && !isSpace(buffer[pos]))
+            throw error("malformed number");
+
+        if (digits > 15 || exponent < -22 || exponent > 22)
+            return Double.parseDouble(new String(buffer, start, pos - start, StandardCharsets.ISO_8859_1));
+        double value = exponent < 0 ? mantissa / POW10[-exponent] : mantissa * POW10[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Skips the spaces and tabs (and carriage returns) at pos.
+     */
+    private void skipSpaces() {
+        while (pos < lineEnd && isSpace(buffer[pos]))
+            ++pos;
+    }
+
+    /**
+     * Checks whether a byte separates the tokens of a line.
+     *
+     * @param b the byte.
+     * @return true for a space, a tab or a carriage return.
+     */
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Checks whether a byte is a decimal digit.
+     *
+     * @param b the byte.
+     * @return true for '0' to '9'.
+     */
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Creates the exception for a malformed line.
+     *
+     * @param message what is wrong with the line.
+     * @return the exception.
+     */
+    private IOException error(String message) {
+        return new IOException("Malformed OBJ file, line " + line + ": " + message);
+    }
+}
@@ -0,0 +1,421 @@
+package scene.io;
+
+import elements.*;
+import geometries.*;
+import primitives.*;
+import scene.Scene;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reader of scenes from XML files. The file is read in a single pass with a streaming (StAX) parser - the
+ * geometries are created as their elements are read and no document tree is built, so large scenes load in about
+ * the memory of the scene itself.
+ * <p>
+ * The file's root is a {@code scene} element, with an optional {@code background-color} and {@code name}, holding:
+ * <ul>
+ * <li>{@code ambient-light} - {@code color} and an optional factor {@code k} (1 by default).</li>
+ * <li>{@code materials} - named {@code material} elements, see below.</li>
+ * <li>{@code geometries} - {@code sphere} ({@code center}, {@code radius}), {@code triangle} ({@code p0},
+ * {@code p1}, {@code p2}), {@code polygon} ({@code p0}, {@code p1}, ... in edge path order), {@code plane}
+ * ({@code point} and {@code normal}, or {@code p0}, {@code p1}, {@code p2}), {@code tube} ({@code point},
+ * {@code direction}, {@code radius}), {@code cylinder} (as a tube, and a {@code height}), {@code mesh}
+ * (a Wavefront OBJ {@code file}, relative to the scene's file, see {@link ObjLoader}) and nested
+ * {@code geometries}. Every geometry may have an {@code emission} color, and a material - either the
+ * {@code material} attribute naming one of the materials, or a {@code material} element inside it.</li>
+ * <li>{@code lights} - {@code directional-light} ({@code color}, {@code direction}), {@code point-light}
+ * ({@code color}, {@code position} and optional {@code kc}, {@code kl}, {@code kq}) and {@code spot-light}
+ * (as a point light, and a {@code direction}).</li>
+ * </ul>
+ * A {@code material} has the optional {@code kd}, {@code ks}, {@code kt}, {@code kr}, {@code shininess},
+ * {@code glossy-radius} and {@code diffuse-radius} (and an {@code id} among the scene's materials).
+ * Colors, points and vectors are written as three numbers separated by spaces, such as {@code "0 0 -100"}.
+ *
+ * @author Yosi and Eli
+ */
+public final class XmlSceneReader {
+    private final XMLStreamReader reader;
+    //The directory the files the scene refers to are relative to.
+    private final Path directory;
+    //The scene's named materials.
+    private final Map<String, Material> materials = new HashMap<>();
+
+    /**
+     * Constructor for the reader of a stream.
+     *
+     * @param reader    the parser of the stream.
+     * @param directory the directory the files the scene refers to are relative to.
+     */
+    private XmlSceneReader(XMLStreamReader reader, Path directory) {
+        this.reader = reader;
+        this.directory = directory;
+    }
+
+    /**
+     * Reads a scene from an XML file. The scene is named after the file, unless the file names it.
+     *
+     * @param path the file.
+     * @return the scene.
+     * @throws IOException if the file could not be read, or is malformed.
+     */
+    public static Scene read(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        if (name.endsWith(".xml"))
+            name = name.substring(0, name.length() - 4);
+        try (InputStream in = Files.newInputStream(path)) {
+            return read(in, name, path.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * Reads a scene from a stream of an XML file. The stream is not closed.
+     *
+     * @param in        the stream.
+     * @param name      the scene's name, unless the file names it.
+     * @param directory the directory the files the scene refers to (such as meshes) are relative to.
+     * @return the scene.
+     * @throws IOException if the stream could not be read, or is malformed.
+     */
+    public static Scene read(InputStream in, String name, Path directory) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        //the scene is plain XML - no document types, nor entities reaching out of it.
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = null;
+        try {
+            reader = factory.createXMLStreamReader(in);
+            return new XmlSceneReader(reader, directory).readScene(name);
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed scene file: " + e.getMessage(), e);
+        } finally {
+            if (reader != null)
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    //nothing is left to read.
+                }
+        }
+    }
+
+    /**
+     * Reads the scene element.
+     *
+     * @param name the scene's name, unless the element names it.
+     * @return the scene.
+     * @throws XMLStreamException if the XML is malformed.
+     * @throws IOException        if the scene is malformed.
+     */
+    private Scene readScene(String name) throws XMLStreamException, IOException {
+        reader.nextTag();
+        if (!"scene".equals(reader.getLocalName()))
+            throw error("the root element must be a scene");
+        Scene scene = new Scene(attribute("name", name));
+        String background = reader.getAttributeValue(null, "background-color");
+        if (background != null)
+            scene.setBackground(color(background));
+
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "ambient-light":
+                    scene.setAmbientLight(new AmbientLight(color(required("color")), number("k", 1)));
+                    endElement();
+                    break;
+                case "materials":
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                        String id = required("id");
+                        materials.put(id, readMaterial());
+                    }
+                    break;
+                case "geometries":
+                    Intersectable[] geometries = readChildren();
+                    if (geometries.length > 0)
+                        scene.geometries.add(geometries);
+                    break;
+                case "lights":
+                    while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+                        scene.lights.add(readLight());
+                    break;
+                default:
+                    throw error("unknown element " + reader.getLocalName());
+            }
+        }
+        return scene;
+    }
+
+    /**
+     * Reads the elements inside a geometries element, up to its end.
+     *
+     * @return the geometries.
+     * @throws XMLStreamException if the XML is malformed.
+     * @throws IOException        if a geometry is malformed.
+     */
+    private Intersectable[] readChildren() throws XMLStreamException, IOException {
+        List<Intersectable> children = new ArrayList<>();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if ("geometries".equals(reader.getLocalName()))
+                children.add(new Geometries(readChildren()));
+            else
+                children.add(readGeometry());
+        }
+        return children.toArray(new Intersectable[0]);
+    }
+
+    /**
+     * Reads a geometry element, up to its end.
+     *
+     * @return the geometry.
+     * @throws XMLStreamException if the XML is malformed.
+     * @throws IOException        if the geometry is malformed.
+     */
+    private Geometry readGeometry() throws XMLStreamException, IOException {
+        Geometry geometry;
+        try {
+            switch (reader.getLocalName()) {
+                case "sphere":
+                    geometry = new Sphere(point(required("center")), number("radius", Double.NaN));
+                    break;
+                case "triangle":
+                    geometry = new Triangle(point(required("p0")), point(required("p1")), point(required("p2")));
+                    break;
+                case "polygon":
+                    List<Point3D> vertices = new ArrayList<>();
+                    for (String p; (p = reader.getAttributeValue(null, "p" + vertices.size())) != null; )
+                        vertices.add(point(p));
+                    geometry = new Polygon(vertices.toArray(new Point3D[0]));
+                    break;
+                case "plane":
+                    String normal = reader.getAttributeValue(null, "normal");
+                    geometry = normal != null ? new Plane(point(required("point")), vector(normal))
+                            : new Plane(point(required("p0")), point(required("p1")), point(required("p2")));
+                    break;
+                case "tube":
+                    geometry = new Tube(new Ray(point(required("point")), vector(required("direction"))),
+                            number("radius", Double.NaN));
+                    break;
+                case "cylinder":
+                    geometry = new Cylinder(new Ray(point(required("point")), vector(required("direction"))),
+                            number("radius", Double.NaN), number("height", Double.NaN));
+                    break;
+                case "mesh":
+                    geometry = ObjLoader.load(directory.resolve(required("file")));
+                    break;
+                default:
+                    throw error("unknown geometry " + reader.getLocalName());
+            }
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+
+        String emission = reader.getAttributeValue(null, "emission");
+        if (emission != null)
+            geometry.setEmission(color(emission));
+        String material = reader.getAttributeValue(null, "material");
+        if (material != null) {
+            if (!materials.containsKey(material))
+                throw error("unknown material " + material);
+            geometry.setMaterial(materials.get(material));
+        }
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            if (!"material".equals(reader.getLocalName()))
+                throw error("unknown element " + reader.getLocalName() + " in a geometry");
+            geometry.setMaterial(readMaterial());
+        }
+        return geometry;
+    }
+
+    /**
+     * Reads a material element, up to its end.
+     *
+     * @return the material.
+     * @throws XMLStreamException if the XML is malformed.
+     * @throws IOException        if the material is malformed.
+     */
+    private Material readMaterial() throws XMLStreamException, IOException {
+        if (!"material".equals(reader.getLocalName()))
+            throw error("unknown element " + reader.getLocalName() + " instead of a material");
+        Material material = new Material();
+        material.setkD(number("kd", material.kD)).setkS(number("ks", material.kS))
+                .setkT(number("kt", material.kT)).setkR(number("kr", material.kR))
+                .setnShininess((int) number("shininess", material.nShininess));
+        try {
+            material.setGlossyRadius(number("glossy-radius", material.glossyRadius))
+                    .setDiffuseRadius(number("diffuse-radius", material.diffuseRadius));
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+        endElement();
+        return material;
+    }
+
+    /**
+     * Reads a light element, up to its end.
+     *
+     * @return the light source.
+     * @throws XMLStreamException if the XML is malformed.
+     * @throws IOException        if the light is malformed.
+     */
+    private LightSource readLight() throws XMLStreamException, IOException {
+        LightSource light;
+        String kind = reader.getLocalName();
+        Color color = color(required("color"));
+        switch (kind) {
+            case "directional-light":
+                light = new DirectionalLight(color, vector(required("direction")));
+                break;
+            case "point-light":
+            case "spot-light":
+                Point3D position = point(required("position"));
+                PointLight point = kind.equals("spot-light")
+                        ? new SpotLight(color, position, vector(required("direction")))
+                        : new PointLight(color, position);
+                light = point.setkC(number("kc", 1)).setkL(number("kl", 0)).setkQ(number("kq", 0));
+                break;
+            default:
+                throw error("unknown light " + kind);
+        }
+        endElement();
+        return light;
+    }
+
+    /**
+     * Moves to the end of an element which must have nothing inside it.
+     *
+     * @throws XMLStreamException if the XML is malformed.
+     * @throws IOException        if the element has elements inside it.
+     */
+    private void endElement() throws XMLStreamException, IOException {
+        if (reader.nextTag() != XMLStreamConstants.END_ELEMENT)
+            throw error("unexpected element " + reader.getLocalName());
+    }
+
+    /**
+     * Gets an attribute of the current element.
+     *
+     * @param name         the attribute's name.
+     * @param defaultValue the value if the element has no such attribute.
+     * @return the attribute's value.
+     */
+    private String attribute(String name, String defaultValue) {
+        String value = reader.getAttributeValue(null, name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Gets an attribute the current element must have.
+     *
+     * @param name the attribute's name.
+     * @return the attribute's value.
+     * @throws IOException if the element has no such attribute.
+     */
+    private String required(String name) throws IOException {
+        String value = reader.getAttributeValue(null, name);
+        if (value == null)
+            throw error(reader.getLocalName() + " has no " + name);
+        return value;
+    }
+
+    /**
+     * Gets a numeric attribute of the current element.
+     *
+     * @param name         the attribute's name.
+     * @param defaultValue the value if the element has no such attribute (NaN if it must have it).
+     * @return the attribute's value.
+     * @throws IOException if the attribute is not a number, or is missing and must not be.
+     */
+    private double number(String name, double defaultValue) throws IOException {
+        String value = reader.getAttributeValue(null, name);
+        if (value == null) {
+            if (Double.isNaN(defaultValue))
+                throw error(reader.getLocalName() + " has no " + name);
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw error(name + " is not a number");
+        }
+    }
+
+    /**
+     * Parses three numbers separated by spaces.
+     *
+     * @param value the text.
+     * @return the numbers.
+     * @throws IOException if the text is not three numbers.
+     */
+    private double[] triple(String value) throws IOException {
+        String[] parts = value.trim().split("\\s+");
+        if (parts.length != 3)
+            throw error("\"" + value + "\" is not three numbers");
+        try {
+            return new double[]{Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2])};
+        } catch (NumberFormatException e) {
+            throw error("\"" + value + "\" is not three numbers");
+        }
+    }
+
+    /**
+     * Parses a color - its red, green and blue components.
+     *
+     * @param value the text.
+     * @return the color.
+     * @throws IOException if the text is not a color.
+     */
+    private Color color(String value) throws IOException {
+        double[] rgb = triple(value);
+        try {
+            return new Color(rgb[0], rgb[1], rgb[2]);
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+    }
+
+    /**
+     * Parses a point - its coordinates.
+     *
+     * @param value the text.
+     * @return the point.
+     * @throws IOException if the text is not a point.
+     */
+    private Point3D point(String value) throws IOException {
+        double[] xyz = triple(value);
+        return new Point3D(xyz[0], xyz[1], xyz[2]);
+    }
+
+    /**
+     * Parses a vector - its components.
+     *
+     * @param value the text.
+     * @return the vector.
+     * @throws IOException if the text is not a vector (or is the zero vector).
+     */
+    private Vector vector(String value) throws IOException {
+        double[] xyz = triple(value);
+        try {
+            return new Vector(xyz[0], xyz[1], xyz[2]);
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the exception for a malformed scene, at the current line of the file.
+     *
+     * @param message what is wrong with the scene.
+     * @return the exception.
+     */
+    private IOException error(String message) {
+        return new IOException("Malformed scene file, line " + reader.getLocation().getLineNumber() + ": " + message);
+    }
+}
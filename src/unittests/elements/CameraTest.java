@@ -54,4 +54,35 @@ public class CameraTest {
                 camera.setViewPlaneSize(6, 6).constructRayThroughPixel(3, 3, 0, 1), "Bad ray");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for
+     * {@link elements.Camera#constructRayThroughPoint(int, int, double, double)}.
+     */
+    @Test
+    public void testConstructRayThroughPoint() {
+        Camera camera = new Camera(Point3D.ZERO, new Vector(0, 0, 1), new Vector(0, -1, 0)).setDistance(10).setViewPlaneSize(6, 6);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: 3X3 centre of pixel (0,1) - the same ray as through the pixel
+        assertEquals(camera.constructRayThroughPixel(3, 3, 0, 1),
+                camera.constructRayThroughPoint(3, 3, 0.5, 1.5), "Bad ray");
+
+        // TC02: 3X3 inside pixel (1,1)
+        assertEquals(new Ray(Point3D.ZERO, new Vector(0.5, -0.5, 10)),
+                camera.constructRayThroughPoint(3, 3, 1.75, 1.25), "Bad ray");
+
+        // TC03: point off the view plane
+        assertThrows(IllegalArgumentException.class, () -> camera.constructRayThroughPoint(3, 3, 3.5, 1),
+                "Point off the view plane does not throw an exception");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: 3X3 corner of the view plane
+        assertEquals(new Ray(Point3D.ZERO, new Vector(-3, -3, 10)),
+                camera.constructRayThroughPoint(3, 3, 0, 0), "Bad ray");
+
+        // TC12: 3X3 opposite corner of the view plane
+        assertEquals(new Ray(Point3D.ZERO, new Vector(3, 3, 10)),
+                camera.constructRayThroughPoint(3, 3, 3, 3), "Bad ray");
+    }
+}
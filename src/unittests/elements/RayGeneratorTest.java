@@ -0,0 +1,71 @@
+package elements;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import primitives.*;
+
+/**
+ * Testing RayGenerator Class
+ *
+ * @author Yosi And Eli
+ */
+public class RayGeneratorTest {
+    private final Camera camera = new Camera(new Point3D(1, 2, 3), new Vector(0, 1, 1), new Vector(0, -1, 1))
+            .setDistance(10).setViewPlaneSize(7, 5);
+
+    /**
+     * Test method for
+     * {@link elements.RayGenerator#constructRay(int, int)}.
+     */
+    @Test
+    public void testConstructRay() {
+        RayGenerator generator = camera.getRayGenerator(4, 3);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Every pixel of the view plane - the same rays as the camera's
+        for (int i = 0; i < 3; ++i)
+            for (int j = 0; j < 4; ++j)
+                assertEquals(camera.constructRayThroughPixel(4, 3, j, i), generator.constructRay(j, i), "Bad ray");
+
+        // TC02: Pixel off the view plane
+        assertThrows(IllegalArgumentException.class, () -> generator.constructRay(4, 0),
+                "Pixel off the view plane does not throw an exception");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Degenerate view plane
+        assertThrows(IllegalArgumentException.class, () -> camera.getRayGenerator(0, 3),
+                "Degenerate view plane does not throw an exception");
+
+        // TC12: Single pixel - the ray through the centre of the view plane
+        assertEquals(new Ray(new Point3D(1, 2, 3), new Vector(0, 1, 1)), camera.getRayGenerator(1, 1).constructRay(0, 0), "Bad ray");
+    }
+
+    /**
+     * Test method for
+     * {@link elements.RayGenerator#directions(int, int, int, double[])}.
+     */
+    @Test
+    public void testDirections() {
+        RayGenerator generator = camera.getRayGenerator(5, 4);
+        double[] dirs = new double[9];
+        Vec3d dir = new Vec3d();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Part of a row - the same directions as of the single pixels
+        generator.directions(2, 1, 3, dirs);
+        for (int k = 0; k < 3; ++k) {
+            generator.direction(1 + k, 2, dir);
+            assertEquals(dir.x, dirs[3 * k], "Bad direction");
+            assertEquals(dir.y, dirs[3 * k + 1], "Bad direction");
+            assertEquals(dir.z, dirs[3 * k + 2], "Bad direction");
+            assertEquals(camera.constructRayThroughPixel(5, 4, 1 + k, 2).get_dir(), dir.toVector().normalize(), "Bad direction");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Pixels past the end of the row
+        assertThrows(IllegalArgumentException.class, () -> generator.directions(2, 3, 3, dirs),
+                "Pixels off the view plane do not throw an exception");
+    }
+}
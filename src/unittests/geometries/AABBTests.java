@@ -34,4 +34,34 @@ public class AABBTests {
         //TC00: tests if hasIntersections returns false when there is no intersection with a ray.
         assertFalse(aabb.hasIntersection(new Ray(new Point3D(1000, 1000, 1000), new Vector(3, 3, 1))));
     }
+
+    /**
+     * Test method for {@link geometries.AABB#entryDistance(Ray, double)}
+     */
+    @Test
+    void entryDistanceTest() {
+        //a box from (0, 0, 0) to (2, 2, 2), once padded.
+        AABB aabb = new AABB(new Point3D(1.9, 1.9, 1.9), new Point3D(0.1, 0.1, 0.1));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: a ray entering the box along a negative direction.
+        assertEquals(3, aabb.entryDistance(new Ray(new Point3D(1, 1, 5), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY), 1e-10, "wrong entry distance");
+        //TC02: a diagonal ray entering the box through its corner.
+        assertEquals(Math.sqrt(3), aabb.entryDistance(new Ray(new Point3D(-1, -1, -1), new Vector(1, 1, 1)), Double.POSITIVE_INFINITY), 1e-10, "wrong entry distance");
+        //TC03: a ray starting inside the box enters it at once.
+        assertEquals(0, aabb.entryDistance(new Ray(new Point3D(1, 1, 1), new Vector(1, -2, 3)), Double.POSITIVE_INFINITY), "wrong entry distance");
+        //TC04: a ray missing the box, and a ray pointing away from it.
+        assertEquals(Double.POSITIVE_INFINITY, aabb.entryDistance(new Ray(new Point3D(5, 1, 5), new Vector(0, 1, -1)), Double.POSITIVE_INFINITY), "missing ray enters the box");
+        assertEquals(Double.POSITIVE_INFINITY, aabb.entryDistance(new Ray(new Point3D(1, 1, 5), new Vector(0, 0, 1)), Double.POSITIVE_INFINITY), "ray enters the box behind it");
+        //TC05: a box beyond the distance of interest.
+        assertEquals(Double.POSITIVE_INFINITY, aabb.entryDistance(new Ray(new Point3D(1, 1, 5), new Vector(0, 0, -1)), 2.5), "ray enters the box beyond the distance of interest");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: a ray parallel to a slab, on its side.
+        assertEquals(1, aabb.entryDistance(new Ray(new Point3D(0, 1, 3), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY), 1e-10, "wrong entry distance on the side");
+        //TC12: a ray parallel to a slab, outside it.
+        assertEquals(Double.POSITIVE_INFINITY, aabb.entryDistance(new Ray(new Point3D(-1, 1, 3), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY), "parallel ray enters the box");
+        //TC13: a box entered exactly at the distance of interest.
+        assertEquals(3, aabb.entryDistance(new Ray(new Point3D(1, 1, 5), new Vector(0, 0, -1)), 3), 1e-10, "ray entering at the distance of interest misses the box");
+    }
 }
@@ -0,0 +1,97 @@
+package geometries;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+/**
+ * Unit tests for geometries.BVHBuilder class
+ *
+ * @author Yosi And Eli
+ */
+class BVHBuilderTests {
+
+    /**
+     * Creates the bounds of random boxes.
+     *
+     * @param n      the amount of boxes.
+     * @param random the random numbers generator.
+     * @return the bounds, six values per box.
+     */
+    private static double[] randomBounds(int n, Random random) {
+        double[] bounds = new double[6 * n];
+        for (int i = 0; i < n; ++i)
+            for (int a = 0; a < 3; ++a) {
+                double min = random.nextDouble() * 1000;
+                bounds[6 * i + a] = min;
+                bounds[6 * i + 3 + a] = min + random.nextDouble() * 10;
+            }
+        return bounds;
+    }
+
+    /**
+     * Checks that two built subtrees are the same.
+     *
+     * @param expected the subtree of the single threaded build.
+     * @param result   the subtree of the parallel build.
+     */
+    private static void assertSameTree(BVHBuilder.Node expected, BVHBuilder.Node result) {
+        assertEquals(expected.start, result.start, "ERROR: build() wrong node range");
+        assertEquals(expected.end, result.end, "ERROR: build() wrong node range");
+        assertArrayEquals(expected.bounds, result.bounds, "ERROR: build() wrong node bounds");
+        assertEquals(expected.isLeaf(), result.isLeaf(), "ERROR: build() wrong node kind");
+        if (!expected.isLeaf()) {
+            assertSameTree(expected.left, result.left);
+            assertSameTree(expected.right, result.right);
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.BVHBuilder#build()}.
+     */
+    @Test
+    void buildTest() {
+        Random random = new Random(1);
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Enough primitives for the passes over them and the subtrees to run in parallel -
+        //the tree and the order are the same as the ones of a single threaded build.
+        double[] bounds = randomBounds(4 * BVHBuilder.PARALLEL_THRESHOLD + 123, random);
+        BVHBuilder sequential = new BVHBuilder(bounds.clone(), false), parallel = new BVHBuilder(bounds.clone());
+        BVHBuilder.Node expected = sequential.build(), result = parallel.build();
+        assertArrayEquals(sequential.order, parallel.order, "ERROR: build() wrong order");
+        assertSameTree(expected, result);
+
+        //TC02: Every primitive is in a single leaf, within the bounds of the leaf.
+        boolean[] seen = new boolean[bounds.length / 6];
+        ArrayDeque<BVHBuilder.Node> nodes = new ArrayDeque<>();
+        nodes.push(result);
+        while (!nodes.isEmpty()) {
+            BVHBuilder.Node node = nodes.pop();
+            if (!node.isLeaf()) {
+                nodes.push(node.left);
+                nodes.push(node.right);
+                continue;
+            }
+            assertTrue(node.end - node.start <= BVHBuilder.MAX_LEAF_SIZE, "ERROR: build() leaf too large");
+            for (int i = node.start; i < node.end; ++i) {
+                int primitive = parallel.order[i];
+                assertFalse(seen[primitive], "ERROR: build() primitive in two leaves");
+                seen[primitive] = true;
+                for (int a = 0; a < 3; ++a) {
+                    assertTrue(node.bounds[a] <= bounds[6 * primitive + a], "ERROR: build() primitive out of its leaf");
+                    assertTrue(node.bounds[3 + a] >= bounds[6 * primitive + 3 + a], "ERROR: build() primitive out of its leaf");
+                }
+            }
+        }
+        for (boolean b : seen)
+            assertTrue(b, "ERROR: build() primitive missing from the tree");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: No primitives.
+        assertNull(new BVHBuilder(new double[0]).build(), "ERROR: build() of no primitives is not empty");
+    }
+}
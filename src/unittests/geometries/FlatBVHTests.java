@@ -0,0 +1,55 @@
+package geometries;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+
+/**
+ * Unit tests for geometries.FlatBVH class
+ *
+ * @author Yosi And Eli
+ */
+class FlatBVHTests {
+
+    /**
+     * Test method for {@link geometries.FlatBVH#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void findGeoIntersectionsTest() {
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                geometries.add(new Sphere(new Point3D(i * 10, j * 10, -100), 3),
+                        new Triangle(new Point3D(i * 10 - 2, j * 10 - 2, -50),
+                                new Point3D(i * 10 + 2, j * 10 - 2, -50),
+                                new Point3D(i * 10, j * 10 + 2, -50)));
+        FlatBVH bvh = new FlatBVH(geometries);
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: the hierarchy finds the same intersections as the collection it was compiled from.
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j) {
+                Ray ray = new Ray(new Point3D(i * 10 + 0.5, j * 10 + 0.5, 0), new Vector(0.01, 0.01, -1));
+                List<Point3D> expected = geometries.findIntersections(ray), result = bvh.findIntersections(ray);
+                assertEquals(expected.size(), result.size(), "ERROR: findGeoIntersections() wrong amount of intersections");
+                assertEquals(ray.findClosestPoint(expected), ray.findClosestPoint(result), "ERROR: findGeoIntersections() wrong closest intersection");
+            }
+
+        //TC02: a ray missing all geometries has no intersections.
+        assertNull(bvh.findIntersections(new Ray(new Point3D(500, 500, 0), new Vector(0, 0, -1))), "ERROR: findGeoIntersections() found an intersection for a missing ray");
+
+        //TC03: a ray starting behind all geometries has no intersections.
+        assertNull(bvh.findIntersections(new Ray(new Point3D(0.5, 0.5, -200), new Vector(0, 0, -1))), "ERROR: findGeoIntersections() found an intersection behind the ray");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: a ray parallel to an axis, along the border of a box.
+        Ray ray = new Ray(new Point3D(0, 0, 0), new Vector(0, 0, -1));
+        assertEquals(geometries.findIntersections(ray).size(), bvh.findIntersections(ray).size(), "ERROR: findGeoIntersections() wrong amount of intersections for an axis aligned ray");
+
+        //TC12: an empty collection has no intersections.
+        assertNull(new FlatBVH(new Geometries()).findGeoIntersections(ray), "ERROR: findGeoIntersections() found an intersection in an empty hierarchy");
+    }
+}
@@ -0,0 +1,264 @@
+package geometries;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+
+/**
+ * Unit tests for geometries.Geometries class
+ *
+ * @author Yosi And Eli
+ */
+class GeometriesTests {
+
+    /**
+     * Creates a grid of small spheres, with a triangle in front of every sphere.
+     *
+     * @param geometries the collection to add the grid to.
+     * @param size       the amount of spheres along each side of the grid.
+     */
+    private void addGrid(Geometries geometries, int size) {
+        for (int i = 0; i < size; ++i)
+            for (int j = 0; j < size; ++j) {
+                geometries.add(new Sphere(new Point3D(i * 10, j * 10, -100), 3),
+                        new Triangle(new Point3D(i * 10 - 2, j * 10 - 2, -50),
+                                new Point3D(i * 10 + 2, j * 10 - 2, -50),
+                                new Point3D(i * 10, j * 10 + 2, -50)));
+            }
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#add(Intersectable...)}.
+     */
+    @Test
+    void addTest() {
+        Sphere sphere = new Sphere(new Point3D(0, 0, -100), 3);
+        Triangle triangle = new Triangle(new Point3D(10, -2, -50), new Point3D(14, -2, -50), new Point3D(12, 2, -50));
+        Plane plane = new Plane(new Point3D(0, 0, -200), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: adding one by one bounds the geometries like adding them all at once.
+        Geometries single = new Geometries(), bulk = new Geometries(sphere, triangle);
+        single.add(sphere);
+        single.add(triangle);
+        assertEquals(bulk.getAABB().getMin(), single.getAABB().getMin(), "ERROR: add() wrong bounding box");
+        assertEquals(bulk.getAABB().getMax(), single.getAABB().getMax(), "ERROR: add() wrong bounding box");
+
+        //TC02: adding an unbounded geometry makes the geometries unbounded, and keeps the box of the bounded ones.
+        single.add(plane);
+        assertNull(single.getAABB(), "ERROR: add() unbounded geometries have a bounding box");
+        assertEquals(3, single.findIntersections(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, -1))).size(),
+                "ERROR: add() wrong intersections");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: no geometries.
+        assertNull(new Geometries(new Intersectable[0]).getAABB(), "ERROR: add() empty geometries have a bounding box");
+
+        //TC12: a bounded geometry after an unbounded one.
+        Geometries mixed = new Geometries(plane);
+        mixed.add(sphere);
+        assertNull(mixed.getAABB(), "ERROR: add() unbounded geometries have a bounding box");
+        assertNotNull(mixed.findIntersections(new Ray(new Point3D(0, 0, 0), new Vector(0, 0, -1))), "ERROR: add() the sphere is culled");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#buildBVH()}.
+     */
+    @Test
+    void buildBVHTest() {
+        Geometries flat = new Geometries(), tree = new Geometries();
+        addGrid(flat, 10);
+        addGrid(tree, 10);
+        tree.buildBVH();
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: the hierarchy is a binary tree.
+        assertEquals(2, tree.getIntersections().size(), "ERROR: buildBVH() root should have two children");
+
+        //TC02: the hierarchy finds the same intersections as the flat list.
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j) {
+                Ray ray = new Ray(new Point3D(i * 10 + 0.5, j * 10 + 0.5, 0), new Vector(0.01, 0.01, -1));
+                List<Point3D> expected = flat.findIntersections(ray), result = tree.findIntersections(ray);
+                assertEquals(expected.size(), result.size(), "ERROR: buildBVH() wrong amount of intersections");
+                assertEquals(ray.findClosestPoint(expected), ray.findClosestPoint(result), "ERROR: buildBVH() wrong closest intersection");
+            }
+
+        //TC03: a ray missing all geometries has no intersections.
+        assertNull(tree.findIntersections(new Ray(new Point3D(500, 500, 0), new Vector(0, 0, -1))), "ERROR: buildBVH() found an intersection for a missing ray");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: a small collection is left as is.
+        Geometries small = new Geometries(new Sphere(new Point3D(0, 0, -100), 3));
+        small.buildBVH();
+        assertEquals(1, small.getIntersections().size(), "ERROR: buildBVH() changed a collection too small for a hierarchy");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestHit(Ray, Intersectable.HitRecord)}.
+     */
+    @Test
+    void findClosestHitTest() {
+        Geometries geometries = new Geometries();
+        addGrid(geometries, 10);
+        geometries.buildBVH();
+        Intersectable.HitRecord hit = new Intersectable.HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: the closest hit is the same as the closest of all the intersections.
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j) {
+                Ray ray = new Ray(new Point3D(i * 10 + 0.5, j * 10 + 0.5, 0), new Vector(0.01, 0.01, -1));
+                Intersectable.GeoPoint expected = ray.findClosestGeoPoint(geometries.findGeoIntersections(ray));
+                assertTrue(geometries.findClosestHit(ray, hit.reset(Double.POSITIVE_INFINITY)), "ERROR: findClosestHit() found no intersection");
+                assertEquals(expected, hit.toGeoPoint(ray), "ERROR: findClosestHit() wrong closest intersection");
+            }
+
+        //TC02: a ray missing all geometries records nothing.
+        assertFalse(geometries.findClosestHit(new Ray(new Point3D(500, 500, 0), new Vector(0, 0, -1)), hit.reset(Double.POSITIVE_INFINITY)), "ERROR: findClosestHit() found an intersection for a missing ray");
+        assertNull(hit.toGeoPoint(null), "ERROR: findClosestHit() recorded an intersection for a missing ray");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#findClosestHit(Ray, Intersectable.HitRecord)} front to back order.
+     */
+    @Test
+    void findClosestHitOrderTest() {
+        //counts of closest hit queries of the near and far spheres.
+        int[] queries = new int[2];
+        Intersectable near = counting(new Sphere(new Point3D(0, 0, -50), 3), queries, 0);
+        Intersectable far = counting(new Sphere(new Point3D(0, 0, -100), 3), queries, 1);
+        Geometries node = new Geometries(far, near);
+        Intersectable.HitRecord hit = new Intersectable.HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: the near box is visited first, and its hit hides the far box.
+        Ray ray = new Ray(Point3D.ZERO, new Vector(0, 0, -1));
+        assertTrue(node.findClosestHit(ray, hit.reset(Double.POSITIVE_INFINITY)), "ERROR: findClosestHit() found no intersection");
+        assertEquals(-47, hit.toGeoPoint(ray).point.getZ().getCoord(), 0.00001, "ERROR: findClosestHit() wrong closest intersection");
+        assertArrayEquals(new int[]{1, 0}, queries, "ERROR: findClosestHit() visited the hidden box");
+
+        //TC02: from behind, the far sphere is the near one.
+        ray = new Ray(new Point3D(0, 0, -200), new Vector(0, 0, 1));
+        queries[0] = queries[1] = 0;
+        assertTrue(node.findClosestHit(ray, hit.reset(Double.POSITIVE_INFINITY)), "ERROR: findClosestHit() found no intersection");
+        assertEquals(-103, hit.toGeoPoint(ray).point.getZ().getCoord(), 0.00001, "ERROR: findClosestHit() wrong closest intersection");
+        assertArrayEquals(new int[]{0, 1}, queries, "ERROR: findClosestHit() visited the hidden box");
+
+        //TC03: a ray passing by the near sphere's box to hit the far sphere.
+        ray = new Ray(new Point3D(0, 0, -75), new Vector(0, 0, -1));
+        queries[0] = queries[1] = 0;
+        assertTrue(node.findClosestHit(ray, hit.reset(Double.POSITIVE_INFINITY)), "ERROR: findClosestHit() found no intersection");
+        assertEquals(-97, hit.toGeoPoint(ray).point.getZ().getCoord(), 0.00001, "ERROR: findClosestHit() wrong closest intersection");
+        assertArrayEquals(new int[]{0, 1}, queries, "ERROR: findClosestHit() visited a missed box");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: a closer hit found before leaves both boxes out.
+        queries[0] = queries[1] = 0;
+        assertFalse(node.findClosestHit(new Ray(Point3D.ZERO, new Vector(0, 0, -1)), hit.reset(10)), "ERROR: findClosestHit() found a farther intersection");
+        assertArrayEquals(new int[]{0, 0}, queries, "ERROR: findClosestHit() visited a box beyond the closest hit");
+    }
+
+    /**
+     * Wraps a geometry with a counter of its closest hit queries.
+     *
+     * @param geometry the geometry.
+     * @param queries  the counters.
+     * @param index    the index of the geometry's counter.
+     * @return the wrapped geometry.
+     */
+    private static Intersectable counting(Geometry geometry, int[] queries, int index) {
+        return new Intersectable() {
+            @Override
+            public List<GeoPoint> findGeoIntersections(Ray ray) {
+                return geometry.findGeoIntersections(ray);
+            }
+
+            @Override
+            public boolean findClosestHit(Ray ray, HitRecord hit) {
+                ++queries[index];
+                return geometry.findClosestHit(ray, hit);
+            }
+
+            @Override
+            public AABB getAABB() {
+                return geometry.getAABB();
+            }
+        };
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#transmittance(Ray, double, double)}.
+     */
+    @Test
+    void transmittanceTest() {
+        Geometries geometries = new Geometries();
+        addGrid(geometries, 10);
+        geometries.add(new Sphere(new Point3D(200, 0, -100), 3).setMaterial(new Material().setkT(0.5)),
+                new Triangle(new Point3D(198, -2, -50), new Point3D(202, -2, -50), new Point3D(200, 2, -50))
+                        .setMaterial(new Material().setkT(0.5)));
+        geometries.buildBVH();
+        Ray transparent = new Ray(new Point3D(200.1, 0.1, 0), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: an opaque geometry blocks the light.
+        assertEquals(0, geometries.transmittance(new Ray(new Point3D(0.1, 0.1, 0), new Vector(0, 0, -1)), 200, 0.001), 0.00001, "ERROR: transmittance() light passed through an opaque geometry");
+
+        //TC02: nothing between the origin and the light.
+        assertEquals(1, geometries.transmittance(new Ray(new Point3D(500, 500, 0), new Vector(0, 0, -1)), 200, 0.001), 0.00001, "ERROR: transmittance() light blocked by nothing");
+
+        //TC03: light passes through the triangle and both sides of the sphere.
+        assertEquals(0.125, geometries.transmittance(transparent, 200, 0.001), 0.00001, "ERROR: transmittance() wrong transmittance through transparent geometries");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: geometries beyond the light don't block it.
+        assertEquals(0.5, geometries.transmittance(transparent, 75, 0.001), 0.00001, "ERROR: transmittance() geometries beyond the light blocked it");
+
+        //TC12: transmittance below the threshold is considered blocked.
+        assertEquals(0, geometries.transmittance(transparent, 200, 0.2), 0.00001, "ERROR: transmittance() light below the threshold passed");
+    }
+
+    /**
+     * Test method for {@link geometries.Geometries#getAABB()} with unbounded geometries.
+     */
+    @Test
+    void unboundedTest() {
+        Plane floor = new Plane(new Point3D(0, 0, -200), new Vector(0, 0, 1));
+        Geometries geometries = new Geometries(floor);
+        addGrid(geometries, 10);
+        geometries.buildBVH();
+        Ray ray = new Ray(new Point3D(0.1, 0.1, 0), new Vector(0, 0, -1));
+        Ray missing = new Ray(new Point3D(500, 500, 0), new Vector(0, 0, -1));
+        Intersectable.HitRecord hit = new Intersectable.HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: the collection is unbounded, and its bounded geometries stay in the hierarchy.
+        assertNull(geometries.getAABB(), "ERROR: getAABB() of unbounded geometries is not null");
+        assertEquals(3, geometries.getIntersections().size(), "ERROR: buildBVH() the plane is not a child of the root");
+
+        //TC02: a ray through the grid hits the triangle, the sphere and the plane.
+        assertEquals(4, geometries.findIntersections(ray).size(), "ERROR: findIntersections() wrong amount of intersections");
+        assertTrue(geometries.findClosestHit(ray, hit.reset(Double.POSITIVE_INFINITY)), "ERROR: findClosestHit() found no intersection");
+        assertEquals(-50, hit.toGeoPoint(ray).point.getZ().getCoord(), 0.00001, "ERROR: findClosestHit() wrong closest intersection");
+
+        //TC03: a ray missing the grid hits the plane.
+        assertEquals(List.of(new Point3D(500, 500, -200)), geometries.findIntersections(missing), "ERROR: findIntersections() missed the plane");
+        assertTrue(geometries.findClosestHit(missing, hit.reset(Double.POSITIVE_INFINITY)), "ERROR: findClosestHit() missed the plane");
+        assertSame(floor, hit.toGeoPoint(missing).geometry, "ERROR: findClosestHit() missed the plane");
+        assertEquals(0, geometries.transmittance(missing, 300, 0.001), 0.00001, "ERROR: transmittance() the plane does not block the light");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: only unbounded geometries.
+        Geometries planes = new Geometries(floor, new Plane(Point3D.ZERO, new Vector(1, 0, 0)));
+        assertNull(planes.getAABB(), "ERROR: getAABB() of unbounded geometries is not null");
+        assertEquals(2, planes.findIntersections(new Ray(new Point3D(-5, 0, 0), new Vector(1, 0, -0.01))).size(),
+                "ERROR: findIntersections() wrong amount of intersections");
+
+        //TC12: a collection with no geometries.
+        assertNull(new Geometries().findIntersections(ray), "ERROR: findIntersections() found an intersection with no geometries");
+        assertEquals(1, new Geometries().transmittance(ray, 100, 0.001), 0.00001, "ERROR: transmittance() light blocked by no geometries");
+    }
+}
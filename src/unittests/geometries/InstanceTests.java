@@ -0,0 +1,115 @@
+package geometries;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+
+/**
+ * Unit tests for geometries.Instance class
+ *
+ * @author Yosi And Eli
+ */
+class InstanceTests {
+
+    //A unit sphere and a triangle above it, shared by the instances.
+    private final Geometries shared = new Geometries(new Sphere(Point3D.ZERO, 1),
+            new Triangle(new Point3D(-1, -1, 2), new Point3D(1, -1, 2), new Point3D(0, 1, 2)));
+    //The shared object scaled by 2 and moved to (10, 0, 0).
+    private final Instance instance = new Instance(new FlatBVH(shared),
+            Transform.scaling(2).then(Transform.translation(10, 0, 0)));
+
+    /**
+     * Test method for {@link geometries.Instance#Instance(Intersectable, Transform)}.
+     */
+    @Test
+    void constructor() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The bounding box is the box around the transformed object.
+        AABB box = instance.getAABB();
+        assertTrue(box.getMin().getX().getCoord() <= 8 && box.getMax().getX().getCoord() >= 12, "ERROR: wrong bounding box");
+        assertTrue(box.getMin().getZ().getCoord() <= -2 && box.getMax().getZ().getCoord() >= 4, "ERROR: wrong bounding box");
+
+        //TC02: A shared collection of geometries is built into a hierarchy once, for all of its instances.
+        Geometries spheres = new Geometries();
+        for (int i = 0; i < 100; ++i)
+            spheres.add(new Sphere(new Point3D(3 * i, 0, 0), 1));
+        Instance first = new Instance(spheres, Transform.IDENTITY);
+        List<Intersectable> built = spheres.getIntersections();
+        assertEquals(2, built.size(), "ERROR: the shared geometries are not built into a hierarchy");
+        Instance second = new Instance(spheres, Transform.translation(0, 10, 0));
+        assertSame(built.get(0), spheres.getIntersections().get(0), "ERROR: the shared hierarchy is built again");
+        Ray ray = new Ray(new Point3D(150, 10, -10), new Vector(0, 0, 1));
+        assertNull(first.findGeoIntersections(ray), "ERROR: wrong intersections of the built hierarchy");
+        assertEquals(2, second.findGeoIntersections(ray).size(), "ERROR: wrong intersections of the built hierarchy");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: Instances of instances.
+        assertThrows(IllegalArgumentException.class, () -> new Instance(new Geometries(instance), Transform.IDENTITY),
+                "ERROR: nested instance does not throw an exception");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void findGeoIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Ray through the transformed sphere and triangle, with the normals of the transformed geometries.
+        List<Intersectable.GeoPoint> result = instance.findGeoIntersections(new Ray(new Point3D(10, 0, -10), new Vector(0, 0, 1)));
+        assertEquals(3, result.size(), "ERROR: wrong amount of intersections");
+        for (Intersectable.GeoPoint gp : result) {
+            double z = gp.point.getZ().getCoord();
+            assertTrue(Util.isZero(z + 2) || Util.isZero(z - 2) || Util.isZero(z - 4), "ERROR: wrong intersection point");
+            if (Util.isZero(z + 2))
+                assertEquals(new Vector(0, 0, -1), gp.getNormal(), "ERROR: wrong normal");
+        }
+
+        //TC02: Ray through where the shared object is, but not the instance.
+        assertNull(instance.findGeoIntersections(new Ray(new Point3D(0, 0, -10), new Vector(0, 0, 1))), "ERROR: intersections found at the shared object");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#findClosestHit(Ray, Intersectable.HitRecord)}.
+     */
+    @Test
+    void findClosestHitTest() {
+        Intersectable.HitRecord hit = new Intersectable.HitRecord();
+        Ray ray = new Ray(new Point3D(0, 0, 0), new Vector(1, 0, 0));
+        Geometries scene = new Geometries(instance, new Instance(shared, Transform.translation(20, 0, 0)));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The closest of two instances is recorded, at the distance in the scene's coordinates.
+        assertTrue(scene.findClosestHit(ray, hit), "ERROR: intersection not found");
+        assertEquals(8, hit.t, 0.00001, "ERROR: wrong distance recorded");
+        assertSame(instance, hit.instance, "ERROR: wrong instance recorded");
+        assertEquals(new Vector(-1, 0, 0), hit.toGeoPoint(ray).getNormal(), "ERROR: wrong normal");
+
+        //TC02: A geometry in front of the instance takes over the record.
+        Sphere sphere = new Sphere(new Point3D(4, 0, 0), 1);
+        assertTrue(sphere.findClosestHit(ray, hit), "ERROR: intersection not found");
+        assertNull(hit.instance, "ERROR: instance not cleared");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: The instance is beyond the recorded intersection, the record is kept.
+        assertFalse(instance.findClosestHit(ray, hit), "ERROR: farther intersection recorded");
+        assertEquals(3, hit.t, 0.00001, "ERROR: distance changed");
+    }
+
+    /**
+     * Test method for {@link geometries.Instance#transmittance(Ray, double, double)}.
+     */
+    @Test
+    void transmittanceTest() {
+        Ray ray = new Ray(new Point3D(10, 0, -10), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The light source is beyond the instance, it's blocked.
+        assertEquals(0, instance.transmittance(ray, 20, 0.001), 0.00001, "ERROR: light not blocked");
+
+        //TC02: The light source is in front of the instance (which is twice the shared object's size).
+        assertEquals(1, instance.transmittance(ray, 7.5, 0.001), 0.00001, "ERROR: light blocked");
+    }
+}
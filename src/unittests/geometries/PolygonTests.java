@@ -135,4 +135,30 @@ public class PolygonTests {
 
     }
 
+    /**
+     * Test method for {@link geometries.Polygon#findClosestHit(Ray, Intersectable.HitRecord)}.
+     */
+    @Test
+    void findClosestHitTest() {
+        Polygon polygon = new Polygon(new Point3D(0, 0, 1), new Point3D(1, 0, 1), new Point3D(1, 1, 1), new Point3D(0, 1, 1));
+        Intersectable.HitRecord hit = new Intersectable.HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the polygon
+        assertTrue(polygon.findClosestHit(new Ray(new Point3D(0.5, 0.5, 0), new Vector(0, 0, 1)), hit), "ERROR: intersection not found");
+        assertEquals(1, hit.t, 0.00001, "ERROR: wrong distance recorded");
+        assertSame(polygon, hit.geometry, "ERROR: wrong geometry recorded");
+
+        // TC02: Ray crosses the plane outside the polygon
+        hit.reset(Double.POSITIVE_INFINITY);
+        assertFalse(polygon.findClosestHit(new Ray(new Point3D(2, 0.5, 0), new Vector(0, 0, 1)), hit), "ERROR: non-existing intersection found");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Intersection is on an edge
+        assertFalse(polygon.findClosestHit(new Ray(new Point3D(1, 0.5, 0), new Vector(0, 0, 1)), hit), "ERROR: boundary intersections should not count");
+
+        // TC12: The intersection is farther than the one already recorded
+        hit.reset(0.5);
+        assertFalse(polygon.findClosestHit(new Ray(new Point3D(0.5, 0.5, 0), new Vector(0, 0, 1)), hit), "ERROR: farther intersection recorded");
+    }
 }
@@ -0,0 +1,98 @@
+package geometries;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import geometries.Intersectable.HitRecord;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+/**
+ * Unit tests for geometries.RayPacket class
+ *
+ * @author Yosi And Eli
+ */
+class RayPacketTests {
+
+    /**
+     * Test method for {@link geometries.RayPacket#add(Ray)} and {@link geometries.RayPacket#add(Point3D, double, double, double)}.
+     */
+    @Test
+    void addTest() {
+        RayPacket packet = new RayPacket(2);
+        Ray ray = new Ray(new Point3D(0, 0, 0), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The rays are added to consecutive lanes, with empty hit records.
+        assertEquals(0, packet.add(ray), "ERROR: add() wrong lane");
+        assertEquals(1, packet.add(ray), "ERROR: add() wrong lane");
+        assertSame(ray, packet.getRay(1), "ERROR: add() wrong ray");
+        assertNull(packet.getHit(1).geometry, "ERROR: add() hit record is not empty");
+
+        //TC02: A full packet.
+        assertThrows(IllegalArgumentException.class, () -> packet.add(ray), "ERROR: full packet does not throw an exception");
+        assertThrows(IllegalArgumentException.class, () -> packet.add(new Point3D(0, 0, 0), 0, 0, -1),
+                "ERROR: full packet does not throw an exception");
+
+        //TC03: A ray added by its origin and direction is created as the same ray.
+        packet.clear().add(new Point3D(1, 2, 3), 1, 2, -3);
+        assertEquals(new Ray(new Point3D(1, 2, 3), new Vector(1, 2, -3)), packet.getRay(0), "ERROR: add() wrong ray");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: A cleared packet is empty.
+        assertEquals(0, packet.clear().size(), "ERROR: clear() does not empty the packet");
+        assertEquals(0, packet.add(ray), "ERROR: add() wrong lane after clear()");
+
+        //TC12: A packet with no room for rays.
+        assertThrows(IllegalArgumentException.class, () -> new RayPacket(0), "ERROR: zero capacity does not throw an exception");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestHits(RayPacket)}.
+     */
+    @Test
+    void findClosestHitsTest() {
+        Geometries geometries = new Geometries();
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j)
+                geometries.add(new Sphere(new Point3D(i * 10, j * 10, -100), 3),
+                        new Triangle(new Point3D(i * 10 - 2, j * 10 - 2, -50),
+                                new Point3D(i * 10 + 2, j * 10 - 2, -50),
+                                new Point3D(i * 10, j * 10 + 2, -50)));
+        geometries.add(new Plane(new Point3D(0, 0, -200), new Vector(0, 0, 1)));
+        Intersectable[] structures = {geometries, new FlatBVH(geometries), geometries.buildBVH()};
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Packets of neighbouring rays (added as rays and by their directions), some hitting the triangles,
+        //some the spheres and some only the plane, find the same closest intersections as the rays one by one.
+        RayPacket packet = new RayPacket(16);
+        for (Intersectable structure : structures)
+            for (int x = -5; x < 95; x += 4)
+                for (int y = -5; y < 95; y += 4) {
+                    packet.clear();
+                    for (int i = 0; i < 4; ++i)
+                        for (int j = 0; j < 4; ++j)
+                            if ((i + j) % 2 == 0)
+                                packet.add(new Ray(new Point3D(x + i, y + j, 0), new Vector(0.01 * i, 0.01 * j, -1)));
+                            else
+                                packet.add(new Point3D(x + i, y + j, 0), 0.01 * i, 0.01 * j, -1);
+                    structure.findClosestHits(packet);
+                    for (int i = 0; i < packet.size(); ++i) {
+                        HitRecord expected = new HitRecord().reset(Double.POSITIVE_INFINITY);
+                        structure.findClosestHit(packet.getRay(i), expected);
+                        assertSame(expected.geometry, packet.getHit(i).geometry, "ERROR: findClosestHits() wrong geometry");
+                        assertEquals(expected.t, packet.getHit(i).t, 1e-9, "ERROR: findClosestHits() wrong distance");
+                    }
+                }
+
+        // =============== Boundary Values Tests ==================
+        //TC11: A packet of rays all missing the geometries.
+        packet.clear();
+        for (int i = 0; i < 4; ++i)
+            packet.add(new Ray(new Point3D(i, 0, 0), new Vector(0, 0, 1)));
+        for (Intersectable structure : structures) {
+            structure.findClosestHits(packet);
+            for (int i = 0; i < packet.size(); ++i)
+                assertNull(packet.getHit(i).geometry, "ERROR: findClosestHits() found an intersection behind the rays");
+        }
+    }
+}
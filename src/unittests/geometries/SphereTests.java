@@ -141,4 +141,34 @@ class SphereTests {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Test method for {@link geometries.Sphere#findClosestHit(Ray, Intersectable.HitRecord)}.
+     */
+    @Test
+    void findClosestHitTest() {
+        Sphere sphere = new Sphere(new Point3D(1, 0, 0), 1d);
+        Intersectable.HitRecord hit = new Intersectable.HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the sphere - the nearer intersection is recorded
+        assertTrue(sphere.findClosestHit(new Ray(new Point3D(-1, 0, 0), new Vector(1, 0, 0)), hit), "ERROR: intersection not found");
+        assertEquals(1, hit.t, 0.00001, "ERROR: wrong distance recorded");
+        assertSame(sphere, hit.geometry, "ERROR: wrong geometry recorded");
+
+        // TC02: Ray starts inside the sphere - the intersection in front of it is recorded
+        hit.reset(Double.POSITIVE_INFINITY);
+        assertTrue(sphere.findClosestHit(new Ray(new Point3D(0.5, 0, 0), new Vector(1, 0, 0)), hit), "ERROR: intersection not found");
+        assertEquals(1.5, hit.t, 0.00001, "ERROR: wrong distance recorded");
+
+        // TC03: Ray misses the sphere
+        hit.reset(Double.POSITIVE_INFINITY);
+        assertFalse(sphere.findClosestHit(new Ray(new Point3D(-1, 0, 0), new Vector(1, 1, 0)), hit), "ERROR: non-existing intersection found");
+        assertNull(hit.geometry, "ERROR: geometry recorded for a miss");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: The intersection is farther than the one already recorded
+        hit.reset(0.5);
+        assertFalse(sphere.findClosestHit(new Ray(new Point3D(-1, 0, 0), new Vector(1, 0, 0)), hit), "ERROR: farther intersection recorded");
+        assertEquals(0.5, hit.t, 0.00001, "ERROR: recorded distance changed");
+    }
+}
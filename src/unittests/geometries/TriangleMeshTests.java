@@ -0,0 +1,167 @@
+package geometries;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.util.List;
+
+/**
+ * Unit tests for geometries.TriangleMesh class
+ *
+ * @author Yosi And Eli
+ */
+class TriangleMeshTests {
+
+    //A unit square at z = 1 made of two triangles, and a triangle at z = 2 above part of it.
+    private final Point3D[] points = {
+            new Point3D(0, 0, 1), new Point3D(1, 0, 1), new Point3D(1, 1, 1), new Point3D(0, 1, 1),
+            null, new Point3D(0, 0, 2), new Point3D(1, 0, 2), new Point3D(0, 1, 2)};
+    private final TriangleMesh mesh = new TriangleMesh(points, 0, 1, 2, 0, 2, 3, 5, 6, 7);
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(Point3D[], int...)}
+     */
+    @Test
+    void constructor() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: A correct mesh.
+        assertEquals(3, mesh.size(), "ERROR: wrong amount of triangles");
+
+        //TC02: An index which is not of a vertex.
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(points, 0, 1, 8), "ERROR: index out of range does not throw an exception");
+
+        //TC03: An amount of indices which is not a multiple of three.
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(points, 0, 1), "ERROR: partial triangle does not throw an exception");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: A triangle using a null vertex.
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(points, 0, 1, 4), "ERROR: null vertex does not throw an exception");
+
+        //TC12: No triangles.
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(points), "ERROR: empty mesh does not throw an exception");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#TriangleMesh(double[], int[], double[], int[])}
+     */
+    @Test
+    void compiledConstructor() {
+        double[] vertices = mesh.getVertices(), bounds = mesh.getHierarchyBounds();
+        int[] indices = mesh.getIndices(), nodes = mesh.getHierarchyNodes();
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: A mesh compiled from another mesh's arrays finds the same intersections.
+        TriangleMesh compiled = new TriangleMesh(vertices, indices, bounds, nodes);
+        Ray ray = new Ray(new Point3D(0.2, 0.2, 0), new Vector(0, 0, 1));
+        List<Intersectable.GeoPoint> expected = mesh.findGeoIntersections(ray), result = compiled.findGeoIntersections(ray);
+        assertEquals(expected.size(), result.size(), "ERROR: compiled mesh wrong number of intersections");
+        for (int i = 0; i < expected.size(); ++i)
+            assertEquals(expected.get(i).point, result.get(i).point, "ERROR: compiled mesh wrong intersections");
+        assertEquals(mesh.getAABB().getMin(), compiled.getAABB().getMin(), "ERROR: compiled mesh wrong bounding box");
+
+        //TC02: A hierarchy whose leaves don't cover the triangles.
+        int[] badNodes = nodes.clone();
+        for (int i = 0; i < badNodes.length; i += 2)
+            if (badNodes[i + 1] > 0) {
+                badNodes[i + 1] += 1;
+                break;
+            }
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, indices, bounds, badNodes),
+                "ERROR: inconsistent hierarchy does not throw an exception");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: Node arrays of different lengths.
+        assertThrows(IllegalArgumentException.class, () -> new TriangleMesh(vertices, indices, new double[6], nodes),
+                "ERROR: mismatched hierarchy arrays do not throw an exception");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#getNormal(Point3D)}
+     */
+    @Test
+    void getNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The normal is the same as the normal of a triangle with the same vertices.
+        assertEquals(new Triangle(points[0], points[1], points[2]).getNormal(null), mesh.getNormal(new Point3D(0.5, 0.25, 1)), "ERROR: getNormal() wrong result");
+
+        //TC02: A point which is not on the mesh.
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point3D(2, 2, 1)), "ERROR: point off the mesh does not throw an exception");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findGeoIntersections(Ray)}
+     */
+    @Test
+    void findGeoIntersections() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Ray crosses two triangles.
+        List<Intersectable.GeoPoint> result = mesh.findGeoIntersections(new Ray(new Point3D(0.5, 0.25, 0), new Vector(0, 0, 1)));
+        assertEquals(2, result.size(), "ERROR: wrong amount of intersections");
+        for (Intersectable.GeoPoint gp : result)
+            assertEquals(new Vector(0, 0, 1), gp.getNormal().scale(-1), "ERROR: wrong triangle recorded");
+
+        //TC02: Ray misses the mesh.
+        assertNull(mesh.findGeoIntersections(new Ray(new Point3D(2, 0.5, 0), new Vector(0, 0, 1))), "ERROR: non-existing intersections found");
+
+        //TC03: Ray starts after the mesh.
+        assertNull(mesh.findGeoIntersections(new Ray(new Point3D(0.5, 0.25, 3), new Vector(0, 0, 1))), "ERROR: intersections found behind the ray");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: Ray crosses the edge shared by two triangles, it hits the mesh.
+        result = mesh.findGeoIntersections(new Ray(new Point3D(0.75, 0.75, 0), new Vector(0, 0, 1)));
+        assertNotNull(result, "ERROR: ray slipped between adjacent triangles");
+        assertEquals(new Point3D(0.75, 0.75, 1), result.get(0).point, "ERROR: wrong intersection point");
+
+        //TC12: Ray parallel to the triangles.
+        assertNull(mesh.findGeoIntersections(new Ray(new Point3D(0.25, 0.25, 0.5), new Vector(1, 0, 0))), "ERROR: intersections found for a parallel ray");
+
+        //TC13: Ray crosses a tiny triangle, whose determinant is below the absolute accuracy.
+        TriangleMesh tiny = new TriangleMesh(new Point3D[]{new Point3D(0.5, 0.5, 1), new Point3D(0.5 + 1e-7, 0.5, 1),
+                new Point3D(0.5, 0.5 + 1e-7, 1)}, 0, 1, 2);
+        assertNotNull(tiny.findGeoIntersections(new Ray(new Point3D(0.5 + 2e-8, 0.5 + 2e-8, 0), new Vector(0, 0, 1))),
+                "ERROR: tiny triangle culled");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#findClosestHit(Ray, Intersectable.HitRecord)}
+     */
+    @Test
+    void findClosestHitTest() {
+        Intersectable.HitRecord hit = new Intersectable.HitRecord();
+        Ray ray = new Ray(new Point3D(0.5, 0.25, 0), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The closest of two crossed triangles is recorded, with its index.
+        assertTrue(mesh.findClosestHit(ray, hit), "ERROR: intersection not found");
+        assertEquals(1, hit.t, 0.00001, "ERROR: wrong distance recorded");
+        assertSame(mesh, hit.geometry, "ERROR: wrong geometry recorded");
+        assertEquals(new Vector(0, 0, -1), hit.toGeoPoint(ray).getNormal(), "ERROR: wrong triangle recorded");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: The intersections are farther than the one already recorded.
+        hit.reset(0.5);
+        assertFalse(mesh.findClosestHit(ray, hit), "ERROR: farther intersection recorded");
+    }
+
+    /**
+     * Test method for {@link geometries.TriangleMesh#transmittance(Ray, double, double)}
+     */
+    @Test
+    void transmittanceTest() {
+        mesh.setMaterial(new Material().setkT(0.5));
+        Ray ray = new Ray(new Point3D(0.5, 0.25, 0), new Vector(0, 0, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Light crosses two transparent triangles.
+        assertEquals(0.25, mesh.transmittance(ray, 10, 0.001), 0.00001, "ERROR: wrong transmittance");
+
+        //TC02: The light source is between the triangles.
+        assertEquals(0.5, mesh.transmittance(ray, 1.5, 0.001), 0.00001, "ERROR: wrong transmittance");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: The light is blocked once the transmittance drops below the threshold.
+        assertEquals(0, mesh.transmittance(ray, 10, 0.3), 0.00001, "ERROR: light not blocked");
+    }
+}
@@ -48,4 +48,27 @@ class RayTest {
         points.add(new Point3D(1,0,0));
         assertEquals(new Point3D(1,0,0), r.findClosestPoint(points), "closest point is incorrect");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link primitives.Ray#getInvDirX()} and {@link primitives.Ray#getSignX()}
+     */
+    @Test
+    void inverseDirection() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the inverse and signs of a normalized direction
+        Ray r = new Ray(new Point3D(0, 0, 0), new Vector(2, -2, 1));
+        assertEquals(1.5, r.getInvDirX(), 1e-10, "wrong inverse direction");
+        assertEquals(-1.5, r.getInvDirY(), 1e-10, "wrong inverse direction");
+        assertEquals(3, r.getInvDirZ(), 1e-10, "wrong inverse direction");
+        assertEquals(0, r.getSignX(), "wrong direction sign");
+        assertEquals(1, r.getSignY(), "wrong direction sign");
+        assertEquals(0, r.getSignZ(), "wrong direction sign");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: components of zero have infinite inverses
+        r = new Ray(new Point3D(0, 0, 0), new Vector(0, 0, -1));
+        assertEquals(Double.POSITIVE_INFINITY, r.getInvDirX(), "wrong inverse of zero");
+        assertEquals(-1, r.getInvDirZ(), "wrong inverse direction");
+        assertEquals(1, r.getSignZ(), "wrong direction sign");
+    }
+}
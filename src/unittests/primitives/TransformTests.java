@@ -0,0 +1,80 @@
+package primitives;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for primitives.Transform class
+ *
+ * @author Yosi And Eli
+ */
+class TransformTests {
+
+    /**
+     * Test method for {@link primitives.Transform#transform(Point3D)}.
+     */
+    @Test
+    void transformPoint() {
+        Transform t = Transform.scaling(2, 3, 4).then(Transform.rotation(new Vector(0, 0, 1), Math.PI / 2))
+                .then(Transform.translation(1, 1, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Scaling, then rotating a quarter turn about z, then translating.
+        assertEquals(new Point3D(-2, 3, 5), t.transform(new Point3D(1, 1, 1)), "ERROR: transform() wrong result");
+
+        //TC02: The inverse transformation brings the point back.
+        assertEquals(new Point3D(1, 1, 1), t.inverse().transform(new Point3D(-2, 3, 5)), "ERROR: inverse() wrong result");
+
+        //TC03: The rotation turns the same way as rotating a vector about the axis.
+        assertEquals(new Vector(1, 2, 3).RotateY(0.3), Transform.rotation(new Vector(0, 2, 0), 0.3).transform(new Vector(1, 2, 3)),
+                "ERROR: rotation() wrong direction");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: The identity leaves the point in place.
+        assertEquals(new Point3D(1, 2, 3), Transform.IDENTITY.transform(new Point3D(1, 2, 3)), "ERROR: identity moves the point");
+
+        //TC12: Scaling to nothing.
+        assertThrows(IllegalArgumentException.class, () -> Transform.scaling(1, 0, 1), "ERROR: zero scaling does not throw an exception");
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#affine(double...)}.
+     */
+    @Test
+    void affine() {
+        Transform t = Transform.scaling(2, 3, 4).then(Transform.rotation(new Vector(1, 1, 0), 0.7))
+                .then(Transform.translation(1, 2, 3));
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: A transformation created from another's matrix transforms the same, and inverts back.
+        Transform copy = Transform.affine(t.getMatrix());
+        assertEquals(t.transform(new Point3D(1, -2, 5)), copy.transform(new Point3D(1, -2, 5)), "ERROR: affine() wrong transformation");
+        assertEquals(new Point3D(1, -2, 5), copy.inverse().transform(copy.transform(new Point3D(1, -2, 5))), "ERROR: affine() wrong inverse");
+
+        //TC02: A matrix of a transformation with no inverse.
+        assertThrows(IllegalArgumentException.class, () -> Transform.affine(1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0),
+                "ERROR: singular matrix does not throw an exception");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: A matrix of the wrong size.
+        assertThrows(IllegalArgumentException.class, () -> Transform.affine(1, 0, 0), "ERROR: short matrix does not throw an exception");
+    }
+
+    /**
+     * Test method for {@link primitives.Transform#transformNormal(Vector)}.
+     */
+    @Test
+    void transformNormal() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Under non uniform scaling the transformed normal is still normal to the transformed surface.
+        Transform t = Transform.scaling(2, 1, 1);
+        Vector n = t.transformNormal(new Vector(1, 1, 0));
+        Vector onPlane = t.transform(new Vector(1, -1, 0));
+        assertEquals(0, n.dotProduct(onPlane), 0.00001, "ERROR: transformNormal() is not normal to the transformed surface");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: Translations don't move normals.
+        assertEquals(new Vector(0, 0, 1), Transform.translation(5, 5, 5).transformNormal(new Vector(0, 0, 1)), "ERROR: translated normal");
+    }
+}
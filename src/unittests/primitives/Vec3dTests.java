@@ -0,0 +1,65 @@
+package primitives;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for primitives.Vec3d class
+ *
+ * @author Yosi And Eli
+ */
+class Vec3dTests {
+
+    /**
+     * Test method for {@link primitives.Vec3d#add(Vec3d)}, {@link primitives.Vec3d#subtract(Vec3d)}
+     * and {@link primitives.Vec3d#addScaled(Vector, double)}
+     */
+    @Test
+    void arithmetic() {
+        Vec3d v = new Vec3d(1, 2, 3);
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: operations change the object they are called on and return it.
+        assertSame(v, v.add(new Vec3d(1, 1, 1)), "ERROR: add() does not return the same object");
+        assertEquals(new Point3D(2, 3, 4), v.toPoint3D(), "ERROR: add() wrong result");
+        assertEquals(new Point3D(1, 1, 1), v.subtract(new Vec3d(1, 2, 3)).toPoint3D(), "ERROR: subtract() wrong result");
+        assertEquals(new Vector(3, 5, 7), v.addScaled(new Vector(1, 2, 3), 2).toVector(), "ERROR: addScaled() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: the zero vector is allowed, but can't be converted into a vector.
+        v.set(1, 1, 1).subtract(new Point3D(1, 1, 1));
+        assertEquals(0, v.lengthSquared(), 0.00001, "ERROR: subtract() wrong result");
+        assertThrows(IllegalArgumentException.class, v::toVector, "ERROR: zero vector does not throw an exception");
+    }
+
+    /**
+     * Test method for {@link primitives.Vec3d#cross(Vec3d, Vec3d)} and {@link primitives.Vec3d#dot(Vec3d)}
+     */
+    @Test
+    void products() {
+        Vec3d v1 = new Vec3d(1, 2, 3), v3 = new Vec3d(0, 3, -2);
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: same results as the immutable vector.
+        assertEquals(new Vector(1, 2, 3).crossProduct(new Vector(0, 3, -2)), new Vec3d().cross(v1, v3).toVector(), "ERROR: cross() wrong result");
+        assertEquals(new Vector(1, 2, 3).dotProduct(new Vector(0, 3, -2)), v1.dot(v3), 0.00001, "ERROR: dot() wrong result");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: the result may be written into one of the operands.
+        Vec3d expected = new Vec3d().cross(v1, v3);
+        assertEquals(expected.toVector(), v1.cross(v1, v3).toVector(), "ERROR: cross() into an operand wrong result");
+    }
+
+    /**
+     * Test method for {@link primitives.Vec3d#normalize()}
+     */
+    @Test
+    void normalize() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: normalized triple has a length of one and the same direction.
+        Vec3d v = new Vec3d(1, 2, 3).normalize();
+        assertEquals(1, v.length(), 0.00001, "ERROR: normalize() result is not a unit vector");
+        assertEquals(new Vector(1, 2, 3).normalized(), v.toVector(), "ERROR: normalize() wrong direction");
+    }
+}
@@ -0,0 +1,203 @@
+package renderer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import geometries.Intersectable.HitRecord;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.List;
+
+/**
+ * Unit tests for renderer.RayTracerBasic class
+ *
+ * @author Yosi And Eli
+ */
+class RayTracerBasicTests {
+
+    /**
+     * Geometries which count the closest intersection queries cast at them.
+     */
+    private static class CountingGeometries implements Intersectable {
+        private final Intersectable geometries;
+        private long queries = 0;
+
+        /**
+         * Constructor for the counter of some geometries.
+         *
+         * @param geometries the geometries.
+         */
+        CountingGeometries(Intersectable geometries) {
+            this.geometries = geometries;
+        }
+
+        @Override
+        public List<GeoPoint> findGeoIntersections(Ray ray) {
+            return geometries.findGeoIntersections(ray);
+        }
+
+        @Override
+        public boolean findClosestHit(Ray ray, HitRecord hit) {
+            ++queries;
+            return geometries.findClosestHit(ray, hit);
+        }
+
+        @Override
+        public AABB getAABB() {
+            return geometries.getAABB();
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.RayTracerBasic#setRussianRouletteK(double)}.
+     */
+    @Test
+    void setRussianRouletteK() {
+        //Two facing emitting half mirrors, with a ray bouncing between them until the level of the recursion ends.
+        Material mirror = new Material().setkR(0.5).setGlossyRadius(0);
+        Color emission = new Color(100, 100, 100);
+        CountingGeometries mirrors = new CountingGeometries(new Geometries(
+                new Triangle(new Point3D(-1000, -1000, 0), new Point3D(1000, -1000, 0), new Point3D(0, 1000, 0))
+                        .setMaterial(mirror).setEmission(emission),
+                new Triangle(new Point3D(-1000, -1000, -10), new Point3D(1000, -1000, -10), new Point3D(0, 1000, -10))
+                        .setMaterial(mirror).setEmission(emission)));
+        Scene scene = new Scene("mirrors").setAcceleration(Scene.Acceleration.NONE);
+        scene.geometries.add(mirrors);
+        Ray ray = new Ray(new Point3D(0, 0, -5), new Vector(0.1, 0, 1).normalized());
+
+        RayTracerBasic tracer = new RayTracerBasic(scene);
+        double expected = tracer.traceRay(ray).getRed();
+        long queries = mirrors.queries;
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: With Russian roulette the average color is the same, and less rays are cast.
+        tracer.setRussianRouletteK(0.9);
+        int samples = 100000;
+        mirrors.queries = 0;
+        double sum = 0;
+        for (int i = 0; i < samples; ++i)
+            sum += tracer.traceRay(ray).getRed();
+        assertEquals(expected, sum / samples, 0.02 * expected, "ERROR: Russian roulette changes the average color");
+        assertTrue(mirrors.queries < queries * samples / 2, "ERROR: Russian roulette does not cut the rays");
+
+        //TC02: A k out of range.
+        assertThrows(IllegalArgumentException.class, () -> tracer.setRussianRouletteK(-0.1), "ERROR: negative k does not throw an exception");
+        assertThrows(IllegalArgumentException.class, () -> tracer.setRussianRouletteK(1.1), "ERROR: k above one does not throw an exception");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: A k of zero turns Russian roulette off.
+        tracer.setRussianRouletteK(0);
+        mirrors.queries = 0;
+        assertEquals(expected, tracer.traceRay(ray).getRed(), "ERROR: Russian roulette is not turned off");
+        assertEquals(queries, mirrors.queries, "ERROR: Russian roulette is not turned off");
+    }
+
+    /**
+     * Builds a scene of a glossy mirror facing the xy plane at the origin, which reflects the rays cast down at it
+     * to a wall above, split to two colors along the line x - y = edge.
+     *
+     * @param kR the reflection coefficient of the mirror.
+     * @param edge where the wall's colors meet.
+     * @param walls the counter of the queries cast at the geometries.
+     * @return the scene.
+     */
+    private static Scene glossyScene(double kR, double edge, CountingGeometries[] walls) {
+        Scene scene = new Scene("gloss").setAcceleration(Scene.Acceleration.NONE);
+        walls[0] = new CountingGeometries(new Geometries(
+                new Triangle(new Point3D(-1000, -1000, 0), new Point3D(1000, -1000, 0), new Point3D(0, 1000, 0))
+                        .setMaterial(new Material().setkR(kR).setGlossyRadius(2)),
+                new Triangle(new Point3D(edge - 10000, -10000, 20), new Point3D(edge + 10000, 10000, 20), new Point3D(edge + 10000, -10000, 20))
+                        .setEmission(new Color(100, 0, 0)),
+                new Triangle(new Point3D(edge - 10000, -10000, 20), new Point3D(edge + 10000, 10000, 20), new Point3D(edge - 10000, 10000, 20))
+                        .setEmission(new Color(0, 0, 100))));
+        scene.geometries.add(walls[0]);
+        return scene;
+    }
+
+    /**
+     * Test method for {@link renderer.RayTracerBasic#setGlossyDiffuseThreshold(double)}.
+     */
+    @Test
+    void setGlossyDiffuseThreshold() {
+        Ray ray = new Ray(new Point3D(0, 0, 10), new Vector(0, 0, -1));
+        CountingGeometries[] walls = new CountingGeometries[1];
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: A wall of a single color - only the pilots are cast (primary ray, reflected ray and four pilots),
+        //and their average is the wall's color.
+        RayTracerBasic tracer = new RayTracerBasic(glossyScene(1, 100, walls));
+        assertEquals(new Color(0, 0, 100).getColor(), tracer.traceRay(ray).getColor(), "ERROR: wrong glossy color");
+        assertEquals(6, walls[0].queries, "ERROR: the pilots of a flat gloss are not enough");
+
+        //TC02: An edge running along the first axis of the ring (x = y), close to the reflected ray - the pilots off that
+        //axis see it, and the whole ring (ten rays) is cast, with the same color as a threshold of zero.
+        tracer = new RayTracerBasic(glossyScene(1, 0.6, walls));
+        Color adaptive = tracer.traceRay(ray);
+        assertEquals(12, walls[0].queries, "ERROR: an edge in the gloss does not cast the whole ring");
+        walls[0].queries = 0;
+        assertEquals(adaptive.getColor(), tracer.setGlossyDiffuseThreshold(0).traceRay(ray).getColor(),
+                "ERROR: the adaptive gloss is not the whole ring's color");
+        assertEquals(12, walls[0].queries, "ERROR: a threshold of zero does not cast the whole ring");
+
+        //TC03: A half mirror - the ring shrinks to three angles, all cast.
+        tracer = new RayTracerBasic(glossyScene(0.5, 100, walls)).setGlossyDiffuseThreshold(0);
+        tracer.traceRay(ray);
+        assertEquals(8, walls[0].queries, "ERROR: the ring does not shrink with the coefficient");
+
+        //TC04: A threshold below zero.
+        RayTracerBasic negative = tracer;
+        assertThrows(IllegalArgumentException.class, () -> negative.setGlossyDiffuseThreshold(-1),
+                "ERROR: negative threshold does not throw an exception");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: A threshold of zero casts the whole ring, even on a wall of a single color.
+        tracer = new RayTracerBasic(glossyScene(1, 100, walls)).setGlossyDiffuseThreshold(0);
+        assertEquals(new Color(0, 0, 100).getColor(), tracer.traceRay(ray).getColor(), "ERROR: wrong glossy color");
+        assertEquals(12, walls[0].queries, "ERROR: a threshold of zero does not cast the whole ring");
+
+        //TC12: The same mirror one bounce deeper (behind a perfect mirror) - the ring shrinks to three angles.
+        Scene scene = new Scene("gloss").setAcceleration(Scene.Acceleration.NONE);
+        walls[0] = new CountingGeometries(new Geometries(
+                new Triangle(new Point3D(-1, -1, 1), new Point3D(1, -1, -1), new Point3D(0, 1, 0))
+                        .setMaterial(new Material().setkR(1).setGlossyRadius(0)),
+                new Triangle(new Point3D(9, -1, -1), new Point3D(11, -1, 1), new Point3D(10, 1, 0))
+                        .setMaterial(new Material().setkR(1).setGlossyRadius(2)),
+                new Triangle(new Point3D(-1000, -1000, 20), new Point3D(1000, -1000, 20), new Point3D(0, 1000, 20))
+                        .setEmission(new Color(0, 0, 100))));
+        scene.geometries.add(walls[0]);
+        new RayTracerBasic(scene).setGlossyDiffuseThreshold(0).traceRay(ray);
+        assertEquals(9, walls[0].queries, "ERROR: the ring does not shrink with the depth");
+    }
+
+    /**
+     * Test method for {@link renderer.RayTracerBasic#traceRays(RayPacket, Color[])}.
+     */
+    @Test
+    void traceRays() {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: With every acceleration, a packet of rays gets the same colors as the rays traced one by one.
+        for (Scene.Acceleration acceleration : Scene.Acceleration.values()) {
+            Scene scene = new Scene("packet").setAcceleration(acceleration).setBackground(new Color(1, 2, 3));
+            scene.geometries.add(new Sphere(new Point3D(0, 0, -100), 20).setEmission(new Color(0, 0, 100)),
+                    new Triangle(new Point3D(-30, -30, -50), new Point3D(0, -30, -50), new Point3D(-30, 0, -50))
+                            .setEmission(new Color(100, 0, 0)));
+            RayTracerBasic tracer = new RayTracerBasic(scene);
+            RayPacket packet = new RayPacket(16);
+            Color[] colors = new Color[packet.capacity()];
+            for (int x = -40; x < 40; x += 8)
+                for (int y = -40; y < 40; y += 8) {
+                    packet.clear();
+                    for (int i = 0; i < 4; ++i)
+                        for (int j = 0; j < 4; ++j)
+                            packet.add(new Ray(new Point3D(x + 2 * i, y + 2 * j, 0), new Vector(0, 0, -1)));
+                    tracer.traceRays(packet, colors);
+                    for (int i = 0; i < packet.size(); ++i)
+                        assertEquals(tracer.traceRay(packet.getRay(i)).getColor(), colors[i].getColor(),
+                                "ERROR: traceRays() wrong color with " + acceleration);
+                }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package renderer;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 import org.junit.jupiter.api.Test;
 
 import elements.*;
@@ -7,6 +9,10 @@ import geometries.*;
 import primitives.*;
 import renderer.*;
 import scene.Scene;
+import scene.io.XmlSceneReader;
+
+import java.io.IOException;
+import java.nio.file.Paths;
 
 /**
  * Test rendering a basic image
@@ -53,10 +59,9 @@ public class RenderTests {
      * Test for XML based scene - for bonus
      */
     @Test
-    public void basicRenderXml() {
-        Scene scene = new Scene("XML Test scene");
-        // enter XML file name and parse from XML file into scene object
-        // ...
+    public void basicRenderXml() throws IOException {
+        // the same scene as basicRenderTwoColorTest, parsed from an XML file into a scene object
+        Scene scene = XmlSceneReader.read(Paths.get("xml", "basicRenderTestTwoColors.xml"));
 
         ImageWriter imageWriter = new ImageWriter("xml render test", 1000, 1000);
         Render render = new Render() //
@@ -99,4 +104,84 @@ public class RenderTests {
         render.printGrid(100, new Color(java.awt.Color.WHITE));
         render.writeToImage();
     }
+
+    /**
+     * Produce the multi color scene with adaptive anti-aliasing - the edges of the bodies are smoothed
+     */
+    @Test
+    public void basicRenderAntiAliasingTest() {
+        Scene scene = new Scene("Test scene")//
+                .setAmbientLight(new AmbientLight(new Color(java.awt.Color.WHITE), 0.2)); //
+
+        scene.geometries.add(new Sphere(new Point3D(0, 0, -100), 50) //
+                        .setEmission(new Color(java.awt.Color.CYAN)), //
+                new Triangle(new Point3D(-100, 0, -100), new Point3D(0, 100, -100), new Point3D(-100, 100, -100)) // up left
+                        .setEmission(new Color(java.awt.Color.GREEN)),
+                new Triangle(new Point3D(100, 0, -100), new Point3D(0, 100, -100), new Point3D(100, 100, -100)), // up right
+                new Triangle(new Point3D(-100, 0, -100), new Point3D(0, -100, -100), new Point3D(-100, -100, -100)) // down left
+                        .setEmission(new Color(java.awt.Color.RED)),
+                new Triangle(new Point3D(100, 0, -100), new Point3D(0, -100, -100), new Point3D(100, -100, -100)) // down right
+                        .setEmission(new Color(java.awt.Color.BLUE)));
+
+        ImageWriter imageWriter = new ImageWriter("anti aliasing render test", 500, 500);
+        Render render = new Render() //
+                .setImageWriter(imageWriter) //
+                .setCamera(camera) //
+                .setRayTracer(new RayTracerBasic(scene)) //
+                .setAntiAliasing(3, 4);
+
+        render.renderImage();
+        render.writeToImage();
+
+        // the samples along a tile's side must be numbered by an int, whichever of the settings comes last
+        assertThrows(IllegalArgumentException.class, () -> new Render().setAntiAliasing(8, 4).setTileSize(256),
+                "tile too large for the anti-aliasing depth");
+        assertThrows(IllegalArgumentException.class, () -> new Render().setTileSize(256).setAntiAliasing(8, 4),
+                "anti-aliasing too deep for the tile size");
+    }
+
+    /**
+     * Produce the multi color scene progressively - the image is written after every pass
+     * and is complete after the last one
+     */
+    @Test
+    public void basicRenderProgressiveTest() {
+        Scene scene = new Scene("Test scene")//
+                .setAmbientLight(new AmbientLight(new Color(java.awt.Color.WHITE), 0.2)); //
+
+        scene.geometries.add(new Sphere(new Point3D(0, 0, -100), 50) //
+                        .setEmission(new Color(java.awt.Color.CYAN)), //
+                new Triangle(new Point3D(-100, 0, -100), new Point3D(0, 100, -100), new Point3D(-100, 100, -100)) // up left
+                        .setEmission(new Color(java.awt.Color.GREEN)),
+                new Triangle(new Point3D(-100, 0, -100), new Point3D(0, -100, -100), new Point3D(-100, -100, -100)) // down left
+                        .setEmission(new Color(java.awt.Color.RED)));
+
+        ImageWriter imageWriter = new ImageWriter("progressive render test", 500, 500);
+        Render render = new Render() //
+                .setImageWriter(imageWriter) //
+                .setCamera(camera) //
+                .setRayTracer(new RayTracerBasic(scene)) //
+                .setProgressive(4) //
+                .setMultithreading(2);
+
+        render.renderImage();
+        assertTrue(render.isFinished(), "progressive rendering did not finish");
+        render.writeToImage();
+
+        // cancelling when the first pass is written stops the rendering with the first pass's image
+        render.setImageWriter(new ImageWriter("progressive render cancelled test", 500, 500) {
+            @Override
+            public void writeToImage() {
+                super.writeToImage();
+                render.cancel();
+            }
+        });
+        render.renderImage();
+        assertFalse(render.isFinished(), "rendering did not stop at the cancellation");
+
+        // a cancellation before the rendering starts is not lost
+        render.setImageWriter(imageWriter).cancel();
+        render.renderImage();
+        assertFalse(render.isFinished(), "rendering did not stop at the cancellation issued before it");
+    }
 }
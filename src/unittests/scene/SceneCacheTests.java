@@ -0,0 +1,208 @@
+package scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import elements.*;
+import geometries.*;
+import geometries.Intersectable.GeoPoint;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unit tests for scene.SceneCache class
+ *
+ * @author Yosi And Eli
+ */
+class SceneCacheTests {
+
+    /**
+     * Builds a scene with every kind of light and geometry.
+     *
+     * @return the scene.
+     */
+    private static Scene buildScene() {
+        Material shiny = new Material().setkD(0.5).setkS(0.5).setnShininess(60).setkR(0.2).setGlossyRadius(0.1);
+        TriangleMesh mesh = new TriangleMesh(new Point3D[]{new Point3D(0, 0, 1), new Point3D(1, 0, 1),
+                new Point3D(1, 1, 1), new Point3D(0, 1, 1)}, 0, 1, 2, 0, 2, 3);
+        mesh.setMaterial(shiny).setEmission(new Color(20, 30, 40));
+
+        Scene scene = new Scene("cached").setBackground(new Color(1, 2, 3))
+                .setAmbientLight(new AmbientLight(new Color(10, 10, 10), 0.5))
+                .setAcceleration(Scene.Acceleration.FLAT_BVH);
+        scene.geometries.add(mesh,
+                new Instance(mesh, Transform.translation(5, 0, 0)),
+                new Instance(mesh, Transform.scaling(2).then(Transform.translation(-5, 0, 0))),
+                new Sphere(new Point3D(0, 0, -3), 1).setMaterial(shiny),
+                new Geometries(new Triangle(new Point3D(0, 0, 4), new Point3D(1, 0, 4), new Point3D(0, 1, 4)),
+                        new Polygon(new Point3D(0, 0, 5), new Point3D(1, 0, 5), new Point3D(1, 1, 5), new Point3D(0, 1, 5))),
+                new Cylinder(new Ray(new Point3D(3, 3, 3), new Vector(0, 0, 1)), 1, 2),
+                new Plane(new Point3D(0, 0, -10), new Vector(0, 0, 1)));
+        scene.lights.add(new DirectionalLight(new Color(100, 100, 100), new Vector(0, 0, -1)));
+        scene.lights.add(new PointLight(new Color(200, 0, 0), new Point3D(1, 2, 3)).setkL(0.1).setkQ(0.01));
+        scene.lights.add(new SpotLight(new Color(0, 200, 0), new Point3D(-1, -2, -3), new Vector(1, 0, 0)).setkC(2));
+        return scene;
+    }
+
+    /**
+     * Test method for {@link scene.SceneCache#write(Scene, Path)} and {@link scene.SceneCache#read(Path)}.
+     *
+     * @throws IOException if the cache could not be written or read.
+     */
+    @Test
+    void writeRead() throws IOException {
+        Path path = Files.createTempFile("scene", ".cache");
+        try {
+            writeRead(path);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Tests writing and reading the scene through a cache file.
+     *
+     * @param path the cache file.
+     * @throws IOException if the cache could not be written or read.
+     */
+    private void writeRead(Path path) throws IOException {
+        Scene scene = buildScene();
+        SceneCache.write(scene, path);
+        Scene loaded = SceneCache.read(path);
+
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: The scene's own properties.
+        assertEquals("cached", loaded.name, "ERROR: wrong name");
+        assertEquals(3, loaded.background.getBlue(), "ERROR: wrong background");
+        assertEquals(5, loaded.ambientLight.getIntensity().getRed(), "ERROR: wrong ambient light");
+        assertEquals(Scene.Acceleration.FLAT_BVH, loaded.acceleration, "ERROR: wrong acceleration");
+
+        //TC02: The lights, by kind and parameters.
+        assertEquals(3, loaded.lights.size(), "ERROR: wrong number of lights");
+        assertTrue(loaded.lights.get(0) instanceof DirectionalLight, "ERROR: wrong kind of light");
+        PointLight point = (PointLight) loaded.lights.get(1);
+        assertEquals(new Point3D(1, 2, 3), point.getPosition(), "ERROR: wrong light position");
+        assertEquals(0.01, point.getkQ(), "ERROR: wrong light attenuation");
+        SpotLight spot = (SpotLight) loaded.lights.get(2);
+        assertEquals(new Vector(1, 0, 0), spot.getDirection(), "ERROR: wrong spot light direction");
+        assertEquals(2, spot.getkC(), "ERROR: wrong spot light attenuation");
+
+        //TC03: The mesh keeps its arrays and hierarchy, material and emission.
+        List<Intersectable> geometries = loaded.geometries.getIntersections();
+        assertEquals(7, geometries.size(), "ERROR: wrong number of geometries");
+        TriangleMesh mesh = (TriangleMesh) geometries.get(0), original = (TriangleMesh) scene.geometries.getIntersections().get(0);
+        assertTrue(Arrays.equals(original.getVertices(), mesh.getVertices()), "ERROR: wrong mesh vertices");
+        assertArrayEquals(original.getIndices(), mesh.getIndices(), "ERROR: wrong mesh indices");
+        assertTrue(Arrays.equals(original.getHierarchyBounds(), mesh.getHierarchyBounds()), "ERROR: wrong mesh hierarchy");
+        assertArrayEquals(original.getHierarchyNodes(), mesh.getHierarchyNodes(), "ERROR: wrong mesh hierarchy");
+        assertEquals(60, mesh.getMaterial().nShininess, "ERROR: wrong material");
+        assertEquals(40, mesh.getEmission().getBlue(), "ERROR: wrong emission");
+
+        //TC04: Shared objects and materials stay shared.
+        assertSame(mesh, ((Instance) geometries.get(1)).getObject(), "ERROR: instanced object is not shared");
+        assertSame(mesh, ((Instance) geometries.get(2)).getObject(), "ERROR: instanced object is not shared");
+        assertSame(mesh.getMaterial(), ((Geometry) geometries.get(3)).getMaterial(), "ERROR: material is not shared");
+
+        //TC05: The scenes are intersected the same.
+        Ray ray = new Ray(new Point3D(-4.5, 0.5, -20), new Vector(0, 0, 1));
+        assertEquals(new FlatBVH(scene.geometries).findGeoIntersections(ray).size(),
+                new FlatBVH(loaded.geometries).findGeoIntersections(ray).size(),
+                "ERROR: wrong intersections");
+        assertEquals(((Geometries) scene.geometries.getIntersections().get(4)).getIntersections().size(),
+                ((Geometries) geometries.get(4)).getIntersections().size(), "ERROR: wrong nested geometries");
+
+        //TC06: A compiled hierarchy keeps its geometries and nodes, and stays shared by its instances.
+        FlatBVH bvh = new FlatBVH(new Geometries(new Sphere(new Point3D(0, 0, -3), 1), new Sphere(new Point3D(3, 0, -3), 1),
+                new Triangle(new Point3D(0, 0, 4), new Point3D(1, 0, 4), new Point3D(0, 1, 4)),
+                new Plane(new Point3D(0, 0, -10), new Vector(0, 0, 1))));
+        Scene flat = new Scene("flat");
+        flat.geometries.add(bvh, new Instance(bvh, Transform.translation(10, 0, 0)));
+        SceneCache.write(flat, path);
+        List<Intersectable> flatGeometries = SceneCache.read(path).geometries.getIntersections();
+        FlatBVH loadedBVH = (FlatBVH) flatGeometries.get(0);
+        assertEquals(3, loadedBVH.getPrimitives().length, "ERROR: wrong hierarchy geometries");
+        assertEquals(1, loadedBVH.getUnbounded().length, "ERROR: wrong hierarchy unbounded geometries");
+        assertTrue(Arrays.equals(bvh.getHierarchyBounds(), loadedBVH.getHierarchyBounds()), "ERROR: wrong hierarchy");
+        assertArrayEquals(bvh.getHierarchyNodes(), loadedBVH.getHierarchyNodes(), "ERROR: wrong hierarchy");
+        assertSame(loadedBVH, ((Instance) flatGeometries.get(1)).getObject(), "ERROR: instanced hierarchy is not shared");
+        Ray bvhRay = new Ray(new Point3D(3, 0, 20), new Vector(0, 0, -1));
+        assertEquals(bvh.findGeoIntersections(bvhRay).size(), loadedBVH.findGeoIntersections(bvhRay).size(),
+                "ERROR: wrong hierarchy intersections");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: An empty scene.
+        SceneCache.write(new Scene("empty"), path);
+        assertTrue(SceneCache.read(path).geometries.getIntersections().isEmpty(), "ERROR: empty scene is not empty");
+
+        //TC12: Objects which can't be cached.
+        Scene unknown = new Scene("unknown");
+        unknown.geometries.add(new Intersectable() {
+            @Override
+            public List<GeoPoint> findGeoIntersections(Ray ray) {
+                return null;
+            }
+
+            @Override
+            public AABB getAABB() {
+                return null;
+            }
+        });
+        assertThrows(IllegalArgumentException.class, () -> SceneCache.write(unknown, path),
+                "ERROR: unknown object does not throw an exception");
+
+        //TC13: An empty compiled hierarchy.
+        Scene empty = new Scene("empty");
+        empty.geometries.add(new FlatBVH(new Geometries()));
+        SceneCache.write(empty, path);
+        assertEquals(0, ((FlatBVH) SceneCache.read(path).geometries.getIntersections().get(0)).getPrimitives().length,
+                "ERROR: empty hierarchy is not empty");
+    }
+
+    /**
+     * Test method for {@link scene.SceneCache#load(Path, java.util.function.Supplier)}.
+     *
+     * @throws IOException if the cache could not be written or read.
+     */
+    @Test
+    void load() throws IOException {
+        Path path = Files.createTempFile("scene", ".cache");
+        Files.delete(path);
+        try {
+            load(path);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Tests loading the scene through a cache file.
+     *
+     * @param path the cache file, missing at first.
+     * @throws IOException if the cache could not be written or read.
+     */
+    private void load(Path path) throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: Without a cache the scene is built and written.
+        Scene built = SceneCache.load(path, SceneCacheTests::buildScene);
+        assertEquals(7, built.geometries.getIntersections().size(), "ERROR: load() wrong built scene");
+        assertTrue(Files.exists(path), "ERROR: load() does not write the cache");
+
+        //TC02: With a cache the scene is read without building it.
+        Scene loaded = SceneCache.load(path, () -> fail("ERROR: load() builds a cached scene"));
+        assertEquals(7, loaded.geometries.getIntersections().size(), "ERROR: load() wrong cached scene");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: A damaged cache is not read, and is built and written again.
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> SceneCache.read(path), "ERROR: damaged cache does not throw an exception");
+        assertEquals(7, SceneCache.load(path, SceneCacheTests::buildScene).geometries.getIntersections().size(),
+                "ERROR: load() wrong rebuilt scene");
+        assertEquals(bytes.length, Files.size(path), "ERROR: load() does not write the cache again");
+    }
+}
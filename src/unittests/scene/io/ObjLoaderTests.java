@@ -0,0 +1,105 @@
+package scene.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import geometries.TriangleMesh;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Unit tests for scene.io.ObjLoader class
+ *
+ * @author Yosi And Eli
+ */
+class ObjLoaderTests {
+
+    /**
+     * Loads a mesh from the text of an OBJ file.
+     *
+     * @param text the text.
+     * @return the mesh.
+     * @throws IOException if the text is malformed.
+     */
+    private static TriangleMesh load(String text) throws IOException {
+        return ObjLoader.load(new ByteArrayInputStream(text.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    /**
+     * Test method for {@link scene.io.ObjLoader#load(java.io.InputStream)}.
+     *
+     * @throws IOException if a correct file could not be loaded.
+     */
+    @Test
+    void load() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: A unit square at z = 1 as a quad, with the statements which are skipped.
+        TriangleMesh square = load("# a square\nmtllib square.mtl\no square\n"
+                + "v 0 0 1\nv 1 0 1\nv 1 1 1\nv 0 1 1\nvt 0 0\nvn 0 0 1\n"
+                + "usemtl red\ns off\nf 1/1/1 2/1/1 3//1 4\n");
+        assertEquals(2, square.size(), "ERROR: the quad is not split into two triangles");
+        Ray ray = new Ray(new Point3D(0.9, 0.1, 0), new Vector(0, 0, 1));
+        assertEquals(new Point3D(0.9, 0.1, 1), square.findGeoIntersections(ray).get(0).point, "ERROR: wrong mesh");
+
+        //TC02: Faces referring to the last vertices, with tabs, carriage returns and no newline at the end.
+        TriangleMesh relative = load("v 0 0 1\r\nv 1 0 1\r\n\tv\t1 1 1 1.0\r\nf -3 -2 -1\r\nv 0 1 1\r\nf 1 3 -1");
+        assertEquals(2, relative.size(), "ERROR: wrong amount of triangles");
+        assertArrayEquals(new int[]{0, 1, 2, 0, 2, 3}, sorted(relative.getIndices()), "ERROR: wrong relative vertices");
+
+        //TC03: The numbers are the same as Double.parseDouble's.
+        String[] numbers = {"0.1", "-123.456", "1e-3", "+2.5E+2", "0.000123456789", "123456789.123456789",
+                "3.141592653589793238", "1e300", ".5", "7."};
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < numbers.length; i += 2)
+            text.append("v ").append(numbers[i]).append(' ').append(numbers[i + 1]).append(" 0\n");
+        TriangleMesh parsed = load(text.append("f 1 2 3\n").toString());
+        double[] vertices = parsed.getVertices();
+        for (int i = 0; i < numbers.length; ++i)
+            assertEquals(Double.parseDouble(numbers[i]), vertices[3 * (i / 2) + i % 2], "ERROR: wrong number " + numbers[i]);
+
+        //TC04: Malformed numbers, and faces referring to missing vertices.
+        assertThrows(IOException.class, () -> load("v 0 0 1.2.3\nv 1 0 1\nv 1 1 1\nf 1 2 3\n"), "ERROR: malformed number does not throw an exception");
+        assertThrows(IOException.class, () -> load("v 0 0 1\nv 1 0 1\nv 1 1 1\nf 1 2 4\n"), "ERROR: missing vertex does not throw an exception");
+        assertThrows(IOException.class, () -> load("v 0 0 1\nv 1 0 1\nv 1 1 1\nf -4 2 3\n"), "ERROR: missing vertex does not throw an exception");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: A face of two vertices.
+        assertThrows(IOException.class, () -> load("v 0 0 1\nv 1 0 1\nf 1 2\n"), "ERROR: two vertex face does not throw an exception");
+
+        //TC12: No faces.
+        assertThrows(IOException.class, () -> load("v 0 0 1\n"), "ERROR: file without faces does not throw an exception");
+
+        //TC13: A vertex number of zero.
+        assertThrows(IOException.class, () -> load("v 0 0 1\nv 1 0 1\nv 1 1 1\nf 0 1 2\n"), "ERROR: vertex zero does not throw an exception");
+
+        //TC14: A line longer than the buffer.
+        char[] comment = new char[3 << 20];
+        Arrays.fill(comment, 'x');
+        assertEquals(1, load("#" + new String(comment) + "\nv 0 0 1\nv 1 0 1\nv 1 1 1\nf 1 2 3\n").size(),
+                "ERROR: long line is not skipped");
+    }
+
+    /**
+     * Sorts the vertex indices of every triangle, and the triangles by their first vertex indices - the mesh keeps
+     * its triangles in the order of its hierarchy.
+     *
+     * @param indices the triangles' vertex indices.
+     * @return the triangles' sorted vertex indices.
+     */
+    private static int[] sorted(int[] indices) {
+        int[][] triangles = new int[indices.length / 3][];
+        for (int i = 0; i < triangles.length; ++i) {
+            triangles[i] = Arrays.copyOfRange(indices, 3 * i, 3 * i + 3);
+            Arrays.sort(triangles[i]);
+        }
+        Arrays.sort(triangles, (a, b) -> a[0] != b[0] ? a[0] - b[0] : a[1] != b[1] ? a[1] - b[1] : a[2] - b[2]);
+        int[] res = new int[indices.length];
+        for (int i = 0; i < triangles.length; ++i)
+            System.arraycopy(triangles[i], 0, res, 3 * i, 3);
+        return res;
+    }
+}
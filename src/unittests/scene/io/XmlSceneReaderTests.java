@@ -0,0 +1,141 @@
+package scene.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import elements.*;
+import geometries.*;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Unit tests for scene.io.XmlSceneReader class
+ *
+ * @author Yosi And Eli
+ */
+class XmlSceneReaderTests {
+
+    /**
+     * Reads a scene from the text of an XML file.
+     *
+     * @param text      the text.
+     * @param directory the directory the files of the scene are relative to.
+     * @return the scene.
+     * @throws IOException if the text is malformed.
+     */
+    private static Scene read(String text, Path directory) throws IOException {
+        return XmlSceneReader.read(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), "test", directory);
+    }
+
+    /**
+     * Test method for {@link scene.io.XmlSceneReader#read(java.io.InputStream, String, Path)}.
+     *
+     * @throws IOException if a correct scene could not be read.
+     */
+    @Test
+    void read() throws IOException {
+        Path obj = Files.createTempFile("mesh", ".obj");
+        try {
+            Files.write(obj, "v 0 0 1\nv 1 0 1\nv 1 1 1\nv 0 1 1\nf 1 2 3 4\n".getBytes(StandardCharsets.ISO_8859_1));
+            read(obj);
+        } finally {
+            Files.delete(obj);
+        }
+    }
+
+    /**
+     * Tests reading scenes, with a mesh from an OBJ file.
+     *
+     * @param obj the OBJ file of the mesh.
+     * @throws IOException if a correct scene could not be read.
+     */
+    private void read(Path obj) throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        //TC01: A scene with every kind of light and geometry, and shared and inner materials.
+        Scene scene = read("<?xml version=\"1.0\"?>\n"
+                + "<scene background-color=\"1 2 3\">\n"
+                + "  <ambient-light color=\"10 10 10\" k=\"0.5\"/>\n"
+                + "  <materials><material id=\"shiny\" kd=\"0.5\" ks=\"0.5\" shininess=\"60\" glossy-radius=\"0.1\"/></materials>\n"
+                + "  <geometries>\n"
+                + "    <sphere center=\"0 0 -100\" radius=\"50\" emission=\"0 0 255\" material=\"shiny\"/>\n"
+                + "    <triangle p0=\"-100 0 -100\" p1=\"0 100 -100\" p2=\"-100 100 -100\">\n"
+                + "      <material kt=\"0.5\" kr=\"0.25\"/>\n"
+                + "    </triangle>\n"
+                + "    <polygon p0=\"0 0 5\" p1=\"1 0 5\" p2=\"1 1 5\" p3=\"0 1 5\" material=\"shiny\"/>\n"
+                + "    <geometries>\n"
+                + "      <plane point=\"0 0 -200\" normal=\"0 0 1\"/>\n"
+                + "      <plane p0=\"0 0 -300\" p1=\"1 0 -300\" p2=\"0 1 -300\"/>\n"
+                + "      <sphere center=\"0 0 -400\" radius=\"1\"/>\n"
+                + "    </geometries>\n"
+                + "    <tube point=\"0 0 0\" direction=\"0 0 1\" radius=\"1\"/>\n"
+                + "    <cylinder point=\"0 0 0\" direction=\"0 0 1\" radius=\"1\" height=\"2\"/>\n"
+                + "    <mesh file=\"" + obj.getFileName() + "\"/>\n"
+                + "  </geometries>\n"
+                + "  <lights>\n"
+                + "    <directional-light color=\"100 100 100\" direction=\"0 0 -1\"/>\n"
+                + "    <point-light color=\"200 0 0\" position=\"1 2 3\" kl=\"0.1\" kq=\"0.01\"/>\n"
+                + "    <spot-light color=\"0 200 0\" position=\"-1 -2 -3\" direction=\"1 0 0\" kc=\"2\"/>\n"
+                + "  </lights>\n"
+                + "</scene>\n", obj.getParent());
+        assertEquals("test", scene.name, "ERROR: wrong name");
+        assertEquals(3, scene.background.getBlue(), "ERROR: wrong background");
+        assertEquals(5, scene.ambientLight.getIntensity().getRed(), "ERROR: wrong ambient light");
+
+        List<Intersectable> geometries = scene.geometries.getIntersections();
+        assertEquals(7, geometries.size(), "ERROR: wrong number of geometries");
+        Sphere sphere = (Sphere) geometries.get(0);
+        assertEquals(new Point3D(0, 0, -100), sphere.get_center(), "ERROR: wrong sphere");
+        assertEquals(255, sphere.getEmission().getBlue(), "ERROR: wrong emission");
+        assertEquals(60, sphere.getMaterial().nShininess, "ERROR: wrong named material");
+        assertSame(sphere.getMaterial(), ((Geometry) geometries.get(2)).getMaterial(), "ERROR: named material is not shared");
+        assertEquals(0.25, ((Geometry) geometries.get(1)).getMaterial().kR, "ERROR: wrong inner material");
+        assertEquals(4, ((Polygon) geometries.get(2)).getVertices().size(), "ERROR: wrong polygon");
+        assertEquals(3, ((Geometries) geometries.get(3)).getIntersections().size(), "ERROR: wrong nested geometries");
+        assertEquals(2, ((Cylinder) geometries.get(5)).get_height(), "ERROR: wrong cylinder");
+        assertEquals(2, ((TriangleMesh) geometries.get(6)).size(), "ERROR: wrong mesh");
+
+        assertEquals(3, scene.lights.size(), "ERROR: wrong number of lights");
+        assertEquals(0.01, ((PointLight) scene.lights.get(1)).getkQ(), "ERROR: wrong point light");
+        assertEquals(new Vector(1, 0, 0), ((SpotLight) scene.lights.get(2)).getDirection(), "ERROR: wrong spot light");
+        assertEquals(2, ((SpotLight) scene.lights.get(2)).getkC(), "ERROR: wrong spot light");
+
+        //TC02: The scene of the rendering test, named by the file.
+        Scene file = XmlSceneReader.read(Paths.get("xml", "basicRenderTestTwoColors.xml"));
+        assertEquals("XML Test scene", file.name, "ERROR: wrong name from the file");
+        assertEquals(5, file.geometries.getIntersections().size(), "ERROR: wrong geometries from the file");
+
+        //TC03: Malformed scenes.
+        assertThrows(IOException.class, () -> read("<scene><lamp/></scene>", null), "ERROR: unknown element does not throw an exception");
+        assertThrows(IOException.class, () -> read("<scene><geometries><sphere radius=\"1\"/></geometries></scene>", null),
+                "ERROR: missing attribute does not throw an exception");
+        assertThrows(IOException.class, () -> read("<scene><geometries><sphere center=\"0 0\" radius=\"1\"/></geometries></scene>", null),
+                "ERROR: malformed point does not throw an exception");
+        assertThrows(IOException.class, () -> read("<scene><geometries><sphere center=\"0 0 0\" radius=\"x\"/></geometries></scene>", null),
+                "ERROR: malformed number does not throw an exception");
+        assertThrows(IOException.class, () -> read("<scene><geometries><sphere center=\"0 0 0\" radius=\"1\" material=\"m\"/></geometries></scene>", null),
+                "ERROR: unknown material does not throw an exception");
+        assertThrows(IOException.class, () -> read("<scene><geometries>", null), "ERROR: unclosed element does not throw an exception");
+
+        // =============== Boundary Values Tests ==================
+        //TC11: An empty scene.
+        Scene empty = read("<scene/>", null);
+        assertTrue(empty.geometries.getIntersections().isEmpty(), "ERROR: empty scene has geometries");
+        assertEquals(0, empty.background.getRed(), "ERROR: empty scene has a background");
+
+        //TC12: A document type with an entity is not read.
+        assertThrows(IOException.class, () -> read("<!DOCTYPE scene [<!ENTITY c \"1 2 3\">]><scene background-color=\"&c;\"/>", null),
+                "ERROR: entity does not throw an exception");
+
+        //TC13: A geometry of zero radius.
+        assertThrows(IOException.class, () -> read("<scene><geometries><tube point=\"0 0 0\" direction=\"0 0 1\" radius=\"0\"/></geometries></scene>", null),
+                "ERROR: zero radius does not throw an exception");
+    }
+}